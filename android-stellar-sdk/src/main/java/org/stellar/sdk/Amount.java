@@ -0,0 +1,265 @@
+package org.stellar.sdk;
+
+import java.math.BigDecimal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents an amount of an asset as a 64-bit number of stroops (1 stroop = 0.0000001 units).
+ * <p>
+ * Amounts are exchanged with Horizon and users as decimal strings with up to 7 decimal places. The static
+ * {@link #parse(CharSequence)} and {@link #format(long, StringBuilder)} methods convert between the two
+ * representations without going through {@link BigDecimal}.
+ *
+ * @see <a href="https://www.stellar.org/developers/guides/concepts/assets.html#amount-precision-and-representation" target="_blank">Amount Precision and Representation</a>
+ */
+public final class Amount implements Comparable<Amount> {
+
+    /**
+     * Number of decimal places in an amount.
+     */
+    public static final int DECIMALS = 7;
+
+    /**
+     * Number of stroops in one unit of an asset.
+     */
+    public static final long ONE = 10000000L;
+
+    private static final long MAX_WHOLE = Long.MAX_VALUE / ONE;
+    private static final long MAX_FRACTION = Long.MAX_VALUE % ONE;
+
+    private final long mStroops;
+
+    private Amount(long stroops) {
+        mStroops = stroops;
+    }
+
+    /**
+     * Creates a new Amount from a number of stroops.
+     *
+     * @param stroops amount in stroops
+     */
+    public static Amount fromStroops(long stroops) {
+        return new Amount(stroops);
+    }
+
+    /**
+     * Creates a new Amount from a decimal string.
+     *
+     * @param amount Ex. "100.5"
+     * @throws NumberFormatException when <code>amount</code> is not a valid number.
+     * @throws ArithmeticException   when <code>amount</code> has more than 7 decimal places or does not fit in 64 bits.
+     */
+    public static Amount fromString(String amount) {
+        return new Amount(parse(amount));
+    }
+
+    /**
+     * Returns the number of stroops in this amount.
+     */
+    public long getStroops() {
+        return mStroops;
+    }
+
+    /**
+     * Returns a new Amount that is the sum of this amount and <code>other</code>.
+     *
+     * @param other amount to add
+     * @throws ArithmeticException when the result does not fit in 64 bits.
+     */
+    public Amount plus(Amount other) {
+        checkNotNull(other, "other cannot be null");
+        long result = mStroops + other.mStroops;
+        if (((mStroops ^ result) & (other.mStroops ^ result)) < 0) {
+            throw new ArithmeticException("amount overflow");
+        }
+        return new Amount(result);
+    }
+
+    /**
+     * Returns a new Amount that is the difference of this amount and <code>other</code>.
+     *
+     * @param other amount to subtract
+     * @throws ArithmeticException when the result does not fit in 64 bits.
+     */
+    public Amount minus(Amount other) {
+        checkNotNull(other, "other cannot be null");
+        long result = mStroops - other.mStroops;
+        if (((mStroops ^ other.mStroops) & (mStroops ^ result)) < 0) {
+            throw new ArithmeticException("amount overflow");
+        }
+        return new Amount(result);
+    }
+
+    /**
+     * Converts a decimal string to a number of stroops. Accepts the same input as
+     * <code>new BigDecimal(value)</code> and gives the same result as multiplying it by 10^7 and calling
+     * <code>longValueExact()</code>, but does not allocate for plain (non-exponent) decimal strings.
+     *
+     * @param value Ex. "100.5"
+     * @throws NumberFormatException when <code>value</code> is not a valid number.
+     * @throws ArithmeticException   when <code>value</code> has more than 7 decimal places or does not fit in 64 bits.
+     */
+    public static long parse(CharSequence value) {
+        checkNotNull(value, "value cannot be null");
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0) {
+            char sign = value.charAt(0);
+            if (sign == '-') {
+                negative = true;
+                i++;
+            } else if (sign == '+') {
+                i++;
+            }
+        }
+
+        long whole = 0;
+        boolean hasDigits = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                break;
+            }
+            if (c < '0' || c > '9') {
+                return parseExponent(value, c);
+            }
+            whole = whole * 10 + (c - '0');
+            if (whole > MAX_WHOLE) {
+                if (hasExponent(value, i)) {
+                    return parseBigDecimal(value);
+                }
+                throw new ArithmeticException("amount overflow");
+            }
+            hasDigits = true;
+        }
+
+        long fraction = 0;
+        int decimals = 0;
+        if (i < length) {
+            // Skip '.'
+            i++;
+            for (; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return parseExponent(value, c);
+                }
+                hasDigits = true;
+                if (decimals < DECIMALS) {
+                    fraction = fraction * 10 + (c - '0');
+                    decimals++;
+                } else if (c != '0') {
+                    if (hasExponent(value, i)) {
+                        return parseBigDecimal(value);
+                    }
+                    throw new ArithmeticException("amount has more than 7 decimal places");
+                }
+            }
+        }
+
+        if (!hasDigits) {
+            throw new NumberFormatException("invalid amount: " + value);
+        }
+
+        for (; decimals < DECIMALS; decimals++) {
+            fraction *= 10;
+        }
+
+        if (whole == MAX_WHOLE && fraction > MAX_FRACTION + (negative ? 1 : 0)) {
+            throw new ArithmeticException("amount overflow");
+        }
+
+        return negative ? -(whole * ONE) - fraction : whole * ONE + fraction;
+    }
+
+    /**
+     * Slow path for amounts in scientific notation (Ex. "1E+3").
+     */
+    private static long parseExponent(CharSequence value, char c) {
+        if (c != 'e' && c != 'E') {
+            throw new NumberFormatException("invalid amount: " + value);
+        }
+        return parseBigDecimal(value);
+    }
+
+    // Scale and range of a number in scientific notation are checked after the exponent is applied
+    private static boolean hasExponent(CharSequence value, int from) {
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == 'e' || c == 'E') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseBigDecimal(CharSequence value) {
+        return new BigDecimal(value.toString()).movePointRight(DECIMALS).longValueExact();
+    }
+
+    /**
+     * Converts a number of stroops to a decimal string with trailing zeros removed. Ex. 15000000 becomes "1.5".
+     *
+     * @param stroops amount in stroops
+     */
+    public static String format(long stroops) {
+        return format(stroops, new StringBuilder(21)).toString();
+    }
+
+    /**
+     * Appends the decimal representation of <code>stroops</code> to <code>out</code>.
+     *
+     * @param stroops amount in stroops
+     * @param out     builder to append to
+     * @return <code>out</code>
+     * @see #format(long)
+     */
+    public static StringBuilder format(long stroops, StringBuilder out) {
+        checkNotNull(out, "out cannot be null");
+        long whole = stroops / ONE;
+        int fraction = (int) (stroops % ONE);
+        if (stroops < 0) {
+            out.append('-');
+            whole = -whole;
+            fraction = -fraction;
+        }
+        out.append(whole);
+        if (fraction != 0) {
+            out.append('.');
+            int divisor = (int) (ONE / 10);
+            while (fraction != 0) {
+                out.append((char) ('0' + fraction / divisor));
+                fraction %= divisor;
+                divisor /= 10;
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public int compareTo(Amount other) {
+        return mStroops < other.mStroops ? -1 : (mStroops == other.mStroops ? 0 : 1);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof Amount)) {
+            return false;
+        }
+        return mStroops == ((Amount) object).mStroops;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (mStroops ^ (mStroops >>> 32));
+    }
+
+    /**
+     * Returns decimal representation of this amount. Ex. "100.5"
+     */
+    @Override
+    public String toString() {
+        return format(mStroops);
+    }
+}
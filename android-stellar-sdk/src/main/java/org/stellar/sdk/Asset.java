@@ -2,6 +2,9 @@ package org.stellar.sdk;
 
 /**
  * Base Asset class.
+ * <p>
+ * Assets returned by {@link #fromXdr(org.stellar.sdk.xdr.Asset)}, {@link #createNativeAsset()},
+ * <code>createNonNativeAsset</code> and {@link #intern()} are canonical: equal assets are the same instance.
  *
  * @see <a href="https://www.stellar.org/developers/learn/concepts/assets.html" target="_blank">Assets</a>
  */
@@ -10,6 +13,13 @@ public abstract class Asset {
     Asset() {
     }
 
+    /**
+     * Returns the canonical native asset.
+     */
+    public static Asset createNativeAsset() {
+        return AssetRegistry.nativeAsset();
+    }
+
     /**
      * Creates one of AssetTypeCreditAlphaNum4 or AssetTypeCreditAlphaNum12 object based on a <code>code</code> length
      *
@@ -17,13 +27,17 @@ public abstract class Asset {
      * @param issuer Asset issuer
      */
     public static Asset createNonNativeAsset(String code, KeyPair issuer) {
-        if (code.length() >= 1 && code.length() <= 4) {
-            return new AssetTypeCreditAlphaNum4(code, issuer);
-        } else if (code.length() >= 5 && code.length() <= 12) {
-            return new AssetTypeCreditAlphaNum12(code, issuer);
-        } else {
-            throw new AssetCodeLengthInvalidException();
-        }
+        return createNonNativeAsset(code, issuer.getAccountId());
+    }
+
+    /**
+     * Creates one of AssetTypeCreditAlphaNum4 or AssetTypeCreditAlphaNum12 object based on a <code>code</code> length
+     *
+     * @param code            Asset code
+     * @param issuerAccountId Strkey encoded asset issuer
+     */
+    public static Asset createNonNativeAsset(String code, String issuerAccountId) {
+        return AssetRegistry.get(code, issuerAccountId);
     }
 
     /**
@@ -34,21 +48,29 @@ public abstract class Asset {
     public static Asset fromXdr(org.stellar.sdk.xdr.Asset xdr) {
         switch (xdr.getDiscriminant()) {
             case ASSET_TYPE_NATIVE:
-                return new AssetTypeNative();
+                return AssetRegistry.nativeAsset();
             case ASSET_TYPE_CREDIT_ALPHANUM4:
                 String assetCode4 = Util.paddedByteArrayToString(xdr.getAlphaNum4().getAssetCode());
-                KeyPair issuer4 = KeyPair.fromXdrPublicKey(
-                        xdr.getAlphaNum4().getIssuer().getAccountID());
-                return new AssetTypeCreditAlphaNum4(assetCode4, issuer4);
+                String issuer4 = StrKey.encodeStellarAccountId(
+                        xdr.getAlphaNum4().getIssuer().getAccountID().getEd25519().getUint256());
+                return AssetRegistry.get(assetCode4, issuer4);
             case ASSET_TYPE_CREDIT_ALPHANUM12:
                 String assetCode12 = Util.paddedByteArrayToString(xdr.getAlphaNum12().getAssetCode());
-                KeyPair issuer12 = KeyPair.fromXdrPublicKey(xdr.getAlphaNum12().getIssuer().getAccountID());
-                return new AssetTypeCreditAlphaNum12(assetCode12, issuer12);
+                String issuer12 = StrKey.encodeStellarAccountId(
+                        xdr.getAlphaNum12().getIssuer().getAccountID().getEd25519().getUint256());
+                return AssetRegistry.get(assetCode12, issuer12);
             default:
                 throw new IllegalArgumentException("Unknown asset type " + xdr.getDiscriminant());
         }
     }
 
+    /**
+     * Returns the canonical instance equal to this asset.
+     */
+    public Asset intern() {
+        return AssetRegistry.intern(this);
+    }
+
     /**
      * Returns asset type. Possible types:
      * <ul>
@@ -63,7 +85,8 @@ public abstract class Asset {
     public abstract boolean equals(Object object);
 
     /**
-     * Generates XDR object from a given Asset object
+     * Generates XDR object from a given Asset object. Assets of the SDK generate the object once and share it
+     * between calls, so it must not be modified.
      */
     public abstract org.stellar.sdk.xdr.Asset toXdr();
 }
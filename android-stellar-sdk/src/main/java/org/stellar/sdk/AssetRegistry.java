@@ -0,0 +1,69 @@
+package org.stellar.sdk;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps canonical {@link Asset} instances so that equal assets share one object with a precomputed hash code and
+ * cached XDR. Lookups by code and strkey issuer never create a {@link KeyPair}.
+ */
+final class AssetRegistry {
+
+    /**
+     * Maximum number of interned credit assets. Once reached, new assets are returned without being interned, so
+     * untrusted input cannot grow the registry without bound.
+     */
+    static final int MAX_SIZE = 10000;
+
+    private static final AssetTypeNative NATIVE = new AssetTypeNative();
+    private static final ConcurrentHashMap<Asset, Asset> sAssets = new ConcurrentHashMap<Asset, Asset>();
+
+    private AssetRegistry() {
+    }
+
+    static Asset nativeAsset() {
+        return NATIVE;
+    }
+
+    /**
+     * Returns canonical AssetTypeCreditAlphaNum4 or AssetTypeCreditAlphaNum12 depending on <code>code</code> length.
+     *
+     * @throws AssetCodeLengthInvalidException when code is not 1-12 characters long
+     * @throws FormatException                 when issuer is not a valid account ID
+     */
+    static Asset get(String code, String issuerAccountId) {
+        AssetTypeCreditAlphaNum asset;
+        if (code.length() >= 1 && code.length() <= 4) {
+            asset = new AssetTypeCreditAlphaNum4(code, issuerAccountId);
+        } else if (code.length() >= 5 && code.length() <= 12) {
+            asset = new AssetTypeCreditAlphaNum12(code, issuerAccountId);
+        } else {
+            throw new AssetCodeLengthInvalidException();
+        }
+        Asset canonical = sAssets.get(asset);
+        if (canonical != null) {
+            return canonical;
+        }
+        // Validate the issuer once, before it is shared
+        StrKey.decodeStellarAccountId(issuerAccountId);
+        return put(asset);
+    }
+
+    static Asset intern(Asset asset) {
+        if (asset instanceof AssetTypeNative) {
+            return NATIVE;
+        }
+        Asset canonical = sAssets.get(asset);
+        if (canonical != null) {
+            return canonical;
+        }
+        return put(asset);
+    }
+
+    private static Asset put(Asset asset) {
+        if (sAssets.size() >= MAX_SIZE) {
+            return asset;
+        }
+        Asset existing = sAssets.putIfAbsent(asset, asset);
+        return existing != null ? existing : asset;
+    }
+}
@@ -1,5 +1,10 @@
 package org.stellar.sdk;
 
+import org.stellar.sdk.xdr.AccountID;
+import org.stellar.sdk.xdr.PublicKey;
+import org.stellar.sdk.xdr.PublicKeyType;
+import org.stellar.sdk.xdr.Uint256;
+
 import java.util.Arrays;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -12,43 +17,82 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public abstract class AssetTypeCreditAlphaNum extends Asset {
 
     protected final String mCode;
-    protected final KeyPair mIssuer;
+    private final String mIssuerAccountId;
+    private final int mHashCode;
+    private volatile KeyPair mIssuer;
 
     public AssetTypeCreditAlphaNum(String code, KeyPair issuer) {
-        checkNotNull(code, "code cannot be null");
-        checkNotNull(issuer, "issuer cannot be null");
-        mCode = new String(code);
-        mIssuer = KeyPair.fromAccountId(issuer.getAccountId());
+        this(code, checkNotNull(issuer, "issuer cannot be null").getAccountId());
+    }
+
+    /**
+     * Creates an asset from a strkey encoded issuer. The issuer {@link KeyPair} is created on the first
+     * {@link #getIssuer()} call.
+     */
+    AssetTypeCreditAlphaNum(String code, String issuerAccountId) {
+        mCode = checkNotNull(code, "code cannot be null");
+        mIssuerAccountId = checkNotNull(issuerAccountId, "issuer cannot be null");
+        mHashCode = Arrays.hashCode(new Object[]{mCode, mIssuerAccountId});
     }
 
     /**
      * Returns asset code
      */
     public String getCode() {
-        return new String(mCode);
+        return mCode;
     }
 
     /**
      * Returns asset issuer
      */
     public KeyPair getIssuer() {
-        return KeyPair.fromAccountId(mIssuer.getAccountId());
+        KeyPair issuer = mIssuer;
+        if (issuer == null) {
+            issuer = KeyPair.fromAccountId(mIssuerAccountId);
+            mIssuer = issuer;
+        }
+        return issuer;
+    }
+
+    /**
+     * Returns strkey encoded asset issuer.
+     */
+    public String getIssuerAccountId() {
+        return mIssuerAccountId;
+    }
+
+    /**
+     * Generates issuer AccountID XDR object without creating an issuer {@link KeyPair}.
+     */
+    AccountID issuerToXdr() {
+        Uint256 uint256 = new Uint256();
+        uint256.setUint256(StrKey.decodeStellarAccountId(mIssuerAccountId));
+        PublicKey publicKey = new PublicKey();
+        publicKey.setDiscriminant(PublicKeyType.PUBLIC_KEY_TYPE_ED25519);
+        publicKey.setEd25519(uint256);
+        AccountID accountID = new AccountID();
+        accountID.setAccountID(publicKey);
+        return accountID;
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(new Object[]{this.getCode(), this.getIssuer().getAccountId()});
+        return mHashCode;
     }
 
     @Override
     public boolean equals(Object object) {
-        if (!this.getClass().equals(object.getClass())) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || !this.getClass().equals(object.getClass())) {
             return false;
         }
 
         AssetTypeCreditAlphaNum o = (AssetTypeCreditAlphaNum) object;
 
-        return this.getCode().equals(o.getCode()) &&
-                this.getIssuer().getAccountId().equals(o.getIssuer().getAccountId());
+        return mHashCode == o.mHashCode &&
+                mCode.equals(o.mCode) &&
+                mIssuerAccountId.equals(o.mIssuerAccountId);
     }
 }
@@ -1,6 +1,5 @@
 package org.stellar.sdk;
 
-import org.stellar.sdk.xdr.AccountID;
 import org.stellar.sdk.xdr.AssetType;
 
 /**
@@ -10,6 +9,8 @@ import org.stellar.sdk.xdr.AssetType;
  */
 public final class AssetTypeCreditAlphaNum12 extends AssetTypeCreditAlphaNum {
 
+    private volatile org.stellar.sdk.xdr.Asset mXdr;
+
     /**
      * Class constructor
      *
@@ -18,6 +19,15 @@ public final class AssetTypeCreditAlphaNum12 extends AssetTypeCreditAlphaNum {
      */
     public AssetTypeCreditAlphaNum12(String code, KeyPair issuer) {
         super(code, issuer);
+        checkCodeLength(code);
+    }
+
+    AssetTypeCreditAlphaNum12(String code, String issuerAccountId) {
+        super(code, issuerAccountId);
+        checkCodeLength(code);
+    }
+
+    private static void checkCodeLength(String code) {
         if (code.length() < 5 || code.length() > 12) {
             throw new AssetCodeLengthInvalidException();
         }
@@ -28,16 +38,22 @@ public final class AssetTypeCreditAlphaNum12 extends AssetTypeCreditAlphaNum {
         return "credit_alphanum12";
     }
 
+    /**
+     * Generates XDR object from a given Asset object. The object is generated once and shared between calls,
+     * so it must not be modified.
+     */
     @Override
     public org.stellar.sdk.xdr.Asset toXdr() {
-        org.stellar.sdk.xdr.Asset xdr = new org.stellar.sdk.xdr.Asset();
-        xdr.setDiscriminant(AssetType.ASSET_TYPE_CREDIT_ALPHANUM12);
-        org.stellar.sdk.xdr.Asset.AssetAlphaNum12 credit = new org.stellar.sdk.xdr.Asset.AssetAlphaNum12();
-        credit.setAssetCode(Util.paddedByteArray(mCode, 12));
-        AccountID accountID = new AccountID();
-        accountID.setAccountID(mIssuer.getXdrPublicKey());
-        credit.setIssuer(accountID);
-        xdr.setAlphaNum12(credit);
+        org.stellar.sdk.xdr.Asset xdr = mXdr;
+        if (xdr == null) {
+            xdr = new org.stellar.sdk.xdr.Asset();
+            xdr.setDiscriminant(AssetType.ASSET_TYPE_CREDIT_ALPHANUM12);
+            org.stellar.sdk.xdr.Asset.AssetAlphaNum12 credit = new org.stellar.sdk.xdr.Asset.AssetAlphaNum12();
+            credit.setAssetCode(Util.paddedByteArray(mCode, 12));
+            credit.setIssuer(issuerToXdr());
+            xdr.setAlphaNum12(credit);
+            mXdr = xdr;
+        }
         return xdr;
     }
 }
@@ -9,6 +9,8 @@ import org.stellar.sdk.xdr.AssetType;
  */
 public final class AssetTypeNative extends Asset {
 
+    private volatile org.stellar.sdk.xdr.Asset mXdr;
+
     public AssetTypeNative() {
     }
 
@@ -19,7 +21,7 @@ public final class AssetTypeNative extends Asset {
 
     @Override
     public boolean equals(Object object) {
-        return this.getClass().equals(object.getClass());
+        return object != null && this.getClass().equals(object.getClass());
     }
 
     @Override
@@ -27,10 +29,18 @@ public final class AssetTypeNative extends Asset {
         return 0;
     }
 
+    /**
+     * Generates XDR object from a given Asset object. The object is generated once and shared between calls,
+     * so it must not be modified.
+     */
     @Override
     public org.stellar.sdk.xdr.Asset toXdr() {
-        org.stellar.sdk.xdr.Asset xdr = new org.stellar.sdk.xdr.Asset();
-        xdr.setDiscriminant(AssetType.ASSET_TYPE_NATIVE);
+        org.stellar.sdk.xdr.Asset xdr = mXdr;
+        if (xdr == null) {
+            xdr = new org.stellar.sdk.xdr.Asset();
+            xdr.setDiscriminant(AssetType.ASSET_TYPE_NATIVE);
+            mXdr = xdr;
+        }
         return xdr;
     }
 }
@@ -0,0 +1,281 @@
+package org.stellar.sdk;
+
+import org.stellar.sdk.requests.RateLimitInterceptor;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * OkHttp interceptor routing requests between several Horizon servers. Used by {@link MultiServer}.
+ * <p>
+ * Requests to any of the endpoints are rewritten to the endpoint chosen for them. Reads go to the healthy endpoint
+ * with the lowest latency and are retried on the next endpoint when a connection fails or Horizon responds with 5xx
+ * status code. Submissions (<code>POST</code> requests) go to the endpoints in configured order, so the first
+ * endpoint is the primary one. A submission is retried on the next endpoint only when it could not connect to the
+ * server: after a timeout or a 5xx response, like 504, the transaction may still be applied, so the error is
+ * returned to the caller.
+ * <p>
+ * An endpoint is unhealthy for a cooldown period after a failure, and when its latest ledger is more than
+ * <code>maxLedgerLag</code> ledgers behind the latest ledger seen on other endpoints. Unhealthy endpoints are used
+ * only when all endpoints are unhealthy.
+ * <p>
+ * When rate limiting is enabled, every endpoint keeps its own {@link RateLimitInterceptor}, as Horizon servers
+ * limit requests independently. A 429 response of one endpoint pauses only requests routed to it.
+ */
+final class HorizonRouter implements Interceptor {
+
+    /**
+     * Tag of requests sent to a specific endpoint without routing.
+     */
+    static final Object DIRECT = new Object();
+
+    private static final double LATENCY_WEIGHT = 0.2;
+    private static final double ERROR_WEIGHT = 0.2;
+    private static final long INITIAL_COOLDOWN_MILLIS = 500;
+    private static final long MAX_COOLDOWN_MILLIS = 30000;
+
+    /**
+     * Horizon server and its statistics. Fields are guarded by the router.
+     */
+    static final class Endpoint {
+        final URI uri;
+        final String scheme;
+        final String host;
+        final int port;
+        // Path of the endpoint without trailing slash
+        final String pathPrefix;
+        // Moving average of latency, -1 until the first response
+        double latencyMillis = -1;
+        // Moving average of the share of failed requests
+        double errorRate;
+        int consecutiveFailures;
+        long cooldownUntil;
+        long latestLedger;
+        // Rate limit of the endpoint, used when the router is rate limited
+        final RateLimitInterceptor limiter = new RateLimitInterceptor();
+
+        Endpoint(URI uri) {
+            this.uri = uri;
+            this.scheme = uri.getScheme().toLowerCase();
+            this.host = uri.getHost().toLowerCase();
+            this.port = uri.getPort() != -1 ? uri.getPort() : HttpUrl.defaultPort(scheme);
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            while (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            this.pathPrefix = path;
+        }
+
+        boolean matches(HttpUrl url) {
+            String path = url.encodedPath();
+            return scheme.equals(url.scheme()) && host.equals(url.host().toLowerCase()) && port == url.port()
+                    && (path.equals(pathPrefix) || path.startsWith(pathPrefix + "/"));
+        }
+    }
+
+    private final List<Endpoint> mEndpoints;
+    private final int mMaxLedgerLag;
+    private volatile boolean mRateLimited;
+
+    HorizonRouter(List<URI> endpoints, int maxLedgerLag) {
+        checkArgument(!endpoints.isEmpty(), "endpoints cannot be empty");
+        checkArgument(maxLedgerLag >= 0, "maxLedgerLag cannot be negative");
+        List<Endpoint> list = new ArrayList<Endpoint>();
+        for (URI uri : endpoints) {
+            list.add(new Endpoint(uri));
+        }
+        mEndpoints = Collections.unmodifiableList(list);
+        mMaxLedgerLag = maxLedgerLag;
+    }
+
+    List<Endpoint> getEndpoints() {
+        return mEndpoints;
+    }
+
+    /**
+     * Enables or disables rate limiting of routed requests, see {@link RateLimitInterceptor}.
+     */
+    void setRateLimited(boolean rateLimited) {
+        mRateLimited = rateLimited;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Endpoint origin = request.tag() == DIRECT ? null : find(request.url());
+        if (origin == null) {
+            return chain.proceed(request);
+        }
+
+        boolean submission = "POST".equals(request.method());
+        List<Endpoint> candidates = submission ? byPriority() : byLatency();
+        IOException failure = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Endpoint endpoint = candidates.get(i);
+            Request routed = request.newBuilder().url(rewrite(request.url(), origin, endpoint)).build();
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = mRateLimited ? endpoint.limiter.proceed(chain, routed) : chain.proceed(routed);
+            } catch (IOException e) {
+                recordFailure(endpoint);
+                if (submission && !isConnectFailure(e)) {
+                    throw e;
+                }
+                failure = e;
+                continue;
+            }
+            if (response.code() >= 500) {
+                recordFailure(endpoint);
+                if (!submission && i < candidates.size() - 1) {
+                    response.close();
+                    continue;
+                }
+                return response;
+            }
+            recordSuccess(endpoint, (System.nanoTime() - start) / 1000000, parseLedger(response.header("Latest-Ledger")));
+            return response;
+        }
+        throw failure;
+    }
+
+    /**
+     * Returns <code>true</code> when <code>e</code> was thrown before the request was sent.
+     */
+    private static boolean isConnectFailure(IOException e) {
+        return e instanceof ConnectException || e instanceof NoRouteToHostException
+                || e instanceof UnknownHostException;
+    }
+
+    private Endpoint find(HttpUrl url) {
+        for (Endpoint endpoint : mEndpoints) {
+            if (endpoint.matches(url)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private static HttpUrl rewrite(HttpUrl url, Endpoint from, Endpoint to) {
+        if (from == to) {
+            return url;
+        }
+        return url.newBuilder()
+                .scheme(to.scheme)
+                .host(to.host)
+                .port(to.port)
+                .encodedPath(to.pathPrefix + url.encodedPath().substring(from.pathPrefix.length()))
+                .build();
+    }
+
+    /**
+     * Returns endpoints ordered for a read: healthy ones by latency, then unhealthy ones.
+     */
+    synchronized List<Endpoint> byLatency() {
+        List<Endpoint> healthy = new ArrayList<Endpoint>();
+        List<Endpoint> unhealthy = new ArrayList<Endpoint>();
+        split(healthy, unhealthy);
+        Collections.sort(healthy, new Comparator<Endpoint>() {
+            @Override
+            public int compare(Endpoint a, Endpoint b) {
+                return Double.compare(score(a), score(b));
+            }
+        });
+        Collections.sort(unhealthy, new Comparator<Endpoint>() {
+            @Override
+            public int compare(Endpoint a, Endpoint b) {
+                return Long.valueOf(a.cooldownUntil).compareTo(b.cooldownUntil);
+            }
+        });
+        healthy.addAll(unhealthy);
+        return healthy;
+    }
+
+    /**
+     * Returns endpoints ordered for a submission: healthy ones in configured order, then unhealthy ones.
+     */
+    synchronized List<Endpoint> byPriority() {
+        List<Endpoint> healthy = new ArrayList<Endpoint>();
+        List<Endpoint> unhealthy = new ArrayList<Endpoint>();
+        split(healthy, unhealthy);
+        healthy.addAll(unhealthy);
+        return healthy;
+    }
+
+    // Called with the router locked
+    private void split(List<Endpoint> healthy, List<Endpoint> unhealthy) {
+        long now = now();
+        long clusterLedger = 0;
+        for (Endpoint endpoint : mEndpoints) {
+            clusterLedger = Math.max(clusterLedger, endpoint.latestLedger);
+        }
+        for (Endpoint endpoint : mEndpoints) {
+            boolean lagging = endpoint.latestLedger > 0 && clusterLedger - endpoint.latestLedger > mMaxLedgerLag;
+            if ((endpoint.consecutiveFailures > 0 && now < endpoint.cooldownUntil) || lagging) {
+                unhealthy.add(endpoint);
+            } else {
+                healthy.add(endpoint);
+            }
+        }
+    }
+
+    // Endpoints without responses are tried first to measure their latency
+    private static double score(Endpoint endpoint) {
+        return Math.max(endpoint.latencyMillis, 0) * (1 + 4 * endpoint.errorRate);
+    }
+
+    /**
+     * Records successful response.
+     *
+     * @param latestLedger latest ledger of the endpoint or 0 when unknown
+     */
+    synchronized void recordSuccess(Endpoint endpoint, long latencyMillis, long latestLedger) {
+        if (endpoint.latencyMillis < 0) {
+            endpoint.latencyMillis = latencyMillis;
+        } else {
+            endpoint.latencyMillis += LATENCY_WEIGHT * (latencyMillis - endpoint.latencyMillis);
+        }
+        endpoint.errorRate *= 1 - ERROR_WEIGHT;
+        endpoint.consecutiveFailures = 0;
+        endpoint.cooldownUntil = 0;
+        if (latestLedger > endpoint.latestLedger) {
+            endpoint.latestLedger = latestLedger;
+        }
+    }
+
+    synchronized void recordFailure(Endpoint endpoint) {
+        endpoint.errorRate += ERROR_WEIGHT * (1 - endpoint.errorRate);
+        long cooldown = Math.min(MAX_COOLDOWN_MILLIS, INITIAL_COOLDOWN_MILLIS << Math.min(endpoint.consecutiveFailures, 16));
+        endpoint.consecutiveFailures++;
+        endpoint.cooldownUntil = now() + cooldown;
+    }
+
+    static long parseLedger(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000;
+    }
+}
@@ -0,0 +1,308 @@
+package org.stellar.sdk;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.stellar.sdk.responses.Page;
+import org.stellar.sdk.responses.TransactionResponse;
+import org.stellar.sdk.responses.operations.OperationResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Fetches records of a range of ledgers using several worker threads and returns them in ledger order.
+ * <p>
+ * Workers take the next ledger of the range and fetch all of its records. Ledgers fetched out of order wait in a
+ * reorder buffer until all previous ledgers were returned. At most <code>maxBufferedLedgers</code> ledgers are
+ * fetched ahead of the ledger being returned, so memory use is bounded.
+ * <p>
+ * After all records of a ledger were returned, {@link CheckpointListener#onLedgerCompleted(long)} is called.
+ * To resume an interrupted backfill, start a new one from the ledger after the last completed one.
+ * <pre>
+ * LedgerBackfill&lt;TransactionResponse&gt; backfill = LedgerBackfill.transactions(server, 1000, 2000, 4);
+ * while (backfill.hasNext()) {
+ *     TransactionResponse transaction = backfill.next();
+ * }
+ * </pre>
+ *
+ * @param <T> type of records
+ */
+public class LedgerBackfill<T> implements Iterator<T>, Closeable {
+
+    /**
+     * Fetches all records of a single ledger.
+     *
+     * @param <T> type of records
+     */
+    public interface Fetcher<T> {
+        List<T> fetch(long ledgerSequence) throws Exception;
+    }
+
+    /**
+     * Receives ledgers whose records were all returned by the backfill.
+     */
+    public interface CheckpointListener {
+        void onLedgerCompleted(long ledgerSequence);
+    }
+
+    private static final int PAGE_SIZE = 200;
+
+    private final Fetcher<T> mFetcher;
+    private final long mToLedger;
+    private final int mMaxBufferedLedgers;
+    private final ExecutorService mExecutor;
+    private final Object mLock = new Object();
+    // Fetched ledgers waiting to be returned
+    private final Map<Long, List<T>> mBuffer = new HashMap<Long, List<T>>();
+    private long mNextToFetch;
+    private long mNextToReturn;
+    private long mLastCompletedLedger;
+    private Throwable mError;
+    // The earliest ledger that could not be fetched
+    private long mErrorLedger;
+    private boolean mClosed;
+    private CheckpointListener mCheckpointListener;
+    // Records of mCurrentLedger not returned yet
+    private Iterator<T> mRecords;
+    private long mCurrentLedger;
+
+    /**
+     * Creates and starts a new backfill.
+     *
+     * @param fetcher            fetches records of a ledger
+     * @param fromLedger         first ledger of the range
+     * @param toLedger           last ledger of the range (inclusive)
+     * @param workers            number of worker threads
+     * @param maxBufferedLedgers maximum number of ledgers fetched ahead of the ledger being returned
+     */
+    public LedgerBackfill(Fetcher<T> fetcher, long fromLedger, long toLedger, int workers, int maxBufferedLedgers) {
+        mFetcher = checkNotNull(fetcher, "fetcher cannot be null");
+        checkArgument(fromLedger > 0 && fromLedger <= toLedger, "invalid ledger range");
+        checkArgument(workers > 0, "workers must be positive");
+        checkArgument(maxBufferedLedgers >= workers, "maxBufferedLedgers cannot be less than workers");
+        mToLedger = toLedger;
+        mMaxBufferedLedgers = maxBufferedLedgers;
+        mNextToFetch = fromLedger;
+        mNextToReturn = fromLedger;
+        mLastCompletedLedger = fromLedger - 1;
+
+        mExecutor = Executors.newFixedThreadPool(workers,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ledger-backfill-%d").build());
+        for (int i = 0; i < workers; i++) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    work();
+                }
+            });
+        }
+        mExecutor.shutdown();
+    }
+
+    /**
+     * Creates and starts a backfill of transactions in ledgers <code>fromLedger</code> to <code>toLedger</code>.
+     */
+    public static LedgerBackfill<TransactionResponse> transactions(final Server server, long fromLedger, long toLedger, int workers) {
+        checkNotNull(server, "server cannot be null");
+        return new LedgerBackfill<TransactionResponse>(new Fetcher<TransactionResponse>() {
+            @Override
+            public List<TransactionResponse> fetch(long ledgerSequence) throws IOException {
+                Page<TransactionResponse> page = server.transactions().forLedger(ledgerSequence).limit(PAGE_SIZE).execute();
+                List<TransactionResponse> records = new ArrayList<TransactionResponse>(page.getRecords());
+                // A full page may be followed by more records of the ledger
+                while (page.getRecords().size() == PAGE_SIZE) {
+                    page = server.transactions().execute(page.getLinks().getNext().getUri());
+                    records.addAll(page.getRecords());
+                }
+                return records;
+            }
+        }, fromLedger, toLedger, workers, workers * 2);
+    }
+
+    /**
+     * Creates and starts a backfill of operations in ledgers <code>fromLedger</code> to <code>toLedger</code>.
+     */
+    public static LedgerBackfill<OperationResponse> operations(final Server server, long fromLedger, long toLedger, int workers) {
+        checkNotNull(server, "server cannot be null");
+        return new LedgerBackfill<OperationResponse>(new Fetcher<OperationResponse>() {
+            @Override
+            public List<OperationResponse> fetch(long ledgerSequence) throws IOException {
+                Page<OperationResponse> page = server.operations().forLedger(ledgerSequence).limit(PAGE_SIZE).execute();
+                List<OperationResponse> records = new ArrayList<OperationResponse>(page.getRecords());
+                // A full page may be followed by more records of the ledger
+                while (page.getRecords().size() == PAGE_SIZE) {
+                    page = server.operations().execute(page.getLinks().getNext().getUri());
+                    records.addAll(page.getRecords());
+                }
+                return records;
+            }
+        }, fromLedger, toLedger, workers, workers * 2);
+    }
+
+    /**
+     * Sets listener notified after all records of a ledger were returned.
+     *
+     * @param listener checkpoint listener
+     */
+    public LedgerBackfill<T> setCheckpointListener(CheckpointListener listener) {
+        synchronized (mLock) {
+            mCheckpointListener = listener;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the last ledger whose records were all returned, or the ledger before the range when none was.
+     */
+    public long getLastCompletedLedger() {
+        synchronized (mLock) {
+            return mLastCompletedLedger;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> when there are more records. Blocks until the next ledger is fetched.
+     *
+     * @throws RuntimeException when a ledger could not be fetched.
+     */
+    @Override
+    public boolean hasNext() {
+        while (mRecords == null || !mRecords.hasNext()) {
+            if (mRecords != null) {
+                completeLedger(mCurrentLedger);
+                mRecords = null;
+            }
+            List<T> records;
+            synchronized (mLock) {
+                records = takeNextLedger();
+                mCurrentLedger = mNextToReturn - 1;
+            }
+            if (records == null) {
+                return false;
+            }
+            mRecords = records.iterator();
+        }
+        return true;
+    }
+
+    private void completeLedger(long ledger) {
+        CheckpointListener listener;
+        synchronized (mLock) {
+            mLastCompletedLedger = ledger;
+            listener = mCheckpointListener;
+        }
+        if (listener != null) {
+            listener.onLedgerCompleted(ledger);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return mRecords.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stops workers. Ledgers being fetched are discarded.
+     */
+    @Override
+    public void close() {
+        synchronized (mLock) {
+            mClosed = true;
+            mBuffer.clear();
+            mLock.notifyAll();
+        }
+        mExecutor.shutdownNow();
+    }
+
+    // Called with mLock held
+    private List<T> takeNextLedger() {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                if (mClosed || mNextToReturn > mToLedger) {
+                    return null;
+                }
+                List<T> records = mBuffer.remove(mNextToReturn);
+                if (records != null) {
+                    mNextToReturn++;
+                    mLock.notifyAll();
+                    return records;
+                }
+                // Lower ledgers still being fetched are returned first
+                if (mError != null && mNextToReturn == mErrorLedger) {
+                    throw new RuntimeException("Failed to fetch ledger " + mNextToReturn, mError);
+                }
+                try {
+                    mLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void work() {
+        while (true) {
+            long ledger;
+            synchronized (mLock) {
+                while (!mClosed && mError == null && mNextToFetch <= mToLedger
+                        && mNextToFetch >= mNextToReturn + mMaxBufferedLedgers) {
+                    try {
+                        mLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (mClosed || mError != null || mNextToFetch > mToLedger) {
+                    return;
+                }
+                ledger = mNextToFetch++;
+            }
+
+            List<T> records;
+            try {
+                records = mFetcher.fetch(ledger);
+            } catch (Throwable t) {
+                synchronized (mLock) {
+                    if (mError == null || ledger < mErrorLedger) {
+                        mError = t;
+                        mErrorLedger = ledger;
+                    }
+                    mLock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (mLock) {
+                if (mClosed) {
+                    return;
+                }
+                mBuffer.put(ledger, records != null ? records : new ArrayList<T>());
+                mLock.notifyAll();
+            }
+        }
+    }
+}
@@ -80,5 +80,28 @@ public abstract class Memo {
         return new MemoReturnHash(hexString);
     }
 
+    /**
+     * Creates new Memo instance from XDR object.
+     *
+     * @param memo XDR object
+     */
+    public static Memo fromXdr(org.stellar.sdk.xdr.Memo memo) {
+        switch (memo.getDiscriminant()) {
+            case MEMO_NONE:
+                return none();
+            case MEMO_TEXT:
+                return text(memo.getText());
+            case MEMO_ID:
+                // Memo id is unsigned, so it can be out of range of Memo.id()
+                return new MemoId(memo.getId());
+            case MEMO_HASH:
+                return hash(memo.getHash().getHash());
+            case MEMO_RETURN:
+                return returnHash(memo.getRetHash().getHash());
+            default:
+                throw new IllegalArgumentException("Unknown memo type " + memo.getDiscriminant());
+        }
+    }
+
     abstract org.stellar.sdk.xdr.Memo toXdr();
 }
@@ -17,6 +17,18 @@ public class MemoId extends Memo {
         this.id = id;
     }
 
+    /**
+     * Creates memo of a decoded transaction. Keeps ids of 2<sup>63</sup> and above, which are negative as
+     * <code>long</code>.
+     */
+    MemoId(Uint64 id) {
+        this.id = id.getUint64();
+    }
+
+    /**
+     * Returns the id. Ids of 2<sup>63</sup> and above, which can only come from decoded transactions, are negative,
+     * use <code>UnsignedLong.fromLongBits(id)</code> to read them.
+     */
     public long getId() {
         return id;
     }
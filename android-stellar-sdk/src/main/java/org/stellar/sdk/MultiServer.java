@@ -0,0 +1,123 @@
+package org.stellar.sdk;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link Server} sending requests to several Horizon servers of the same network.
+ * <p>
+ * Latency and errors of every server are tracked. Reads, including streams and next pages, go to the healthy server
+ * with the lowest latency. Transactions are submitted to the first (primary) server and to the next ones only when
+ * it is unhealthy or cannot be connected to. Failed reads are retried on the next server.
+ * <p>
+ * Servers whose latest ledger is more than <code>maxLedgerLag</code> ledgers behind the others are not used.
+ * Latest ledgers are read from <code>Latest-Ledger</code> response headers and updated by
+ * {@link #checkHealth()}, which should be called periodically.
+ * <pre>
+ * MultiServer server = new MultiServer("https://horizon.example.com", "https://horizon-backup.example.com");
+ * </pre>
+ */
+public class MultiServer extends Server {
+
+    private static final int DEFAULT_MAX_LEDGER_LAG = 5;
+
+    private final HorizonRouter router;
+    private final OkHttpClient httpClient;
+
+    /**
+     * @param uris URIs of Horizon servers, the first one is the primary one
+     */
+    public MultiServer(String... uris) {
+        this(DEFAULT_MAX_LEDGER_LAG, uris);
+    }
+
+    /**
+     * @param maxLedgerLag maximum number of ledgers a server can be behind others
+     * @param uris         URIs of Horizon servers, the first one is the primary one
+     */
+    public MultiServer(int maxLedgerLag, String... uris) {
+        super(primary(uris));
+        List<URI> endpoints = new ArrayList<URI>();
+        try {
+            for (String uri : uris) {
+                endpoints.add(new URI(uri));
+            }
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+        router = new HorizonRouter(endpoints, maxLedgerLag);
+        httpClient = new OkHttpClient.Builder()
+                .addInterceptor(router)
+                .build();
+        setHttpClient(httpClient);
+    }
+
+    /**
+     * Enables or disables rate limiting of requests. Every server has its own budget and a 429 response of one server
+     * pauses only requests sent to it. Requests are not limited by default.
+     *
+     * @param rateLimited <code>true</code> to limit requests
+     */
+    @Override
+    public void setRateLimited(boolean rateLimited) {
+        router.setRateLimited(rateLimited);
+    }
+
+    private static String primary(String... uris) {
+        checkArgument(uris != null && uris.length > 0, "at least one URI is required");
+        return uris[0];
+    }
+
+    /**
+     * Requests root resource of every server to update latency and latest ledger of the servers.
+     * Blocks until all servers responded or failed.
+     */
+    public void checkHealth() {
+        for (HorizonRouter.Endpoint endpoint : router.getEndpoints()) {
+            Request request = new Request.Builder().url(endpoint.uri.toString()).tag(HorizonRouter.DIRECT).build();
+            long start = System.nanoTime();
+            Response response = null;
+            try {
+                response = httpClient.newCall(request).execute();
+                if (response.code() != 200) {
+                    router.recordFailure(endpoint);
+                    continue;
+                }
+                long latency = (System.nanoTime() - start) / 1000000;
+                router.recordSuccess(endpoint, latency, latestLedger(response.body().string()));
+            } catch (IOException e) {
+                router.recordFailure(endpoint);
+            } catch (RuntimeException e) {
+                // Invalid response
+                router.recordFailure(endpoint);
+            } finally {
+                if (response != null) {
+                    response.close();
+                }
+            }
+        }
+    }
+
+    private static long latestLedger(String root) {
+        JsonElement element = new JsonParser().parse(root);
+        if (!element.isJsonObject()) {
+            return 0;
+        }
+        JsonObject object = element.getAsJsonObject();
+        JsonElement ledger = object.get("history_latest_ledger");
+        return ledger != null && !ledger.isJsonNull() ? ledger.getAsLong() : 0;
+    }
+}
@@ -13,7 +13,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 /**
  * Represents Price. Price in Stellar is represented as a fraction.
  */
-public class Price {
+public class Price implements Comparable<Price> {
+
+    /**
+     * Maximum error of <code>BigDecimal.divide(divisor, 20, ROUND_HALF_UP)</code> with a small safety margin.
+     */
+    private static final double DIVISION_ERROR = 0.51e-20;
 
     @SerializedName("n")
     private final int n;
@@ -54,8 +59,203 @@ public class Price {
      */
     public static Price fromString(String price) {
         checkNotNull(price, "price cannot be null");
+        Price result = fromDecimalString(price);
+        if (result != null) {
+            return result;
+        }
+        return fromBigDecimal(new BigDecimal(price));
+    }
+
+    /**
+     * Approximates <code>price</code> to a fraction. Gives the same result as
+     * <code>Price.fromString(Double.toString(price))</code>.
+     *
+     * @param price Ex. 1.25
+     * @see #fromString(String)
+     */
+    public static Price fromDouble(double price) {
+        return fromString(Double.toString(price));
+    }
+
+    /**
+     * Parses a non-negative decimal string (optionally in scientific notation) into <code>numerator / 10^scale</code>
+     * using long arithmetic and approximates it with {@link #continuedFraction(long, long)}.
+     *
+     * @return Price or <code>null</code> when the value is negative, malformed, does not fit in 64 bits or needs
+     * {@link #fromBigDecimal(BigDecimal)} to reproduce its rounding.
+     */
+    private static Price fromDecimalString(String price) {
+        int length = price.length();
+        int i = 0;
+        if (length > 0 && price.charAt(0) == '+') {
+            i++;
+        }
+
+        long numerator = 0;
+        int scale = 0;
+        boolean hasDigits = false;
+        boolean fraction = false;
+        for (; i < length; i++) {
+            char c = price.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            int digit = c - '0';
+            if (numerator > (Long.MAX_VALUE - digit) / 10) {
+                return null;
+            }
+            numerator = numerator * 10 + digit;
+            hasDigits = true;
+            if (fraction) {
+                scale++;
+            }
+        }
+
+        if (!hasDigits) {
+            return null;
+        }
+
+        if (i < length) {
+            char c = price.charAt(i);
+            if (c != 'e' && c != 'E') {
+                return null;
+            }
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (price.charAt(i) == '-' || price.charAt(i) == '+')) {
+                negativeExponent = price.charAt(i) == '-';
+                i++;
+            }
+            if (i == length || length - i > 3) {
+                return null;
+            }
+            int exponent = 0;
+            for (; i < length; i++) {
+                c = price.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                exponent = exponent * 10 + (c - '0');
+            }
+            scale += negativeExponent ? exponent : -exponent;
+        }
+
+        for (; scale < 0; scale++) {
+            if (numerator > Long.MAX_VALUE / 10) {
+                return null;
+            }
+            numerator *= 10;
+        }
+        if (scale > 18) {
+            return null;
+        }
+
+        long denominator = 1;
+        for (; scale > 0; scale--) {
+            denominator *= 10;
+        }
+        return continuedFraction(numerator, denominator);
+    }
+
+    /**
+     * Finds the last continued fraction convergent of non-negative <code>p / q</code> whose numerator and denominator
+     * fit in 32 bits. Terms are bounded by {@link Integer#MAX_VALUE} so none of the products can overflow a long.
+     * <p>
+     * {@link #fromBigDecimal(BigDecimal)} rounds every reciprocal to 20 decimal places, so its terms can drift from
+     * the exact ones. To give identical results this method tracks a bound on that rounding error and returns
+     * <code>null</code> when the error could change the final convergent.
+     */
+    private static Price continuedFraction(long p, long q) {
+        long maxInt = Integer.MAX_VALUE;
+        long gcd = gcd(p, q);
+        // Two previous convergents, seeded with 0/1 and 1/0
+        long h2 = 0;
+        long k2 = 1;
+        long h1 = 1;
+        long k1 = 0;
+        // Bound on |BigDecimal value - exact value| of the current term
+        double error = 0;
+        while (true) {
+            long a = p / q;
+            long f = p % q;
+            // BigDecimal may see a - 1 when the exact value is at (or just above) an integer
+            boolean mayRoundDown = error > 0 && (f == 0 || error * 2 >= f / (double) q);
+            boolean mayRoundUp = error > 0 && f != 0 && error * 2 >= (q - f) / (double) q;
+            if ((mayRoundDown || mayRoundUp) && a >= maxInt - 1) {
+                return null;
+            }
+            if (a > maxInt || (a == maxInt && f != 0)) {
+                break;
+            }
+            long h = a * h1 + h2;
+            long k = a * k1 + k2;
+            if (mayRoundDown || mayRoundUp) {
+                long low = mayRoundDown ? a - 1 : a;
+                boolean lowOverflows = low * h1 + h2 > maxInt || low * k1 + k2 > maxInt;
+                if (f != 0 || h > maxInt || k > maxInt) {
+                    // Every term BigDecimal could see overflows, so it stops here as well
+                    if (lowOverflows) {
+                        break;
+                    }
+                    return null;
+                }
+                // Exact value is an integer and h/k fits: BigDecimal sees either a followed by a huge term or
+                // a - 1, 1 (equal to a) followed by a huge term. Both give h/k if that huge term overflows.
+                double nextTerm = 1 / (error * 2) - 1;
+                if (nextTerm * Math.max(h, k) <= maxInt) {
+                    return null;
+                }
+            } else if (h > maxInt || k > maxInt) {
+                break;
+            }
+            h2 = h1;
+            k2 = k1;
+            h1 = h;
+            k1 = k;
+            if (f == 0) {
+                break;
+            }
+            // Next term is q / f
+            double fraction = f / (double) q;
+            if (error > 0) {
+                error = error / (fraction * (fraction - error)) * (1 + 1e-9) + DIVISION_ERROR;
+            } else if (!isDecimal20(f / gcd)) {
+                error = DIVISION_ERROR;
+            }
+            p = q;
+            q = f;
+        }
+        return new Price((int) h1, (int) k1);
+    }
+
+    /**
+     * Returns true when <code>1 / denominator</code> has at most 20 decimal places.
+     */
+    private static boolean isDecimal20(long denominator) {
+        for (int i = 0; i < 20 && denominator % 2 == 0; i++) {
+            denominator /= 2;
+        }
+        for (int i = 0; i < 20 && denominator % 5 == 0; i++) {
+            denominator /= 5;
+        }
+        return denominator == 1;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static Price fromBigDecimal(BigDecimal number) {
         BigDecimal maxInt = new BigDecimal(Integer.MAX_VALUE);
-        BigDecimal number = new BigDecimal(price);
         BigDecimal a;
         BigDecimal f;
         List<BigDecimal[]> fractions = new ArrayList<BigDecimal[]>();
@@ -99,6 +299,18 @@ public class Price {
         return xdr;
     }
 
+    /**
+     * Compares prices by their rational value, so <code>1/2</code> is equal to <code>2/4</code>.
+     */
+    @Override
+    public int compareTo(Price other) {
+        long left = (long) this.n * other.d;
+        long right = (long) other.n * this.d;
+        int result = left < right ? -1 : (left == right ? 0 : 1);
+        // Cross-multiplying by a negative denominator flips the inequality
+        return (this.d < 0) != (other.d < 0) ? -result : result;
+    }
+
     @Override
     public boolean equals(Object object) {
         if (!(object instanceof Price)) {
@@ -107,8 +319,29 @@ public class Price {
 
         Price price = (Price) object;
 
-        return this.getNumerator() == price.getNumerator() &&
-                this.getDenominator() == price.getDenominator();
+        return (long) this.n * price.d == (long) price.n * this.d;
+    }
 
+    @Override
+    public int hashCode() {
+        // Hash the reduced fraction so that equal prices have equal hash codes
+        long n = this.n;
+        long d = this.d;
+        long a = Math.abs(n);
+        long b = Math.abs(d);
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        if (a != 0) {
+            n /= a;
+            d /= a;
+        }
+        if (d < 0) {
+            n = -n;
+            d = -d;
+        }
+        return 31 * (int) (n ^ (n >>> 32)) + (int) (d ^ (d >>> 32));
     }
 }
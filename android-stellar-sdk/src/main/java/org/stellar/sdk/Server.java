@@ -1,6 +1,5 @@
 package org.stellar.sdk;
 
-import org.apache.commons.io.IOUtils;
 import org.stellar.sdk.requests.AccountsRequestBuilder;
 import org.stellar.sdk.requests.EffectsRequestBuilder;
 import org.stellar.sdk.requests.LedgersRequestBuilder;
@@ -9,17 +8,19 @@ import org.stellar.sdk.requests.OperationsRequestBuilder;
 import org.stellar.sdk.requests.OrderBookRequestBuilder;
 import org.stellar.sdk.requests.PathsRequestBuilder;
 import org.stellar.sdk.requests.PaymentsRequestBuilder;
+import org.stellar.sdk.requests.RateLimitInterceptor;
+import org.stellar.sdk.requests.RequestBuilder;
+import org.stellar.sdk.requests.RequestCoalescer;
+import org.stellar.sdk.requests.ResponseCache;
+import org.stellar.sdk.requests.TooManyRequestsException;
 import org.stellar.sdk.requests.TradesRequestBuilder;
 import org.stellar.sdk.requests.TransactionsRequestBuilder;
 import org.stellar.sdk.responses.GsonSingleton;
 import org.stellar.sdk.responses.SubmitTransactionResponse;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 
 import okhttp3.FormBody;
 import okhttp3.OkHttpClient;
@@ -27,6 +28,8 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Main class used to connect to Horizon server.
  */
@@ -34,6 +37,9 @@ public class Server {
 
     private URI serverURI;
     private OkHttpClient httpClient = new OkHttpClient();
+    private RateLimitInterceptor rateLimitInterceptor;
+    private RequestCoalescer requestCoalescer;
+    private ResponseCache responseCache;
 
     public Server(String uri) {
         try {
@@ -47,70 +53,118 @@ public class Server {
      * Returns {@link AccountsRequestBuilder} instance.
      */
     public AccountsRequestBuilder accounts() {
-        return new AccountsRequestBuilder(httpClient, serverURI);
+        return configure(new AccountsRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link EffectsRequestBuilder} instance.
      */
     public EffectsRequestBuilder effects() {
-        return new EffectsRequestBuilder(httpClient, serverURI);
+        return configure(new EffectsRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link LedgersRequestBuilder} instance.
      */
     public LedgersRequestBuilder ledgers() {
-        return new LedgersRequestBuilder(httpClient, serverURI);
+        return configure(new LedgersRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link OffersRequestBuilder} instance.
      */
     public OffersRequestBuilder offers() {
-        return new OffersRequestBuilder(httpClient, serverURI);
+        return configure(new OffersRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link OperationsRequestBuilder} instance.
      */
     public OperationsRequestBuilder operations() {
-        return new OperationsRequestBuilder(httpClient, serverURI);
+        return configure(new OperationsRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link OrderBookRequestBuilder} instance.
      */
     public OrderBookRequestBuilder orderBook() {
-        return new OrderBookRequestBuilder(httpClient, serverURI);
+        return configure(new OrderBookRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link TradesRequestBuilder} instance.
      */
     public TradesRequestBuilder trades() {
-        return new TradesRequestBuilder(httpClient, serverURI);
+        return configure(new TradesRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link PathsRequestBuilder} instance.
      */
     public PathsRequestBuilder paths() {
-        return new PathsRequestBuilder(httpClient, serverURI);
+        return configure(new PathsRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link PaymentsRequestBuilder} instance.
      */
     public PaymentsRequestBuilder payments() {
-        return new PaymentsRequestBuilder(httpClient, serverURI);
+        return configure(new PaymentsRequestBuilder(httpClient, serverURI));
     }
 
     /**
      * Returns {@link TransactionsRequestBuilder} instance.
      */
     public TransactionsRequestBuilder transactions() {
-        return new TransactionsRequestBuilder(httpClient, serverURI);
+        return configure(new TransactionsRequestBuilder(httpClient, serverURI));
+    }
+
+    /**
+     * Enables or disables {@link RateLimitInterceptor} keeping requests of this server within the Horizon rate limit
+     * and retrying them after 429 responses. Requests are not limited by default.
+     * <p>
+     * A limited request waits for the budget on the thread sending it, so <code>executeAsync()</code> calls and
+     * streams block OkHttp dispatcher threads and stream reader threads while they wait.
+     *
+     * @param rateLimited <code>true</code> to limit requests
+     */
+    public void setRateLimited(boolean rateLimited) {
+        if (rateLimited == (rateLimitInterceptor != null)) {
+            return;
+        }
+        OkHttpClient.Builder builder = httpClient.newBuilder();
+        if (rateLimited) {
+            rateLimitInterceptor = new RateLimitInterceptor();
+            builder.addInterceptor(rateLimitInterceptor);
+        } else {
+            builder.interceptors().remove(rateLimitInterceptor);
+            rateLimitInterceptor = null;
+        }
+        httpClient = builder.build();
+    }
+
+    /**
+     * Sets {@link RequestCoalescer} shared by request builders of this server. Requests are not coalesced by default.
+     *
+     * @param requestCoalescer request coalescer or <code>null</code> to disable coalescing
+     */
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * Sets {@link ResponseCache} shared by request builders of this server. Responses are not cached by default.
+     *
+     * @param responseCache response cache or <code>null</code> to disable caching
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    private <T extends RequestBuilder> T configure(T builder) {
+        builder.coalescer(requestCoalescer);
+        builder.responseCache(responseCache);
+        return builder;
     }
 
     /**
@@ -118,13 +172,28 @@ public class Server {
      *
      * @param transaction transaction to submit to the network.
      * @return {@link SubmitTransactionResponse}
+     * @throws TooManyRequestsException when too many requests were sent to the Horizon server.
      * @throws IOException
      */
     public SubmitTransactionResponse submitTransaction(Transaction transaction) throws IOException {
+        return submitTransaction(transaction.toEnvelopeXdrBase64());
+    }
+
+    /**
+     * Submits signed transaction envelope to the network, e.g. of a
+     * {@link TransactionTemplate.PatchedTransaction}.
+     *
+     * @param envelopeXdrBase64 base64-encoded TransactionEnvelope XDR object
+     * @return {@link SubmitTransactionResponse}
+     * @throws TooManyRequestsException when too many requests were sent to the Horizon server.
+     * @throws IOException
+     */
+    public SubmitTransactionResponse submitTransaction(String envelopeXdrBase64) throws IOException {
+        checkNotNull(envelopeXdrBase64, "envelopeXdrBase64 cannot be null");
         String transactionsURI = serverURI + "/transactions";
 
         RequestBody formBody = new FormBody.Builder()
-                .add("tx", transaction.toEnvelopeXdrBase64())
+                .add("tx", envelopeXdrBase64)
                 .build();
 
         Request submitTransactionRequest = new Request.Builder()
@@ -134,18 +203,20 @@ public class Server {
 
         Response response = httpClient.newCall(submitTransactionRequest).execute();
 
-        if (response.body() != null) {
-            InputStream responseStream = response.body().byteStream();
-            try {
-                StringWriter writer = new StringWriter();
-                IOUtils.copy(responseStream, writer, StandardCharsets.UTF_8);
-                String responseString = writer.toString();
-                return GsonSingleton.getInstance().fromJson(responseString, SubmitTransactionResponse.class);
-            } finally {
-                responseStream.close();
+        if (response.code() == 429) {
+            int retryAfter = RateLimitInterceptor.parseHeader(response.headers(), "Retry-After");
+            response.close();
+            throw new TooManyRequestsException(Math.max(retryAfter, 0));
+        }
+
+        try {
+            if (response.body() != null) {
+                return GsonSingleton.getInstance().fromJson(response.body().charStream(), SubmitTransactionResponse.class);
             }
+            return null;
+        } finally {
+            response.close();
         }
-        return null;
     }
 
     /**
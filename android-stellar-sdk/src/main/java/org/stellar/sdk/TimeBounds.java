@@ -25,6 +25,21 @@ final public class TimeBounds {
         mMaxTime = maxTime;
     }
 
+    private TimeBounds(org.stellar.sdk.xdr.TimeBounds timeBounds) {
+        mMinTime = timeBounds.getMinTime().getUint64();
+        mMaxTime = timeBounds.getMaxTime().getUint64();
+    }
+
+    /**
+     * Creates TimeBounds from XDR object. Bounds decoded from the network are not validated,
+     * e.g. <code>maxTime</code> of 0 means no upper bound.
+     *
+     * @param timeBounds XDR object
+     */
+    public static TimeBounds fromXdr(org.stellar.sdk.xdr.TimeBounds timeBounds) {
+        return new TimeBounds(timeBounds);
+    }
+
     public long getMinTime() {
         return mMinTime;
     }
@@ -4,15 +4,19 @@ import org.apache.commons.codec.binary.Base64;
 import org.stellar.sdk.xdr.DecoratedSignature;
 import org.stellar.sdk.xdr.EnvelopeType;
 import org.stellar.sdk.xdr.SignatureHint;
+import org.stellar.sdk.xdr.XdrDataInputStream;
 import org.stellar.sdk.xdr.XdrDataOutputStream;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -22,14 +26,23 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class Transaction {
 
+    /**
+     * Maximum number of signatures in a transaction envelope.
+     */
+    public static final int MAX_SIGNATURES = 20;
+
     private final int BASE_FEE = 100;
 
     private final int mFee;
     private final KeyPair mSourceAccount;
     private final long mSequenceNumber;
-    private final Operation[] mOperations;
+    private volatile Operation[] mOperations;
+    // Operations of a decoded transaction, converted to mOperations on first use
+    private final org.stellar.sdk.xdr.Operation[] mXdrOperations;
     private final Memo mMemo;
     private final TimeBounds mTimeBounds;
+    // Transaction XDR bytes of a decoded transaction
+    private final byte[] mTransactionBytes;
     private List<DecoratedSignature> mSignatures;
 
     Transaction(KeyPair sourceAccount, long sequenceNumber, Operation[] operations, Memo memo, TimeBounds timeBounds) {
@@ -42,6 +55,120 @@ public class Transaction {
         mSignatures = new ArrayList<DecoratedSignature>();
         mMemo = memo != null ? memo : Memo.none();
         mTimeBounds = timeBounds;
+        mXdrOperations = null;
+        mTransactionBytes = null;
+    }
+
+    private Transaction(org.stellar.sdk.xdr.Transaction transaction, byte[] transactionBytes, List<DecoratedSignature> signatures) {
+        mSourceAccount = KeyPair.fromXdrPublicKey(transaction.getSourceAccount().getAccountID());
+        mSequenceNumber = transaction.getSeqNum().getSequenceNumber().getUint64();
+        mFee = transaction.getFee().getUint32();
+        mXdrOperations = transaction.getOperations();
+        mMemo = Memo.fromXdr(transaction.getMemo());
+        mTimeBounds = transaction.getTimeBounds() == null ? null : TimeBounds.fromXdr(transaction.getTimeBounds());
+        mTransactionBytes = transactionBytes;
+        mSignatures = signatures;
+    }
+
+    /**
+     * Creates a new Transaction object from a base64-encoded TransactionEnvelope XDR object.
+     * <p>
+     * The original transaction bytes are kept, so {@link #hash()} and {@link #toEnvelopeXdrBase64()} do not
+     * re-encode the transaction. Operations are converted on first use. Existing signatures are kept and new ones
+     * can be added with {@link #sign(KeyPair)}.
+     *
+     * @param envelope base64-encoded TransactionEnvelope XDR object
+     * @throws IllegalArgumentException when <code>envelope</code> is not a valid TransactionEnvelope.
+     */
+    public static Transaction fromEnvelopeXdr(String envelope) {
+        checkNotNull(envelope, "envelope cannot be null");
+        byte[] bytes = new Base64().decode(envelope);
+        try {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
+            XdrDataInputStream xdrInputStream = new XdrDataInputStream(inputStream);
+            org.stellar.sdk.xdr.Transaction transaction = org.stellar.sdk.xdr.Transaction.decode(xdrInputStream);
+            byte[] transactionBytes = Arrays.copyOf(bytes, bytes.length - inputStream.available());
+
+            int signaturesCount = xdrInputStream.readInt();
+            List<DecoratedSignature> signatures = new ArrayList<DecoratedSignature>(signaturesCount);
+            for (int i = 0; i < signaturesCount; i++) {
+                signatures.add(DecoratedSignature.decode(xdrInputStream));
+            }
+            return new Transaction(transaction, transactionBytes, signatures);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid transaction envelope", e);
+        }
+    }
+
+    /**
+     * Merges signatures of base64-encoded TransactionEnvelope XDR objects of the same transaction.
+     * <p>
+     * Signatures are de-duplicated by hint and signature and kept in the order they first appear. At most
+     * {@value #MAX_SIGNATURES} signatures are kept. The transaction bytes of the first envelope are copied to the
+     * result without re-encoding.
+     *
+     * @param envelopes base64-encoded TransactionEnvelope XDR objects
+     * @return base64-encoded TransactionEnvelope XDR object with merged signatures
+     * @throws IllegalArgumentException when an envelope is not valid or envelopes contain different transactions.
+     */
+    public static String mergeEnvelopeXdr(String... envelopes) {
+        checkNotNull(envelopes, "envelopes cannot be null");
+        checkArgument(envelopes.length > 0, "At least one envelope required");
+        Base64 base64Codec = new Base64();
+        byte[] first = null;
+        int transactionLength = 0;
+        Set<ByteBuffer> seen = new HashSet<ByteBuffer>();
+        List<ByteBuffer> signatures = new ArrayList<ByteBuffer>();
+
+        try {
+            for (String envelope : envelopes) {
+                checkNotNull(envelope, "envelope cannot be null");
+                byte[] bytes = base64Codec.decode(envelope);
+                ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
+                XdrDataInputStream xdrInputStream = new XdrDataInputStream(inputStream);
+                if (first == null) {
+                    org.stellar.sdk.xdr.Transaction.decode(xdrInputStream);
+                    first = bytes;
+                    transactionLength = bytes.length - inputStream.available();
+                } else {
+                    // Decoding is deterministic, so equal prefixes decode to equal transactions
+                    if (bytes.length < transactionLength || !rangeEquals(first, bytes, transactionLength)) {
+                        throw new IllegalArgumentException("Envelopes contain different transactions");
+                    }
+                    inputStream.skip(transactionLength);
+                }
+
+                int signaturesCount = xdrInputStream.readInt();
+                for (int i = 0; i < signaturesCount; i++) {
+                    int offset = bytes.length - inputStream.available();
+                    DecoratedSignature.decode(xdrInputStream);
+                    ByteBuffer signature = ByteBuffer.wrap(bytes, offset, bytes.length - inputStream.available() - offset).slice();
+                    if (seen.add(signature) && signatures.size() < MAX_SIGNATURES) {
+                        signatures.add(signature);
+                    }
+                }
+            }
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(first.length);
+            XdrDataOutputStream xdrOutputStream = new XdrDataOutputStream(outputStream);
+            xdrOutputStream.write(first, 0, transactionLength);
+            xdrOutputStream.writeInt(signatures.size());
+            for (ByteBuffer signature : signatures) {
+                xdrOutputStream.write(signature.array(), signature.arrayOffset(), signature.remaining());
+            }
+            return base64Codec.encodeAsString(outputStream.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid transaction envelope", e);
+        }
+    }
+
+    private static boolean rangeEquals(byte[] a, byte[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -99,10 +226,7 @@ public class Transaction {
             // Envelope Type - 4 bytes
             outputStream.write(ByteBuffer.allocate(4).putInt(EnvelopeType.ENVELOPE_TYPE_TX.getValue()).array());
             // Transaction XDR bytes
-            ByteArrayOutputStream txOutputStream = new ByteArrayOutputStream();
-            XdrDataOutputStream xdrOutputStream = new XdrDataOutputStream(txOutputStream);
-            org.stellar.sdk.xdr.Transaction.encode(xdrOutputStream, this.toXdr());
-            outputStream.write(txOutputStream.toByteArray());
+            outputStream.write(transactionBytes());
 
             return outputStream.toByteArray();
         } catch (IOException exception) {
@@ -110,6 +234,16 @@ public class Transaction {
         }
     }
 
+    private byte[] transactionBytes() throws IOException {
+        if (mTransactionBytes != null) {
+            return mTransactionBytes;
+        }
+        ByteArrayOutputStream txOutputStream = new ByteArrayOutputStream();
+        XdrDataOutputStream xdrOutputStream = new XdrDataOutputStream(txOutputStream);
+        org.stellar.sdk.xdr.Transaction.encode(xdrOutputStream, this.toXdr());
+        return txOutputStream.toByteArray();
+    }
+
     public KeyPair getSourceAccount() {
         return mSourceAccount;
     }
@@ -122,6 +256,18 @@ public class Transaction {
         return mSignatures;
     }
 
+    public Operation[] getOperations() {
+        Operation[] operations = mOperations;
+        if (operations == null) {
+            operations = new Operation[mXdrOperations.length];
+            for (int i = 0; i < mXdrOperations.length; i++) {
+                operations[i] = Operation.fromXdr(mXdrOperations[i]);
+            }
+            mOperations = operations;
+        }
+        return operations;
+    }
+
     public Memo getMemo() {
         return mMemo;
     }
@@ -156,9 +302,10 @@ public class Transaction {
         org.stellar.sdk.xdr.AccountID sourceAccount = new org.stellar.sdk.xdr.AccountID();
         sourceAccount.setAccountID(mSourceAccount.getXdrPublicKey());
         // operations
-        org.stellar.sdk.xdr.Operation[] operations = new org.stellar.sdk.xdr.Operation[mOperations.length];
-        for (int i = 0; i < mOperations.length; i++) {
-            operations[i] = mOperations[i].toXdr();
+        Operation[] sdkOperations = getOperations();
+        org.stellar.sdk.xdr.Operation[] operations = new org.stellar.sdk.xdr.Operation[sdkOperations.length];
+        for (int i = 0; i < sdkOperations.length; i++) {
+            operations[i] = sdkOperations[i].toXdr();
         }
         // ext
         org.stellar.sdk.xdr.Transaction.TransactionExt ext = new org.stellar.sdk.xdr.Transaction.TransactionExt();
@@ -198,10 +345,21 @@ public class Transaction {
      */
     public String toEnvelopeXdrBase64() {
         try {
-            org.stellar.sdk.xdr.TransactionEnvelope envelope = this.toEnvelopeXdr();
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             XdrDataOutputStream xdrOutputStream = new XdrDataOutputStream(outputStream);
-            org.stellar.sdk.xdr.TransactionEnvelope.encode(xdrOutputStream, envelope);
+            if (mTransactionBytes != null) {
+                if (mSignatures.size() == 0) {
+                    throw new NotEnoughSignaturesException("Transaction must be signed by at least one signer. Use transaction.sign().");
+                }
+                xdrOutputStream.write(mTransactionBytes);
+                xdrOutputStream.writeInt(mSignatures.size());
+                for (DecoratedSignature signature : mSignatures) {
+                    DecoratedSignature.encode(xdrOutputStream, signature);
+                }
+            } else {
+                org.stellar.sdk.xdr.TransactionEnvelope envelope = this.toEnvelopeXdr();
+                org.stellar.sdk.xdr.TransactionEnvelope.encode(xdrOutputStream, envelope);
+            }
             Base64 base64Codec = new Base64();
             return base64Codec.encodeAsString(outputStream.toByteArray());
         } catch (IOException e) {
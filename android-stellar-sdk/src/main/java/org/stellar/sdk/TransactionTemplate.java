@@ -0,0 +1,257 @@
+package org.stellar.sdk;
+
+import org.apache.commons.codec.binary.Base64;
+import org.stellar.sdk.xdr.DecoratedSignature;
+import org.stellar.sdk.xdr.EnvelopeType;
+import org.stellar.sdk.xdr.OperationType;
+import org.stellar.sdk.xdr.XdrDataOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Encodes a transaction containing a single {@link PaymentOperation} once and produces new transactions that differ
+ * only in sequence number, payment destination, payment amount and memo by patching those fields into a copy of
+ * the encoded bytes.
+ * <p>
+ * Transactions produced by a template are byte-identical to transactions built with {@link Transaction.Builder}
+ * from the same values, so they have the same hash and signatures.
+ * <pre>
+ * TransactionTemplate template = new TransactionTemplate(prototype);
+ * TransactionTemplate.PatchedTransaction transaction = template.newTransaction(sequenceNumber, destination, amount, memo);
+ * transaction.sign(source);
+ * server.submitTransaction(transaction.toEnvelopeXdrBase64());
+ * </pre>
+ */
+public class TransactionTemplate {
+
+    // AccountID (4 + 32) + fee (4)
+    private static final int SEQUENCE_NUMBER_OFFSET = 40;
+
+    // Transaction bytes before memo
+    private final byte[] mHead;
+    // Transaction bytes after memo
+    private final byte[] mTail;
+    // Offsets of the payment destination public key and amount in mTail
+    private final int mDestinationOffset;
+    private final int mAmountOffset;
+
+    /**
+     * Creates a new template. The sequence number, memo, and payment destination and amount of
+     * <code>prototype</code> are replaced in every transaction produced by this template; everything else is kept.
+     *
+     * @param prototype transaction containing exactly one {@link PaymentOperation}
+     * @throws IllegalArgumentException when <code>prototype</code> does not contain exactly one payment operation.
+     */
+    public TransactionTemplate(Transaction prototype) {
+        checkNotNull(prototype, "prototype cannot be null");
+        org.stellar.sdk.xdr.Transaction transaction = prototype.toXdr();
+        transaction.setMemo(Memo.none().toXdr());
+
+        try {
+            byte[] head = encode(transaction);
+            int memoOffset = SEQUENCE_NUMBER_OFFSET + 8 + (transaction.getTimeBounds() == null ? 4 : 20);
+            mHead = new byte[memoOffset];
+            System.arraycopy(head, 0, mHead, 0, memoOffset);
+            // MemoNone is encoded as 4-byte discriminant
+            mTail = new byte[head.length - memoOffset - 4];
+            System.arraycopy(head, memoOffset + 4, mTail, 0, mTail.length);
+
+            int destinationOffset = -1;
+            int amountOffset = -1;
+            // Operations count
+            int offset = 4;
+            for (org.stellar.sdk.xdr.Operation operation : transaction.getOperations()) {
+                int length = encode(operation).length;
+                if (operation.getBody().getDiscriminant() == OperationType.PAYMENT) {
+                    checkArgument(destinationOffset == -1, "prototype must contain exactly one payment operation");
+                    // Optional source account, operation type, public key type
+                    destinationOffset = offset + (operation.getSourceAccount() == null ? 4 : 40) + 4 + 4;
+                    amountOffset = offset + length - 8;
+                }
+                offset += length;
+            }
+            checkArgument(destinationOffset != -1, "prototype must contain exactly one payment operation");
+            mDestinationOffset = destinationOffset;
+            mAmountOffset = amountOffset;
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Creates a new transaction from this template.
+     *
+     * @param sequenceNumber sequence number of the new transaction
+     * @param destination    account that receives the payment
+     * @param amount         amount of the asset to send
+     * @param memo           memo of the new transaction or <code>null</code>
+     */
+    public PatchedTransaction newTransaction(long sequenceNumber, KeyPair destination, String amount, Memo memo) {
+        checkNotNull(destination, "destination cannot be null");
+        checkNotNull(amount, "amount cannot be null");
+        return newTransaction(sequenceNumber, destination.getPublicKey(), Amount.parse(amount), memo);
+    }
+
+    /**
+     * Creates a new transaction from this template without creating a {@link KeyPair} for the destination.
+     *
+     * @param sequenceNumber       sequence number of the new transaction
+     * @param destinationAccountId account ID of the account that receives the payment
+     * @param amount               amount of the asset to send in stroops
+     * @param memo                 memo of the new transaction or <code>null</code>
+     */
+    public PatchedTransaction newTransaction(long sequenceNumber, String destinationAccountId, long amount, Memo memo) {
+        checkNotNull(destinationAccountId, "destinationAccountId cannot be null");
+        return newTransaction(sequenceNumber, StrKey.decodeStellarAccountId(destinationAccountId), amount, memo);
+    }
+
+    private PatchedTransaction newTransaction(long sequenceNumber, byte[] destination, long amount, Memo memo) {
+        byte[] memoBytes;
+        try {
+            memoBytes = encode((memo != null ? memo : Memo.none()).toXdr());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+
+        byte[] bytes = new byte[mHead.length + memoBytes.length + mTail.length];
+        System.arraycopy(mHead, 0, bytes, 0, mHead.length);
+        System.arraycopy(memoBytes, 0, bytes, mHead.length, memoBytes.length);
+        int tailOffset = mHead.length + memoBytes.length;
+        System.arraycopy(mTail, 0, bytes, tailOffset, mTail.length);
+
+        putLong(bytes, SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+        System.arraycopy(destination, 0, bytes, tailOffset + mDestinationOffset, 32);
+        putLong(bytes, tailOffset + mAmountOffset, amount);
+        return new PatchedTransaction(bytes, sequenceNumber);
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static byte[] encode(org.stellar.sdk.xdr.Transaction transaction) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        org.stellar.sdk.xdr.Transaction.encode(new XdrDataOutputStream(outputStream), transaction);
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] encode(org.stellar.sdk.xdr.Operation operation) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        org.stellar.sdk.xdr.Operation.encode(new XdrDataOutputStream(outputStream), operation);
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] encode(org.stellar.sdk.xdr.Memo memo) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        org.stellar.sdk.xdr.Memo.encode(new XdrDataOutputStream(outputStream), memo);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Transaction produced by {@link TransactionTemplate}. Hashing, signing and envelope encoding work directly on
+     * the patched transaction bytes.
+     */
+    public static class PatchedTransaction {
+        private final byte[] mBytes;
+        private final long mSequenceNumber;
+        private final List<DecoratedSignature> mSignatures;
+
+        PatchedTransaction(byte[] bytes, long sequenceNumber) {
+            mBytes = bytes;
+            mSequenceNumber = sequenceNumber;
+            mSignatures = new ArrayList<DecoratedSignature>();
+        }
+
+        public long getSequenceNumber() {
+            return mSequenceNumber;
+        }
+
+        public List<DecoratedSignature> getSignatures() {
+            return mSignatures;
+        }
+
+        /**
+         * Returns Transaction XDR bytes.
+         */
+        public byte[] getTransactionBytes() {
+            return mBytes.clone();
+        }
+
+        /**
+         * Adds a new signature ed25519PublicKey to this transaction.
+         *
+         * @param signer {@link KeyPair} object representing a signer
+         */
+        public void sign(KeyPair signer) {
+            checkNotNull(signer, "signer cannot be null");
+            mSignatures.add(signer.signDecorated(hash()));
+        }
+
+        /**
+         * Returns transaction hash.
+         */
+        public byte[] hash() {
+            return Util.hash(signatureBase());
+        }
+
+        /**
+         * Returns signature base.
+         */
+        public byte[] signatureBase() {
+            if (Network.current() == null) {
+                throw new NoNetworkSelectedException();
+            }
+
+            byte[] networkId = Network.current().getNetworkId();
+            byte[] signatureBase = new byte[networkId.length + 4 + mBytes.length];
+            System.arraycopy(networkId, 0, signatureBase, 0, networkId.length);
+            int envelopeType = EnvelopeType.ENVELOPE_TYPE_TX.getValue();
+            signatureBase[networkId.length] = (byte) (envelopeType >>> 24);
+            signatureBase[networkId.length + 1] = (byte) (envelopeType >>> 16);
+            signatureBase[networkId.length + 2] = (byte) (envelopeType >>> 8);
+            signatureBase[networkId.length + 3] = (byte) envelopeType;
+            System.arraycopy(mBytes, 0, signatureBase, networkId.length + 4, mBytes.length);
+            return signatureBase;
+        }
+
+        /**
+         * Returns TransactionEnvelope XDR bytes. Transaction need to have at least one signature.
+         */
+        public byte[] toEnvelopeXdrBytes() {
+            if (mSignatures.size() == 0) {
+                throw new NotEnoughSignaturesException("Transaction must be signed by at least one signer. Use transaction.sign().");
+            }
+
+            try {
+                // Each signature: hint (4) + signature length (4) + ed25519 signature (64)
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream(mBytes.length + 4 + mSignatures.size() * 72);
+                XdrDataOutputStream xdrOutputStream = new XdrDataOutputStream(outputStream);
+                xdrOutputStream.write(mBytes);
+                xdrOutputStream.writeInt(mSignatures.size());
+                for (DecoratedSignature signature : mSignatures) {
+                    DecoratedSignature.encode(xdrOutputStream, signature);
+                }
+                return outputStream.toByteArray();
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        /**
+         * Returns base64-encoded TransactionEnvelope XDR object. Transaction need to have at least one signature.
+         */
+        public String toEnvelopeXdrBase64() {
+            Base64 base64Codec = new Base64();
+            return base64Codec.encodeAsString(toEnvelopeXdrBytes());
+        }
+    }
+}
@@ -129,13 +129,16 @@ public class FederationServer {
 
         try {
             Response response = httpClient.newCall(request).execute();
-
-            if (response.code() == 404) {
-                throw new NotFoundException();
-            } else if (!response.isSuccessful()) {
-                throw new ServerErrorException();
+            try {
+                if (response.code() == 404) {
+                    throw new NotFoundException();
+                } else if (!response.isSuccessful()) {
+                    throw new ServerErrorException();
+                }
+                return GsonSingleton.getInstance().fromJson(response.body().charStream(), FederationResponse.class);
+            } finally {
+                response.close();
             }
-            return GsonSingleton.getInstance().fromJson(response.body().string(), FederationResponse.class);
         } catch (IOException e) {
             throw new ConnectionErrorException();
         }
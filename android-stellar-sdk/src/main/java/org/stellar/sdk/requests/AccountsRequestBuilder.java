@@ -1,5 +1,6 @@
 package org.stellar.sdk.requests;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.reflect.TypeToken;
 import com.launchdarkly.eventsource.EventHandler;
 import com.launchdarkly.eventsource.EventSource;
@@ -12,10 +13,10 @@ import org.stellar.sdk.responses.Page;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
 /**
  * Builds requests connected to accounts.
@@ -34,8 +35,7 @@ public class AccountsRequestBuilder extends RequestBuilder {
      */
     public AccountResponse account(URI uri) throws IOException {
         TypeToken type = new TypeToken<AccountResponse>() {};
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), type.getType());
+        return this.execute(uri, type.getType());
     }
 
     /**
@@ -60,8 +60,7 @@ public class AccountsRequestBuilder extends RequestBuilder {
      */
     public Page<AccountResponse> execute(URI uri) throws IOException, TooManyRequestsException {
         TypeToken type = new TypeToken<Page<AccountResponse>>() {};
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), type.getType());
+        return this.execute(uri, type.getType());
     }
 
     /**
@@ -74,7 +73,9 @@ public class AccountsRequestBuilder extends RequestBuilder {
      * @return EventSource object, so you can <code>close()</code> connection when not needed anymore
      * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
      * @see <a href="https://www.stellar.org/developers/horizon/learn/responses.html" target="_blank">Response Format documentation</a>
+     * @deprecated use <code>stream(listener, options)</code>, which reconnects and does not depend on okhttp-eventsource
      */
+    @Deprecated
     public EventSource stream(final EventListener<AccountResponse> listener) {
         EventHandler handler = new EventHandler() {
             @Override
@@ -111,6 +112,33 @@ public class AccountsRequestBuilder extends RequestBuilder {
         return new EventSource.Builder(handler, this.buildUri()).client(httpClient).build();
     }
 
+    /**
+     * Streams SSE events from horizon, reconnecting when the connection is lost.
+     * After a reconnect the stream resumes from the <code>paging_token</code> of the last delivered event,
+     * so events are not lost or repeated.
+     *
+     * @param listener      {@link EventListener} implementation with {@link AccountResponse} type
+     * @param stateListener {@link SSEStream.StateListener} notified about connection state changes, can be <code>null</code>
+     * @return started {@link SSEStream}, so you can <code>close()</code> it when not needed anymore
+     * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
+     */
+    public SSEStream<AccountResponse> stream(EventListener<AccountResponse> listener, SSEStream.StateListener stateListener) {
+        return stream(listener, new SSEStream.Options().stateListener(stateListener));
+    }
+
+    /**
+     * Streams SSE events from horizon, reconnecting when the connection is lost.
+     * Events can be decoded off the connection thread, see {@link SSEStream.Options}.
+     *
+     * @param listener {@link EventListener} implementation with {@link AccountResponse} type
+     * @param options  stream options
+     * @return started {@link SSEStream}, so you can <code>close()</code> it when not needed anymore
+     * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
+     */
+    public SSEStream<AccountResponse> stream(EventListener<AccountResponse> listener, SSEStream.Options options) {
+        return new SSEStream<AccountResponse>(httpClient, this.buildUri(), AccountResponse.class, listener, options).start();
+    }
+
     /**
      * Build and execute request. <strong>Warning!</strong> {@link AccountResponse}s in {@link Page} will contain only <code>keypair</code> field.
      *
@@ -122,6 +150,62 @@ public class AccountsRequestBuilder extends RequestBuilder {
         return this.execute(this.buildUri());
     }
 
+    /**
+     * Requests specific <code>uri</code> asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link AccountResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<AccountResponse>> executeAsync(URI uri) {
+        return this.executeAsync(uri, new TypeToken<Page<AccountResponse>>() {}.getType());
+    }
+
+    /**
+     * Build and execute request asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link AccountResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<AccountResponse>> executeAsync() {
+        return this.executeAsync(this.buildUri());
+    }
+
+    /**
+     * Returns iterator over all {@link AccountResponse}s, starting from this request and following <code>next</code> links.
+     *
+     * @param prefetchPages number of pages to request ahead of the page being consumed
+     * @see RecordIterator
+     */
+    public RecordIterator<AccountResponse> iterator(int prefetchPages) {
+        return new RecordIterator<AccountResponse>(this, this.buildUri(), new TypeToken<Page<AccountResponse>>() {}.getType(), prefetchPages);
+    }
+
+    @Override
+    public AccountsRequestBuilder executor(Executor executor) {
+        super.executor(executor);
+        return this;
+    }
+
+    @Override
+    public AccountsRequestBuilder timeout(long timeout, TimeUnit unit) {
+        super.timeout(timeout, unit);
+        return this;
+    }
+
+    @Override
+    public AccountsRequestBuilder coalescer(RequestCoalescer coalescer) {
+        super.coalescer(coalescer);
+        return this;
+    }
+
+    @Override
+    public AccountsRequestBuilder responseCache(ResponseCache responseCache) {
+        super.responseCache(responseCache);
+        return this;
+    }
+
     @Override
     public AccountsRequestBuilder cursor(String token) {
         super.cursor(token);
@@ -0,0 +1,21 @@
+package org.stellar.sdk.requests;
+
+import java.io.IOException;
+
+/**
+ * Stores <code>paging_token</code> of the last processed record of named consumers.
+ *
+ * @see CheckpointedConsumer
+ * @see FileCheckpointStore
+ */
+public interface CheckpointStore {
+    /**
+     * Returns checkpoint of consumer <code>name</code> or <code>null</code> when there is none.
+     */
+    String load(String name) throws IOException;
+
+    /**
+     * Durably stores checkpoint of consumer <code>name</code>, replacing the previous one.
+     */
+    void save(String name, String pagingToken) throws IOException;
+}
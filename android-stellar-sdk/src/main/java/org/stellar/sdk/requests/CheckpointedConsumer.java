@@ -0,0 +1,225 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.stellar.sdk.responses.LedgerResponse;
+import org.stellar.sdk.responses.TransactionResponse;
+import org.stellar.sdk.responses.effects.EffectResponse;
+import org.stellar.sdk.responses.operations.OperationResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link EventListener} persisting <code>paging_token</code> of processed records, so a restarted worker continues
+ * where it stopped.
+ * <p>
+ * A record is processed when the wrapped listener returns from <code>onEvent</code>. Checkpoints are saved to the
+ * {@link CheckpointStore} after every {@link #batchSize(int)} processed records and at most
+ * {@link #maxDelay(long, TimeUnit)} after a record was processed, which bounds both the number of writes and the
+ * number of records processed again after a crash. Records processed since the last checkpoint are delivered again
+ * after a restart, so the listener should be idempotent for them, or use batch size 1. Delayed checkpoints are
+ * saved on a thread shared by all consumers and retried after <code>maxDelay</code> when saving fails.
+ * <pre>
+ * CheckpointedConsumer&lt;OperationResponse&gt; consumer =
+ *         CheckpointedConsumer.forOperations("payments", new FileCheckpointStore(directory), listener);
+ * server.payments().cursor(consumer.getCursor("now")).stream(consumer, options);
+ * </pre>
+ *
+ * @param <T> type of records
+ */
+public class CheckpointedConsumer<T> implements EventListener<T>, Closeable {
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 1000;
+
+    private static ScheduledExecutorService sCommitScheduler;
+
+    private final String mName;
+    private final CheckpointStore mStore;
+    private final EventListener<T> mListener;
+    private final PagingTokens<T> mPagingTokens;
+    private int mBatchSize = DEFAULT_BATCH_SIZE;
+    private long mMaxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+    // Token of the last processed record which is not saved yet
+    private String mPending;
+    private int mPendingCount;
+    private String mCommitted;
+    private boolean mCommitScheduled;
+
+    private CheckpointedConsumer(String name, CheckpointStore store, EventListener<T> listener,
+                                 PagingTokens<T> pagingTokens) {
+        mName = checkNotNull(name, "name cannot be null");
+        mStore = checkNotNull(store, "store cannot be null");
+        mListener = checkNotNull(listener, "listener cannot be null");
+        mPagingTokens = pagingTokens;
+    }
+
+    /**
+     * Creates consumer of operations or payments.
+     *
+     * @param name     name of the consumer, identifies its checkpoint in the store
+     * @param store    checkpoint store
+     * @param listener listener processing records
+     */
+    public static CheckpointedConsumer<OperationResponse> forOperations(String name, CheckpointStore store,
+                                                                       EventListener<OperationResponse> listener) {
+        return new CheckpointedConsumer<OperationResponse>(name, store, listener, PagingTokens.OPERATIONS);
+    }
+
+    /**
+     * Creates consumer of effects.
+     *
+     * @param name     name of the consumer, identifies its checkpoint in the store
+     * @param store    checkpoint store
+     * @param listener listener processing records
+     */
+    public static CheckpointedConsumer<EffectResponse> forEffects(String name, CheckpointStore store,
+                                                                 EventListener<EffectResponse> listener) {
+        return new CheckpointedConsumer<EffectResponse>(name, store, listener, PagingTokens.EFFECTS);
+    }
+
+    /**
+     * Creates consumer of transactions.
+     *
+     * @param name     name of the consumer, identifies its checkpoint in the store
+     * @param store    checkpoint store
+     * @param listener listener processing records
+     */
+    public static CheckpointedConsumer<TransactionResponse> forTransactions(String name, CheckpointStore store,
+                                                                           EventListener<TransactionResponse> listener) {
+        return new CheckpointedConsumer<TransactionResponse>(name, store, listener, PagingTokens.TRANSACTIONS);
+    }
+
+    /**
+     * Creates consumer of ledgers.
+     *
+     * @param name     name of the consumer, identifies its checkpoint in the store
+     * @param store    checkpoint store
+     * @param listener listener processing records
+     */
+    public static CheckpointedConsumer<LedgerResponse> forLedgers(String name, CheckpointStore store,
+                                                                 EventListener<LedgerResponse> listener) {
+        return new CheckpointedConsumer<LedgerResponse>(name, store, listener, PagingTokens.LEDGERS);
+    }
+
+    /**
+     * Sets number of processed records after which a checkpoint is saved, 100 by default.
+     */
+    public synchronized CheckpointedConsumer<T> batchSize(int batchSize) {
+        checkArgument(batchSize > 0, "batchSize must be positive");
+        mBatchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets maximum time a processed record waits for its checkpoint, 1 second by default.
+     */
+    public synchronized CheckpointedConsumer<T> maxDelay(long maxDelay, TimeUnit unit) {
+        checkArgument(maxDelay > 0, "maxDelay must be positive");
+        mMaxDelayMillis = unit.toMillis(maxDelay);
+        return this;
+    }
+
+    /**
+     * Returns cursor to resume from: the saved checkpoint or <code>defaultCursor</code> when there is none.
+     *
+     * @param defaultCursor cursor used by the first run, e.g. <code>now</code>
+     * @throws IOException when the checkpoint cannot be read
+     */
+    public String getCursor(String defaultCursor) throws IOException {
+        String checkpoint = mStore.load(mName);
+        synchronized (this) {
+            mCommitted = checkpoint;
+        }
+        return checkpoint != null ? checkpoint : defaultCursor;
+    }
+
+    /**
+     * Returns the last saved checkpoint.
+     */
+    public synchronized String getCommittedCheckpoint() {
+        return mCommitted;
+    }
+
+    /**
+     * Passes <code>record</code> to the listener and saves a checkpoint when the batch is complete.
+     *
+     * @throws RuntimeException when the checkpoint cannot be saved, the stream then reconnects and the record is
+     *                          delivered again
+     */
+    @Override
+    public synchronized void onEvent(T record) {
+        mListener.onEvent(record);
+        mPending = mPagingTokens.pagingToken(record);
+        mPendingCount++;
+        if (mPendingCount >= mBatchSize) {
+            try {
+                commit();
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot save checkpoint of " + mName, e);
+            }
+        } else if (!mCommitScheduled) {
+            scheduleCommit();
+        }
+    }
+
+    // Called with the consumer locked
+    private void scheduleCommit() {
+        mCommitScheduled = true;
+        commitScheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (CheckpointedConsumer.this) {
+                    mCommitScheduled = false;
+                    try {
+                        commit();
+                    } catch (IOException e) {
+                        // Retried after the delay, unless a completed batch saves it first
+                        if (mPending != null) {
+                            scheduleCommit();
+                        }
+                    }
+                }
+            }
+        }, mMaxDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Saves checkpoint of the last processed record, if not saved yet.
+     */
+    public synchronized void commit() throws IOException {
+        if (mPending == null) {
+            return;
+        }
+        mStore.save(mName, mPending);
+        mCommitted = mPending;
+        mPending = null;
+        mPendingCount = 0;
+    }
+
+    /**
+     * Saves the pending checkpoint. Close the stream first, so no records are processed after it.
+     */
+    @Override
+    public void close() throws IOException {
+        commit();
+    }
+
+    /**
+     * Returns scheduler of delayed checkpoints. Saving a checkpoint blocks, so the stream scheduler is not used.
+     */
+    private static synchronized ScheduledExecutorService commitScheduler() {
+        if (sCommitScheduler == null) {
+            sCommitScheduler = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("checkpoint-commit-%d").build());
+        }
+        return sCommitScheduler;
+    }
+}
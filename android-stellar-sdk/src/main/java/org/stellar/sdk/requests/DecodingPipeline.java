@@ -0,0 +1,207 @@
+package org.stellar.sdk.requests;
+
+import org.stellar.sdk.responses.GsonSingleton;
+
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Decodes stream events on an executor and delivers them in the order they were received. Used by
+ * {@link SSEStream} when a decode executor is configured.
+ * <p>
+ * At most <code>capacity</code> events are waiting for decoding or delivery. When an event is received while the
+ * queue is full, the configured {@link SSEStream.Overflow} policy is applied. Events are delivered on the executor
+ * threads by one thread at a time.
+ */
+final class DecodingPipeline<T> {
+
+    /**
+     * Receives decoded events.
+     */
+    interface Sink<T> {
+        void deliver(int generation, T event, String pagingToken);
+
+        /**
+         * Called when the queue is full and the overflow policy is {@link SSEStream.Overflow#RECONNECT}.
+         */
+        void overflow(int generation);
+
+        void fail(int generation, Throwable error);
+    }
+
+    private static final class Slot<T> {
+        final int generation;
+        final String data;
+        final String pagingToken;
+        boolean decoded;
+        T event;
+        Throwable error;
+
+        Slot(int generation, String data, String pagingToken) {
+            this.generation = generation;
+            this.data = data;
+            this.pagingToken = pagingToken;
+        }
+    }
+
+    private final Type mType;
+    private final Executor mExecutor;
+    private final int mCapacity;
+    private final SSEStream.Overflow mOverflow;
+    private final Sink<T> mSink;
+    private final Object mLock = new Object();
+    // Events waiting for decoding or delivery in the order they were received
+    private final ArrayDeque<Slot<T>> mPending = new ArrayDeque<Slot<T>>();
+    // Incremented by clear(), blocked submits of cleared events give up
+    private int mEpoch;
+    private boolean mDelivering;
+    private int mMaxDepth;
+    private long mDropped;
+
+    DecodingPipeline(Type type, Executor executor, int capacity, SSEStream.Overflow overflow, Sink<T> sink) {
+        mType = type;
+        mExecutor = executor;
+        mCapacity = capacity;
+        mOverflow = overflow;
+        mSink = sink;
+    }
+
+    /**
+     * Queues event received from the connection of <code>generation</code>.
+     */
+    void submit(int generation, String data, String pagingToken) {
+        final Slot<T> slot = new Slot<T>(generation, data, pagingToken);
+        boolean reconnect = false;
+        synchronized (mLock) {
+            if (mPending.size() >= mCapacity) {
+                switch (mOverflow) {
+                    case BLOCK:
+                        int epoch = mEpoch;
+                        boolean interrupted = false;
+                        while (mPending.size() >= mCapacity && epoch == mEpoch) {
+                            try {
+                                mLock.wait();
+                            } catch (InterruptedException e) {
+                                interrupted = true;
+                            }
+                        }
+                        if (interrupted) {
+                            Thread.currentThread().interrupt();
+                        }
+                        if (epoch != mEpoch) {
+                            return;
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        mPending.removeFirst();
+                        mDropped++;
+                        break;
+                    case RECONNECT:
+                        reconnect = true;
+                        break;
+                }
+            }
+            if (!reconnect) {
+                mPending.addLast(slot);
+                mMaxDepth = Math.max(mMaxDepth, mPending.size());
+            }
+        }
+        if (reconnect) {
+            // Not queued, the connection is restarted from the last delivered event
+            mSink.overflow(generation);
+            return;
+        }
+
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    decode(slot);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (mLock) {
+                slot.error = e;
+                slot.decoded = true;
+            }
+            drain();
+        }
+    }
+
+    private void decode(Slot<T> slot) {
+        T event = null;
+        Throwable error = null;
+        try {
+            event = GsonSingleton.getInstance().fromJson(slot.data, mType);
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        synchronized (mLock) {
+            slot.event = event;
+            slot.error = error;
+            slot.decoded = true;
+        }
+        drain();
+    }
+
+    // Delivers decoded events from the head of the queue, only one thread delivers at a time
+    private void drain() {
+        while (true) {
+            Slot<T> slot;
+            synchronized (mLock) {
+                if (mDelivering) {
+                    return;
+                }
+                slot = mPending.peekFirst();
+                if (slot == null || !slot.decoded) {
+                    return;
+                }
+                mPending.removeFirst();
+                mDelivering = true;
+                mLock.notifyAll();
+            }
+            try {
+                if (slot.error != null) {
+                    mSink.fail(slot.generation, slot.error);
+                } else {
+                    mSink.deliver(slot.generation, slot.event, slot.pagingToken);
+                }
+            } finally {
+                synchronized (mLock) {
+                    mDelivering = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all queued events, e.g. when the connection is restarted.
+     */
+    void clear() {
+        synchronized (mLock) {
+            mPending.clear();
+            mEpoch++;
+            mLock.notifyAll();
+        }
+    }
+
+    int getDepth() {
+        synchronized (mLock) {
+            return mPending.size();
+        }
+    }
+
+    int getMaxDepth() {
+        synchronized (mLock) {
+            return mMaxDepth;
+        }
+    }
+
+    long getDropped() {
+        synchronized (mLock) {
+            return mDropped;
+        }
+    }
+}
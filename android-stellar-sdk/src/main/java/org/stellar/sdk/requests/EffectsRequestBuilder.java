@@ -1,5 +1,6 @@
 package org.stellar.sdk.requests;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.reflect.TypeToken;
 import com.launchdarkly.eventsource.EventHandler;
 import com.launchdarkly.eventsource.EventSource;
@@ -12,10 +13,10 @@ import org.stellar.sdk.responses.effects.EffectResponse;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -84,8 +85,7 @@ public class EffectsRequestBuilder extends RequestBuilder {
      */
     public Page<EffectResponse> execute(URI uri) throws IOException, TooManyRequestsException {
         TypeToken type = new TypeToken<Page<EffectResponse>>() {};
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), type.getType());
+        return this.execute(uri, type.getType());
     }
 
     /**
@@ -98,7 +98,9 @@ public class EffectsRequestBuilder extends RequestBuilder {
      * @return EventSource object, so you can <code>close()</code> connection when not needed anymore
      * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
      * @see <a href="https://www.stellar.org/developers/horizon/learn/responses.html" target="_blank">Response Format documentation</a>
+     * @deprecated use <code>stream(listener, options)</code>, which reconnects and does not depend on okhttp-eventsource
      */
+    @Deprecated
     public EventSource stream(final EventListener<EffectResponse> listener) {
         EventHandler handler = new EventHandler() {
             @Override
@@ -135,6 +137,36 @@ public class EffectsRequestBuilder extends RequestBuilder {
         return new EventSource.Builder(handler, this.buildUri()).client(httpClient).build();
     }
 
+    /**
+     * Streams SSE events from horizon, reconnecting when the connection is lost.
+     * After a reconnect the stream resumes from the <code>paging_token</code> of the last delivered event,
+     * so events are not lost or repeated.
+     *
+     * @param listener      {@link EventListener} implementation with {@link EffectResponse} type
+     * @param stateListener {@link SSEStream.StateListener} notified about connection state changes, can be <code>null</code>
+     * @return started {@link SSEStream}, so you can <code>close()</code> it when not needed anymore
+     * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
+     */
+    public SSEStream<EffectResponse> stream(EventListener<EffectResponse> listener, SSEStream.StateListener stateListener) {
+        return stream(listener, new SSEStream.Options().stateListener(stateListener));
+    }
+
+    /**
+     * Streams SSE events from horizon, reconnecting when the connection is lost.
+     * Events can be decoded off the connection thread and missed events can be backfilled, see
+     * {@link SSEStream.Options}.
+     *
+     * @param listener {@link EventListener} implementation with {@link EffectResponse} type
+     * @param options  stream options
+     * @return started {@link SSEStream}, so you can <code>close()</code> it when not needed anymore
+     * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
+     */
+    public SSEStream<EffectResponse> stream(EventListener<EffectResponse> listener, SSEStream.Options options) {
+        URI uri = this.buildUri();
+        return new SSEStream<EffectResponse>(httpClient, uri, EffectResponse.class, listener, options,
+                this.pages(uri, new TypeToken<Page<EffectResponse>>() {}.getType(), PagingTokens.EFFECTS, false)).start();
+    }
+
     /**
      * Build and execute request.
      *
@@ -146,6 +178,62 @@ public class EffectsRequestBuilder extends RequestBuilder {
         return this.execute(this.buildUri());
     }
 
+    /**
+     * Requests specific <code>uri</code> asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link EffectResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<EffectResponse>> executeAsync(URI uri) {
+        return this.executeAsync(uri, new TypeToken<Page<EffectResponse>>() {}.getType());
+    }
+
+    /**
+     * Build and execute request asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link EffectResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<EffectResponse>> executeAsync() {
+        return this.executeAsync(this.buildUri());
+    }
+
+    /**
+     * Returns iterator over all {@link EffectResponse}s, starting from this request and following <code>next</code> links.
+     *
+     * @param prefetchPages number of pages to request ahead of the page being consumed
+     * @see RecordIterator
+     */
+    public RecordIterator<EffectResponse> iterator(int prefetchPages) {
+        return new RecordIterator<EffectResponse>(this, this.buildUri(), new TypeToken<Page<EffectResponse>>() {}.getType(), prefetchPages);
+    }
+
+    @Override
+    public EffectsRequestBuilder executor(Executor executor) {
+        super.executor(executor);
+        return this;
+    }
+
+    @Override
+    public EffectsRequestBuilder timeout(long timeout, TimeUnit unit) {
+        super.timeout(timeout, unit);
+        return this;
+    }
+
+    @Override
+    public EffectsRequestBuilder coalescer(RequestCoalescer coalescer) {
+        super.coalescer(coalescer);
+        return this;
+    }
+
+    @Override
+    public EffectsRequestBuilder responseCache(ResponseCache responseCache) {
+        super.responseCache(responseCache);
+        return this;
+    }
+
     @Override
     public EffectsRequestBuilder cursor(String token) {
         super.cursor(token);
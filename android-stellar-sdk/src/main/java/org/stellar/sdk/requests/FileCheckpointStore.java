@@ -0,0 +1,103 @@
+package org.stellar.sdk.requests;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link CheckpointStore} keeping every checkpoint in a file of a directory.
+ * <p>
+ * A checkpoint is written to a temporary file, synced to disk and renamed over the previous checkpoint, so a crash
+ * leaves either the previous or the new checkpoint. On platforms where rename does not replace existing files, the
+ * previous checkpoint is renamed to a backup file first and {@link #load(String)} reads the backup when the
+ * checkpoint file is missing.
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final File mDirectory;
+
+    /**
+     * @param directory directory of checkpoint files, created when needed
+     */
+    public FileCheckpointStore(File directory) {
+        mDirectory = checkNotNull(directory, "directory cannot be null");
+    }
+
+    @Override
+    public synchronized String load(String name) throws IOException {
+        File file = file(name);
+        if (!file.exists()) {
+            // Left by save() interrupted while replacing the checkpoint
+            file = backup(file);
+            if (!file.exists()) {
+                return null;
+            }
+        }
+        FileInputStream in = new FileInputStream(file);
+        try {
+            String pagingToken = IOUtils.toString(in, StandardCharsets.UTF_8).trim();
+            return pagingToken.isEmpty() ? null : pagingToken;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    @Override
+    public synchronized void save(String name, String pagingToken) throws IOException {
+        checkNotNull(pagingToken, "pagingToken cannot be null");
+        File file = file(name);
+        File temp = new File(mDirectory, file.getName() + ".tmp");
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            throw new IOException("Cannot create " + mDirectory);
+        }
+        FileOutputStream out = new FileOutputStream(temp);
+        try {
+            out.write(pagingToken.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            IOUtils.closeQuietly(out);
+            temp.delete();
+            throw e;
+        }
+        out.close();
+        if (!temp.renameTo(file)) {
+            // Rename does not replace existing files on some platforms. The previous checkpoint is kept as a backup
+            // until the new one is in place.
+            File backup = backup(file);
+            if (file.exists()) {
+                backup.delete();
+                if (!file.renameTo(backup)) {
+                    temp.delete();
+                    throw new IOException("Cannot rename " + file + " to " + backup);
+                }
+            }
+            if (!temp.renameTo(file)) {
+                backup.renameTo(file);
+                temp.delete();
+                throw new IOException("Cannot rename " + temp + " to " + file);
+            }
+            backup.delete();
+        }
+    }
+
+    private File file(String name) {
+        checkNotNull(name, "name cannot be null");
+        checkArgument(NAME.matcher(name).matches(), "name can contain only letters, digits, '.', '_' and '-'");
+        return new File(mDirectory, name + ".checkpoint");
+    }
+
+    private static File backup(File file) {
+        return new File(file.getParentFile(), file.getName() + ".bak");
+    }
+}
@@ -0,0 +1,125 @@
+package org.stellar.sdk.requests;
+
+import org.stellar.sdk.responses.LedgerResponse;
+import org.stellar.sdk.responses.TransactionResponse;
+import org.stellar.sdk.responses.effects.EffectResponse;
+import org.stellar.sdk.responses.operations.OperationResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link EventListener} grouping stream events by ledger. Delivers a list of events of a ledger once the ledger is
+ * known to be closed, so they can be processed, e.g. written to a database, in one batch.
+ * <p>
+ * The ledger of an event is read from its <code>paging_token</code>. As events are streamed in ledger order, the
+ * batch of a ledger is delivered when the first event of a later ledger arrives. To deliver the batch of the latest
+ * ledger without waiting for the next event, stream ledgers to {@link #ledgerCloseListener()} or call
+ * {@link #onLedgerClosed(long)}:
+ * <pre>
+ * LedgerBatcher&lt;OperationResponse&gt; batcher = LedgerBatcher.forOperations(listener);
+ * server.payments().cursor("now").stream(batcher, stateListener);
+ * server.ledgers().cursor("now").stream(batcher.ledgerCloseListener(), stateListener);
+ * </pre>
+ * A ledger close signal can arrive before all events of the ledger were streamed, late events are then delivered
+ * in another batch of the same ledger.
+ * <p>
+ * Batches are delivered one at a time on the thread of the event or signal completing them. When the listener
+ * throws, the batch is kept and delivered again, together with later events of its ledger, by the next event or
+ * signal. The exception is rethrown, so a stream reconnects and delivers the event completing the batch again.
+ * <p>
+ * The cursor of the stream moves past an event as soon as it is added to a batch, so events of a batch that was not
+ * delivered yet are lost when the process exits. To resume without losing events, store the
+ * <code>paging_token</code> of the last event of every delivered batch together with the batch and start the
+ * stream from it.
+ *
+ * @param <T> type of events
+ */
+public class LedgerBatcher<T> implements EventListener<T> {
+
+    private final EventListener<List<T>> mListener;
+    private final PagingTokens<T> mPagingTokens;
+    private List<T> mBatch = new ArrayList<T>();
+    // Ledger of the current batch, -1 when the batch is empty
+    private long mLedger = -1;
+
+    private LedgerBatcher(EventListener<List<T>> listener, PagingTokens<T> pagingTokens) {
+        mListener = checkNotNull(listener, "listener cannot be null");
+        mPagingTokens = pagingTokens;
+    }
+
+    /**
+     * Creates batcher of operations or payments stream.
+     *
+     * @param listener listener of batches
+     */
+    public static LedgerBatcher<OperationResponse> forOperations(EventListener<List<OperationResponse>> listener) {
+        return new LedgerBatcher<OperationResponse>(listener, PagingTokens.OPERATIONS);
+    }
+
+    /**
+     * Creates batcher of effects stream.
+     *
+     * @param listener listener of batches
+     */
+    public static LedgerBatcher<EffectResponse> forEffects(EventListener<List<EffectResponse>> listener) {
+        return new LedgerBatcher<EffectResponse>(listener, PagingTokens.EFFECTS);
+    }
+
+    /**
+     * Creates batcher of transactions stream.
+     *
+     * @param listener listener of batches
+     */
+    public static LedgerBatcher<TransactionResponse> forTransactions(EventListener<List<TransactionResponse>> listener) {
+        return new LedgerBatcher<TransactionResponse>(listener, PagingTokens.TRANSACTIONS);
+    }
+
+    @Override
+    public synchronized void onEvent(T event) {
+        long ledger = PagingTokens.ledgerOf(mPagingTokens.pagingToken(event));
+        if (mLedger != -1 && ledger != mLedger) {
+            flush();
+        }
+        mLedger = ledger;
+        mBatch.add(event);
+    }
+
+    /**
+     * Delivers the current batch if its ledger is <code>ledgerSequence</code> or older.
+     *
+     * @param ledgerSequence sequence of a closed ledger
+     */
+    public synchronized void onLedgerClosed(long ledgerSequence) {
+        if (mLedger != -1 && mLedger <= ledgerSequence) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns listener of a ledgers stream calling {@link #onLedgerClosed(long)} for every streamed ledger.
+     */
+    public EventListener<LedgerResponse> ledgerCloseListener() {
+        return new EventListener<LedgerResponse>() {
+            @Override
+            public void onEvent(LedgerResponse ledger) {
+                onLedgerClosed(ledger.getSequence());
+            }
+        };
+    }
+
+    /**
+     * Delivers the current batch, e.g. before closing the stream.
+     */
+    public synchronized void flush() {
+        if (mBatch.isEmpty()) {
+            return;
+        }
+        // Batch is cleared only when the listener succeeds
+        mListener.onEvent(mBatch);
+        mBatch = new ArrayList<T>();
+        mLedger = -1;
+    }
+}
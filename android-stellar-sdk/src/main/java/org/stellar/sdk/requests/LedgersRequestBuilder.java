@@ -1,5 +1,6 @@
 package org.stellar.sdk.requests;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.reflect.TypeToken;
 import com.launchdarkly.eventsource.EventHandler;
 import com.launchdarkly.eventsource.EventSource;
@@ -11,10 +12,10 @@ import org.stellar.sdk.responses.Page;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
 /**
  * Builds requests connected to ledgers.
@@ -32,8 +33,7 @@ public class LedgersRequestBuilder extends RequestBuilder {
      * @throws IOException
      */
     public LedgerResponse ledger(URI uri) throws IOException {
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), LedgerResponse.class);
+        return this.execute(uri, LedgerResponse.class);
     }
 
     /**
@@ -58,8 +58,7 @@ public class LedgersRequestBuilder extends RequestBuilder {
      */
     public Page<LedgerResponse> execute(URI uri) throws IOException, TooManyRequestsException {
         TypeToken type = new TypeToken<Page<LedgerResponse>>() {};
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), type.getType());
+        return this.execute(uri, type.getType());
     }
 
     /**
@@ -72,7 +71,9 @@ public class LedgersRequestBuilder extends RequestBuilder {
      * @return EventSource object, so you can <code>close()</code> connection when not needed anymore
      * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
      * @see <a href="https://www.stellar.org/developers/horizon/learn/responses.html" target="_blank">Response Format documentation</a>
+     * @deprecated use <code>stream(listener, options)</code>, which reconnects and does not depend on okhttp-eventsource
      */
+    @Deprecated
     public EventSource stream(final EventListener<LedgerResponse> listener) {
         EventHandler handler = new EventHandler() {
             @Override
@@ -109,6 +110,36 @@ public class LedgersRequestBuilder extends RequestBuilder {
         return new EventSource.Builder(handler, this.buildUri()).client(httpClient).build();
     }
 
+    /**
+     * Streams SSE events from horizon, reconnecting when the connection is lost.
+     * After a reconnect the stream resumes from the <code>paging_token</code> of the last delivered event,
+     * so events are not lost or repeated.
+     *
+     * @param listener      {@link EventListener} implementation with {@link LedgerResponse} type
+     * @param stateListener {@link SSEStream.StateListener} notified about connection state changes, can be <code>null</code>
+     * @return started {@link SSEStream}, so you can <code>close()</code> it when not needed anymore
+     * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
+     */
+    public SSEStream<LedgerResponse> stream(EventListener<LedgerResponse> listener, SSEStream.StateListener stateListener) {
+        return stream(listener, new SSEStream.Options().stateListener(stateListener));
+    }
+
+    /**
+     * Streams SSE events from horizon, reconnecting when the connection is lost.
+     * Events can be decoded off the connection thread and missed events can be backfilled, see
+     * {@link SSEStream.Options}.
+     *
+     * @param listener {@link EventListener} implementation with {@link LedgerResponse} type
+     * @param options  stream options
+     * @return started {@link SSEStream}, so you can <code>close()</code> it when not needed anymore
+     * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
+     */
+    public SSEStream<LedgerResponse> stream(EventListener<LedgerResponse> listener, SSEStream.Options options) {
+        URI uri = this.buildUri();
+        return new SSEStream<LedgerResponse>(httpClient, uri, LedgerResponse.class, listener, options,
+                this.pages(uri, new TypeToken<Page<LedgerResponse>>() {}.getType(), PagingTokens.LEDGERS, true)).start();
+    }
+
     /**
      * Build and execute request.
      *
@@ -120,6 +151,62 @@ public class LedgersRequestBuilder extends RequestBuilder {
         return this.execute(this.buildUri());
     }
 
+    /**
+     * Requests specific <code>uri</code> asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link LedgerResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<LedgerResponse>> executeAsync(URI uri) {
+        return this.executeAsync(uri, new TypeToken<Page<LedgerResponse>>() {}.getType());
+    }
+
+    /**
+     * Build and execute request asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link LedgerResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<LedgerResponse>> executeAsync() {
+        return this.executeAsync(this.buildUri());
+    }
+
+    /**
+     * Returns iterator over all {@link LedgerResponse}s, starting from this request and following <code>next</code> links.
+     *
+     * @param prefetchPages number of pages to request ahead of the page being consumed
+     * @see RecordIterator
+     */
+    public RecordIterator<LedgerResponse> iterator(int prefetchPages) {
+        return new RecordIterator<LedgerResponse>(this, this.buildUri(), new TypeToken<Page<LedgerResponse>>() {}.getType(), prefetchPages);
+    }
+
+    @Override
+    public LedgersRequestBuilder executor(Executor executor) {
+        super.executor(executor);
+        return this;
+    }
+
+    @Override
+    public LedgersRequestBuilder timeout(long timeout, TimeUnit unit) {
+        super.timeout(timeout, unit);
+        return this;
+    }
+
+    @Override
+    public LedgersRequestBuilder coalescer(RequestCoalescer coalescer) {
+        super.coalescer(coalescer);
+        return this;
+    }
+
+    @Override
+    public LedgersRequestBuilder responseCache(ResponseCache responseCache) {
+        super.responseCache(responseCache);
+        return this;
+    }
+
     @Override
     public LedgersRequestBuilder cursor(String token) {
         super.cursor(token);
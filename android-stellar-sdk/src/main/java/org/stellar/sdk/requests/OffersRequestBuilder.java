@@ -1,18 +1,18 @@
 package org.stellar.sdk.requests;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.reflect.TypeToken;
 
 import org.stellar.sdk.KeyPair;
-import org.stellar.sdk.responses.GsonSingleton;
 import org.stellar.sdk.responses.OfferResponse;
 import org.stellar.sdk.responses.Page;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -47,8 +47,7 @@ public class OffersRequestBuilder extends RequestBuilder {
      */
     public Page<OfferResponse> execute(URI uri) throws IOException, TooManyRequestsException {
         TypeToken type = new TypeToken<Page<OfferResponse>>() {};
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), type.getType());
+        return this.execute(uri, type.getType());
     }
 
     /**
@@ -62,6 +61,62 @@ public class OffersRequestBuilder extends RequestBuilder {
         return this.execute(this.buildUri());
     }
 
+    /**
+     * Requests specific <code>uri</code> asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link OfferResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<OfferResponse>> executeAsync(URI uri) {
+        return this.executeAsync(uri, new TypeToken<Page<OfferResponse>>() {}.getType());
+    }
+
+    /**
+     * Build and execute request asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link OfferResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<OfferResponse>> executeAsync() {
+        return this.executeAsync(this.buildUri());
+    }
+
+    /**
+     * Returns iterator over all {@link OfferResponse}s, starting from this request and following <code>next</code> links.
+     *
+     * @param prefetchPages number of pages to request ahead of the page being consumed
+     * @see RecordIterator
+     */
+    public RecordIterator<OfferResponse> iterator(int prefetchPages) {
+        return new RecordIterator<OfferResponse>(this, this.buildUri(), new TypeToken<Page<OfferResponse>>() {}.getType(), prefetchPages);
+    }
+
+    @Override
+    public OffersRequestBuilder executor(Executor executor) {
+        super.executor(executor);
+        return this;
+    }
+
+    @Override
+    public OffersRequestBuilder timeout(long timeout, TimeUnit unit) {
+        super.timeout(timeout, unit);
+        return this;
+    }
+
+    @Override
+    public OffersRequestBuilder coalescer(RequestCoalescer coalescer) {
+        super.coalescer(coalescer);
+        return this;
+    }
+
+    @Override
+    public OffersRequestBuilder responseCache(ResponseCache responseCache) {
+        super.responseCache(responseCache);
+        return this;
+    }
+
     @Override
     public OffersRequestBuilder cursor(String token) {
         super.cursor(token);
@@ -1,18 +1,18 @@
 package org.stellar.sdk.requests;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.reflect.TypeToken;
 
 import org.stellar.sdk.KeyPair;
-import org.stellar.sdk.responses.GsonSingleton;
 import org.stellar.sdk.responses.Page;
 import org.stellar.sdk.responses.operations.OperationResponse;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -32,8 +32,7 @@ public class OperationsRequestBuilder extends RequestBuilder {
      * @throws IOException
      */
     public OperationResponse operation(URI uri) throws IOException {
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), OperationResponse.class);
+        return this.execute(uri, OperationResponse.class);
     }
 
     /**
@@ -93,8 +92,7 @@ public class OperationsRequestBuilder extends RequestBuilder {
      */
     public Page<OperationResponse> execute(URI uri) throws IOException, TooManyRequestsException {
         TypeToken type = new TypeToken<Page<OperationResponse>>() {};
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), type.getType());
+        return this.execute(uri, type.getType());
     }
 
     /**
@@ -108,6 +106,62 @@ public class OperationsRequestBuilder extends RequestBuilder {
         return this.execute(this.buildUri());
     }
 
+    /**
+     * Requests specific <code>uri</code> asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link OperationResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<OperationResponse>> executeAsync(URI uri) {
+        return this.executeAsync(uri, new TypeToken<Page<OperationResponse>>() {}.getType());
+    }
+
+    /**
+     * Build and execute request asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link OperationResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<OperationResponse>> executeAsync() {
+        return this.executeAsync(this.buildUri());
+    }
+
+    /**
+     * Returns iterator over all {@link OperationResponse}s, starting from this request and following <code>next</code> links.
+     *
+     * @param prefetchPages number of pages to request ahead of the page being consumed
+     * @see RecordIterator
+     */
+    public RecordIterator<OperationResponse> iterator(int prefetchPages) {
+        return new RecordIterator<OperationResponse>(this, this.buildUri(), new TypeToken<Page<OperationResponse>>() {}.getType(), prefetchPages);
+    }
+
+    @Override
+    public OperationsRequestBuilder executor(Executor executor) {
+        super.executor(executor);
+        return this;
+    }
+
+    @Override
+    public OperationsRequestBuilder timeout(long timeout, TimeUnit unit) {
+        super.timeout(timeout, unit);
+        return this;
+    }
+
+    @Override
+    public OperationsRequestBuilder coalescer(RequestCoalescer coalescer) {
+        super.coalescer(coalescer);
+        return this;
+    }
+
+    @Override
+    public OperationsRequestBuilder responseCache(ResponseCache responseCache) {
+        super.responseCache(responseCache);
+        return this;
+    }
+
     @Override
     public OperationsRequestBuilder cursor(String token) {
         super.cursor(token);
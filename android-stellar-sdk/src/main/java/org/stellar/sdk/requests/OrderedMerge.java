@@ -0,0 +1,302 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.stellar.sdk.responses.Page;
+import org.stellar.sdk.responses.TransactionResponse;
+import org.stellar.sdk.responses.effects.EffectResponse;
+import org.stellar.sdk.responses.operations.OperationResponse;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Merges records of several sources, each ordered by <code>paging_token</code>, into one feed ordered by
+ * <code>paging_token</code>.
+ * <p>
+ * Sources are streams or pages of history, e.g. payments of several accounts. Records of a stream are passed to
+ * {@link #source(int)} listener, pages of history to {@link #addPage(int, Page)} and a source which will not
+ * return more records is marked by {@link #complete(int)}. Records are buffered in a heap and a record is emitted
+ * once every source has a later record buffered or is complete, so no source can return an earlier record.
+ * <p>
+ * A lagging source without buffered records holds back the emission for at most <code>watermark</code> after its
+ * last record. After that the other sources are emitted without waiting for it. Records which arrive after a later
+ * record was already emitted are emitted immediately, out of order, and counted by {@link #getLateRecords()}.
+ * A record returned by several sources, e.g. a payment between two merged accounts, is emitted once, also when
+ * a copy arrives late. The last 1024 emitted records are remembered for that.
+ * <pre>
+ * OrderedMerge&lt;OperationResponse&gt; merge = OrderedMerge.forOperations(listener, 2, 5, TimeUnit.SECONDS);
+ * server.payments().forAccount(first).cursor("now").stream(merge.source(0), stateListener);
+ * server.payments().forAccount(second).cursor("now").stream(merge.source(1), stateListener);
+ * </pre>
+ * By default records are emitted one at a time on the thread of a source or, after a watermark, on a thread shared
+ * by all merges, so a slow listener delays every source and the watermarks of other merges. With
+ * {@link #executor(Executor)} the listener is called on the executor instead.
+ *
+ * @param <T> type of records
+ */
+public class OrderedMerge<T> {
+
+    private static final int RECENT_TOKENS = 1024;
+
+    private static ScheduledExecutorService sScheduler;
+
+    private static final class Entry<T> {
+        final T record;
+        final String pagingToken;
+        final int source;
+
+        Entry(T record, String pagingToken, int source) {
+            this.record = record;
+            this.pagingToken = pagingToken;
+            this.source = source;
+        }
+    }
+
+    private final EventListener<T> mListener;
+    private final PagingTokens<T> mPagingTokens;
+    private final long mWatermarkNanos;
+    private final PriorityQueue<Entry<T>> mHeap;
+    // Per source state
+    private final int[] mBuffered;
+    private final long[] mLastRecordAt;
+    private final boolean[] mCompleted;
+    // Paging tokens of recently emitted records, oldest first
+    private final Set<String> mEmittedTokens;
+    // Delivers records to the listener, null to call it directly
+    private Executor mDelivery;
+    private String mLastEmitted;
+    private long mLateRecords;
+    private boolean mCheckScheduled;
+
+    private OrderedMerge(EventListener<T> listener, PagingTokens<T> pagingTokens, int sources,
+                         long watermark, TimeUnit unit) {
+        checkArgument(sources > 0, "sources must be positive");
+        checkArgument(watermark >= 0, "watermark cannot be negative");
+        mListener = checkNotNull(listener, "listener cannot be null");
+        mPagingTokens = pagingTokens;
+        mWatermarkNanos = unit.toNanos(watermark);
+        mHeap = new PriorityQueue<Entry<T>>(16, new Comparator<Entry<T>>() {
+            @Override
+            public int compare(Entry<T> a, Entry<T> b) {
+                return PagingTokens.compare(a.pagingToken, b.pagingToken);
+            }
+        });
+        mBuffered = new int[sources];
+        mLastRecordAt = new long[sources];
+        mCompleted = new boolean[sources];
+        mEmittedTokens = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RECENT_TOKENS;
+            }
+        });
+        long now = System.nanoTime();
+        for (int i = 0; i < sources; i++) {
+            mLastRecordAt[i] = now;
+        }
+    }
+
+    /**
+     * Creates merge of operations or payments.
+     *
+     * @param listener  listener of merged records
+     * @param sources   number of sources
+     * @param watermark maximum time emission waits for a lagging source
+     * @param unit      unit of <code>watermark</code>
+     */
+    public static OrderedMerge<OperationResponse> forOperations(EventListener<OperationResponse> listener, int sources,
+                                                               long watermark, TimeUnit unit) {
+        return new OrderedMerge<OperationResponse>(listener, PagingTokens.OPERATIONS, sources, watermark, unit);
+    }
+
+    /**
+     * Creates merge of effects.
+     *
+     * @param listener  listener of merged records
+     * @param sources   number of sources
+     * @param watermark maximum time emission waits for a lagging source
+     * @param unit      unit of <code>watermark</code>
+     */
+    public static OrderedMerge<EffectResponse> forEffects(EventListener<EffectResponse> listener, int sources,
+                                                         long watermark, TimeUnit unit) {
+        return new OrderedMerge<EffectResponse>(listener, PagingTokens.EFFECTS, sources, watermark, unit);
+    }
+
+    /**
+     * Creates merge of transactions.
+     *
+     * @param listener  listener of merged records
+     * @param sources   number of sources
+     * @param watermark maximum time emission waits for a lagging source
+     * @param unit      unit of <code>watermark</code>
+     */
+    public static OrderedMerge<TransactionResponse> forTransactions(EventListener<TransactionResponse> listener,
+                                                                   int sources, long watermark, TimeUnit unit) {
+        return new OrderedMerge<TransactionResponse>(listener, PagingTokens.TRANSACTIONS, sources, watermark, unit);
+    }
+
+    /**
+     * Sets executor the listener is called on, so a slow listener does not block sources. Records are still
+     * delivered one at a time and in order. Exceptions thrown by the listener are not passed to the sources then.
+     * By default the listener is called on the thread emitting records.
+     *
+     * @param executor executor calling the listener or <code>null</code> to call it directly
+     */
+    public synchronized OrderedMerge<T> executor(Executor executor) {
+        mDelivery = executor != null ? MoreExecutors.newSequentialExecutor(executor) : null;
+        return this;
+    }
+
+    /**
+     * Returns listener receiving records of source <code>index</code>.
+     */
+    public EventListener<T> source(final int index) {
+        checkElementIndex(index, mBuffered.length, "index");
+        return new EventListener<T>() {
+            @Override
+            public void onEvent(T record) {
+                add(index, record);
+            }
+        };
+    }
+
+    /**
+     * Adds records of a page of history to source <code>index</code>. The page should be in ascending order.
+     */
+    public synchronized void addPage(int index, Page<T> page) {
+        checkElementIndex(index, mBuffered.length, "index");
+        for (T record : page.getRecords()) {
+            add(index, record);
+        }
+    }
+
+    /**
+     * Marks source <code>index</code> as complete, emission does not wait for it anymore.
+     */
+    public synchronized void complete(int index) {
+        checkElementIndex(index, mBuffered.length, "index");
+        mCompleted[index] = true;
+        emit();
+    }
+
+    /**
+     * Returns number of records waiting for lagging sources.
+     */
+    public synchronized int getBufferedRecords() {
+        return mHeap.size();
+    }
+
+    /**
+     * Returns number of records emitted out of order because they arrived after the watermark.
+     */
+    public synchronized long getLateRecords() {
+        return mLateRecords;
+    }
+
+    private synchronized void add(int index, T record) {
+        String pagingToken = mPagingTokens.pagingToken(record);
+        mLastRecordAt[index] = System.nanoTime();
+        if (mEmittedTokens.contains(pagingToken)) {
+            // Already emitted from another source
+            return;
+        }
+        if (mLastEmitted != null && PagingTokens.compare(pagingToken, mLastEmitted) < 0) {
+            mLateRecords++;
+            mEmittedTokens.add(pagingToken);
+            deliver(record);
+            return;
+        }
+        mHeap.add(new Entry<T>(record, pagingToken, index));
+        mBuffered[index]++;
+        emit();
+    }
+
+    // Called with the merge locked
+    private void emit() {
+        while (!mHeap.isEmpty()) {
+            long waitNanos = waitForLaggingSources();
+            if (waitNanos > 0) {
+                scheduleCheck(waitNanos);
+                return;
+            }
+            Entry<T> entry = mHeap.poll();
+            mBuffered[entry.source]--;
+            if (!mEmittedTokens.add(entry.pagingToken)) {
+                // Same record buffered from another source
+                continue;
+            }
+            mLastEmitted = entry.pagingToken;
+            deliver(entry.record);
+        }
+    }
+
+    // Called with the merge locked, in emission order
+    private void deliver(final T record) {
+        if (mDelivery == null) {
+            mListener.onEvent(record);
+            return;
+        }
+        mDelivery.execute(new Runnable() {
+            @Override
+            public void run() {
+                mListener.onEvent(record);
+            }
+        });
+    }
+
+    // Returns how long emission has to wait for sources without buffered records, 0 when it can continue
+    private long waitForLaggingSources() {
+        long now = System.nanoTime();
+        long wait = 0;
+        for (int i = 0; i < mBuffered.length; i++) {
+            if (mCompleted[i] || mBuffered[i] > 0) {
+                continue;
+            }
+            long remaining = mLastRecordAt[i] + mWatermarkNanos - now;
+            wait = Math.max(wait, remaining);
+        }
+        return wait;
+    }
+
+    private void scheduleCheck(long delayNanos) {
+        if (mCheckScheduled) {
+            return;
+        }
+        mCheckScheduled = true;
+        scheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (OrderedMerge.this) {
+                    mCheckScheduled = false;
+                    emit();
+                }
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns scheduler emitting records after a watermark. The listener runs on it unless an executor is set, so the
+     * stream scheduler is not used.
+     */
+    private static synchronized ScheduledExecutorService scheduler() {
+        if (sScheduler == null) {
+            sScheduler = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ordered-merge-%d").build());
+        }
+        return sScheduler;
+    }
+}
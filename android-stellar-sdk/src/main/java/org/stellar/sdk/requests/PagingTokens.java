@@ -0,0 +1,94 @@
+package org.stellar.sdk.requests;
+
+import org.stellar.sdk.responses.LedgerResponse;
+import org.stellar.sdk.responses.TransactionResponse;
+import org.stellar.sdk.responses.effects.EffectResponse;
+import org.stellar.sdk.responses.operations.OperationResponse;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads <code>paging_token</code> of stream records.
+ */
+abstract class PagingTokens<T> {
+
+    static final PagingTokens<OperationResponse> OPERATIONS = new PagingTokens<OperationResponse>() {
+        @Override
+        String pagingToken(OperationResponse operation) {
+            return operation.getPagingToken();
+        }
+    };
+
+    static final PagingTokens<EffectResponse> EFFECTS = new PagingTokens<EffectResponse>() {
+        @Override
+        String pagingToken(EffectResponse effect) {
+            return effect.getPagingToken();
+        }
+    };
+
+    static final PagingTokens<LedgerResponse> LEDGERS = new PagingTokens<LedgerResponse>() {
+        @Override
+        String pagingToken(LedgerResponse ledger) {
+            return ledger.getPagingToken();
+        }
+    };
+
+    static final PagingTokens<TransactionResponse> TRANSACTIONS = new PagingTokens<TransactionResponse>() {
+        @Override
+        String pagingToken(TransactionResponse transaction) {
+            return transaction.getPagingToken();
+        }
+    };
+
+    abstract String pagingToken(T record);
+
+    /**
+     * Returns sequence of the ledger containing the operation, effect or transaction with given
+     * <code>paging_token</code>. The token of operations and transactions is an ID with the ledger sequence in the
+     * upper 32 bits, the token of effects is an operation ID followed by <code>-</code> and an index.
+     */
+    static long ledgerOf(String pagingToken) {
+        return id(pagingToken) >>> 32;
+    }
+
+    /**
+     * Returns <code>true</code> when <code>pagingToken</code> is a token of a record, not e.g. <code>now</code>.
+     */
+    static boolean isValid(String pagingToken) {
+        if (pagingToken == null) {
+            return false;
+        }
+        try {
+            id(pagingToken);
+            index(pagingToken);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compares paging tokens of operations, effects or transactions in the order of the records.
+     */
+    static int compare(String a, String b) {
+        long idA = id(a);
+        long idB = id(b);
+        if (idA != idB) {
+            return idA < idB ? -1 : 1;
+        }
+        int indexA = index(a);
+        int indexB = index(b);
+        return indexA < indexB ? -1 : (indexA == indexB ? 0 : 1);
+    }
+
+    private static long id(String pagingToken) {
+        checkNotNull(pagingToken, "pagingToken cannot be null");
+        int separator = pagingToken.indexOf('-');
+        return Long.parseLong(separator == -1 ? pagingToken : pagingToken.substring(0, separator));
+    }
+
+    private static int index(String pagingToken) {
+        int separator = pagingToken.indexOf('-');
+        return separator == -1 ? 0 : Integer.parseInt(pagingToken.substring(separator + 1));
+    }
+}
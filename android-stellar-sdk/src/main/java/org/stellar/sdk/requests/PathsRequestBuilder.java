@@ -1,20 +1,20 @@
 package org.stellar.sdk.requests;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.reflect.TypeToken;
 
 import org.stellar.sdk.Asset;
 import org.stellar.sdk.AssetTypeCreditAlphaNum;
 import org.stellar.sdk.KeyPair;
-import org.stellar.sdk.responses.GsonSingleton;
 import org.stellar.sdk.responses.Page;
 import org.stellar.sdk.responses.PathResponse;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
 /**
  * Builds requests connected to paths.
@@ -45,7 +45,7 @@ public class PathsRequestBuilder extends RequestBuilder {
         if (asset instanceof AssetTypeCreditAlphaNum) {
             AssetTypeCreditAlphaNum creditAlphaNumAsset = (AssetTypeCreditAlphaNum) asset;
             urlBuilder.addQueryParameter("destination_asset_code", creditAlphaNumAsset.getCode());
-            urlBuilder.addQueryParameter("destination_asset_issuer", creditAlphaNumAsset.getIssuer().getAccountId());
+            urlBuilder.addQueryParameter("destination_asset_issuer", creditAlphaNumAsset.getIssuerAccountId());
         }
         return this;
     }
@@ -56,8 +56,7 @@ public class PathsRequestBuilder extends RequestBuilder {
      */
     public Page<PathResponse> execute(URI uri) throws IOException, TooManyRequestsException {
         TypeToken type = new TypeToken<Page<PathResponse>>() {};
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), type.getType());
+        return this.execute(uri, type.getType());
     }
 
     /**
@@ -67,4 +66,50 @@ public class PathsRequestBuilder extends RequestBuilder {
     public Page<PathResponse> execute() throws IOException, TooManyRequestsException {
         return this.execute(this.buildUri());
     }
+
+    /**
+     * Requests specific <code>uri</code> asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link PathResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<PathResponse>> executeAsync(URI uri) {
+        return this.executeAsync(uri, new TypeToken<Page<PathResponse>>() {}.getType());
+    }
+
+    /**
+     * Build and execute request asynchronously.
+     *
+     * @return future completed with {@link Page} of {@link PathResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<Page<PathResponse>> executeAsync() {
+        return this.executeAsync(this.buildUri());
+    }
+
+    @Override
+    public PathsRequestBuilder executor(Executor executor) {
+        super.executor(executor);
+        return this;
+    }
+
+    @Override
+    public PathsRequestBuilder timeout(long timeout, TimeUnit unit) {
+        super.timeout(timeout, unit);
+        return this;
+    }
+
+    @Override
+    public PathsRequestBuilder coalescer(RequestCoalescer coalescer) {
+        super.coalescer(coalescer);
+        return this;
+    }
+
+    @Override
+    public PathsRequestBuilder responseCache(ResponseCache responseCache) {
+        super.responseCache(responseCache);
+        return this;
+    }
 }
@@ -0,0 +1,208 @@
+package org.stellar.sdk.requests;
+
+import org.stellar.sdk.KeyPair;
+import org.stellar.sdk.responses.operations.AccountMergeOperationResponse;
+import org.stellar.sdk.responses.operations.CreateAccountOperationResponse;
+import org.stellar.sdk.responses.operations.OperationResponse;
+import org.stellar.sdk.responses.operations.PathPaymentOperationResponse;
+import org.stellar.sdk.responses.operations.PaymentOperationResponse;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Delivers payments of many accounts using a single payments stream.
+ * <p>
+ * Instead of opening a stream for every watched account, one stream of all payments is opened when the first
+ * account is subscribed and every payment is delivered to the listeners of the accounts taking part in it
+ * (source account, sender, receiver, funder, created or merged account). Subscriptions can be added and removed
+ * at any time without reconnecting the stream.
+ * <pre>
+ * PaymentSubscriptions subscriptions = new PaymentSubscriptions(server.payments().cursor("now"));
+ * subscriptions.subscribe(account, listener);
+ * </pre>
+ * Listeners are called on the stream thread. An exception thrown by a listener does not affect other listeners or
+ * the stream, the payment is not delivered to the listener again and the failure is counted by
+ * {@link #getFailedDeliveries()}.
+ */
+public class PaymentSubscriptions implements Closeable {
+
+    private final PaymentsRequestBuilder mPayments;
+    private final SSEStream.StateListener mStateListener;
+    // Account ID to its listeners, copy on write so delivery does not lock
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<EventListener<OperationResponse>>> mListeners =
+            new ConcurrentHashMap<String, CopyOnWriteArrayList<EventListener<OperationResponse>>>();
+    private final AtomicLong mFailedDeliveries = new AtomicLong();
+    private final Object mLock = new Object();
+    private SSEStream<OperationResponse> mStream;
+    private boolean mClosed;
+
+    /**
+     * @param payments request builder of the payments stream, should not be limited to a single account
+     */
+    public PaymentSubscriptions(PaymentsRequestBuilder payments) {
+        this(payments, null);
+    }
+
+    /**
+     * @param payments      request builder of the payments stream, should not be limited to a single account
+     * @param stateListener listener notified about connection state changes of the stream, can be <code>null</code>
+     */
+    public PaymentSubscriptions(PaymentsRequestBuilder payments, SSEStream.StateListener stateListener) {
+        mPayments = checkNotNull(payments, "payments cannot be null");
+        mStateListener = stateListener;
+    }
+
+    /**
+     * Starts delivering payments of <code>account</code> to <code>listener</code>. Opens the stream when called for
+     * the first time.
+     *
+     * @param account  account to watch
+     * @param listener listener of the account payments
+     */
+    public void subscribe(KeyPair account, EventListener<OperationResponse> listener) {
+        checkNotNull(account, "account cannot be null");
+        checkNotNull(listener, "listener cannot be null");
+        String accountId = account.getAccountId();
+        synchronized (mLock) {
+            if (mClosed) {
+                throw new IllegalStateException("subscriptions are closed");
+            }
+            CopyOnWriteArrayList<EventListener<OperationResponse>> listeners = mListeners.get(accountId);
+            if (listeners == null) {
+                listeners = new CopyOnWriteArrayList<EventListener<OperationResponse>>();
+                mListeners.put(accountId, listeners);
+            }
+            listeners.add(listener);
+            if (mStream == null) {
+                mStream = mPayments.stream(new EventListener<OperationResponse>() {
+                    @Override
+                    public void onEvent(OperationResponse operation) {
+                        dispatch(operation);
+                    }
+                }, mStateListener);
+            }
+        }
+    }
+
+    /**
+     * Stops delivering payments of <code>account</code> to <code>listener</code>. The stream stays open.
+     *
+     * @param account  watched account
+     * @param listener listener passed to {@link #subscribe(KeyPair, EventListener)}
+     */
+    public void unsubscribe(KeyPair account, EventListener<OperationResponse> listener) {
+        checkNotNull(account, "account cannot be null");
+        String accountId = account.getAccountId();
+        synchronized (mLock) {
+            CopyOnWriteArrayList<EventListener<OperationResponse>> listeners = mListeners.get(accountId);
+            if (listeners == null) {
+                return;
+            }
+            listeners.removeAll(Collections.singleton(listener));
+            if (listeners.isEmpty()) {
+                mListeners.remove(accountId);
+            }
+        }
+    }
+
+    /**
+     * Returns number of watched accounts.
+     */
+    public int getAccountsCount() {
+        return mListeners.size();
+    }
+
+    /**
+     * Returns number of payments not delivered because a listener threw an exception.
+     */
+    public long getFailedDeliveries() {
+        return mFailedDeliveries.get();
+    }
+
+    /**
+     * Returns the payments stream or <code>null</code> when no account was subscribed yet.
+     */
+    public SSEStream<OperationResponse> getStream() {
+        synchronized (mLock) {
+            return mStream;
+        }
+    }
+
+    /**
+     * Closes the stream and removes all subscriptions.
+     */
+    @Override
+    public void close() {
+        SSEStream<OperationResponse> stream;
+        synchronized (mLock) {
+            mClosed = true;
+            mListeners.clear();
+            stream = mStream;
+            mStream = null;
+        }
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Delivers <code>operation</code> to the listeners of accounts taking part in it. Every listener gets the
+     * operation once, even when it watches several of the accounts. Exceptions of listeners are not propagated, so
+     * the stream does not reconnect and deliver the operation to all listeners again.
+     */
+    void dispatch(OperationResponse operation) {
+        List<EventListener<OperationResponse>> targets = null;
+        for (KeyPair account : accounts(operation)) {
+            if (account == null) {
+                continue;
+            }
+            List<EventListener<OperationResponse>> listeners = mListeners.get(account.getAccountId());
+            if (listeners == null) {
+                continue;
+            }
+            if (targets == null) {
+                targets = new ArrayList<EventListener<OperationResponse>>(listeners.size());
+            }
+            for (EventListener<OperationResponse> listener : listeners) {
+                if (!targets.contains(listener)) {
+                    targets.add(listener);
+                }
+            }
+        }
+        if (targets == null) {
+            return;
+        }
+        for (EventListener<OperationResponse> listener : targets) {
+            try {
+                listener.onEvent(operation);
+            } catch (RuntimeException e) {
+                mFailedDeliveries.incrementAndGet();
+            }
+        }
+    }
+
+    private static KeyPair[] accounts(OperationResponse operation) {
+        if (operation instanceof PaymentOperationResponse) {
+            PaymentOperationResponse payment = (PaymentOperationResponse) operation;
+            return new KeyPair[]{operation.getSourceAccount(), payment.getFrom(), payment.getTo()};
+        } else if (operation instanceof PathPaymentOperationResponse) {
+            PathPaymentOperationResponse payment = (PathPaymentOperationResponse) operation;
+            return new KeyPair[]{operation.getSourceAccount(), payment.getFrom(), payment.getTo()};
+        } else if (operation instanceof CreateAccountOperationResponse) {
+            CreateAccountOperationResponse createAccount = (CreateAccountOperationResponse) operation;
+            return new KeyPair[]{operation.getSourceAccount(), createAccount.getFunder(), createAccount.getAccount()};
+        } else if (operation instanceof AccountMergeOperationResponse) {
+            AccountMergeOperationResponse accountMerge = (AccountMergeOperationResponse) operation;
+            return new KeyPair[]{operation.getSourceAccount(), accountMerge.getAccount(), accountMerge.getInto()};
+        }
+        return new KeyPair[]{operation.getSourceAccount()};
+    }
+}
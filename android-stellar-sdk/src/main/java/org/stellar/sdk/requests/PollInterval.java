@@ -0,0 +1,63 @@
+package org.stellar.sdk.requests;
+
+/**
+ * Interval between polls of {@link SSEStream} polling transport.
+ * <p>
+ * New records appear when a ledger closes, so after a poll returning records the next poll waits for the ledger close
+ * interval, estimated from ledgers of polled records. A full page is followed by the next poll immediately. After
+ * polls without records the interval doubles up to the maximum, so an idle stream makes few requests.
+ */
+final class PollInterval {
+
+    static final long DEFAULT_LEDGER_CLOSE_MILLIS = 5000;
+    private static final long MIN_LEDGER_CLOSE_MILLIS = 1000;
+
+    private final long mMaxIdleMillis;
+    private long mLedgerCloseMillis = DEFAULT_LEDGER_CLOSE_MILLIS;
+    private long mIdleMillis;
+    // Ledger of the last polled record and when it was polled, -1 before the first record
+    private long mLastLedger = -1;
+    private long mLastLedgerAt;
+
+    PollInterval(long maxIdleMillis) {
+        mMaxIdleMillis = maxIdleMillis;
+    }
+
+    /**
+     * Returns delay of the next poll.
+     *
+     * @param records    number of records returned by the poll
+     * @param fullPage   <code>true</code> when more records may follow
+     * @param lastLedger ledger of the last record, -1 when unknown
+     * @param nowMillis  time of the poll
+     */
+    long next(int records, boolean fullPage, long lastLedger, long nowMillis) {
+        if (records == 0) {
+            mIdleMillis = mIdleMillis == 0 ? mLedgerCloseMillis : Math.min(mMaxIdleMillis, mIdleMillis * 2);
+            return mIdleMillis;
+        }
+        mIdleMillis = 0;
+        if (fullPage) {
+            // Records of history polled in a row say nothing about ledger close interval
+            mLastLedger = -1;
+            return 0;
+        }
+        if (lastLedger > mLastLedger && mLastLedger != -1) {
+            long sample = (nowMillis - mLastLedgerAt) / (lastLedger - mLastLedger);
+            long estimate = (3 * mLedgerCloseMillis + sample) / 4;
+            mLedgerCloseMillis = Math.max(MIN_LEDGER_CLOSE_MILLIS, Math.min(mMaxIdleMillis, estimate));
+        }
+        if (lastLedger > mLastLedger) {
+            mLastLedger = lastLedger;
+            mLastLedgerAt = nowMillis;
+        }
+        return mLedgerCloseMillis;
+    }
+
+    /**
+     * Returns the estimated ledger close interval.
+     */
+    long getLedgerCloseMillis() {
+        return mLedgerCloseMillis;
+    }
+}
@@ -0,0 +1,194 @@
+package org.stellar.sdk.requests;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * OkHttp interceptor keeping requests within the Horizon rate limit.
+ * <p>
+ * The interceptor keeps a request budget for the current rate limit window, sized from the
+ * <code>X-RateLimit-Limit</code>, <code>X-RateLimit-Remaining</code> and <code>X-RateLimit-Reset</code> headers of
+ * responses. When the budget is spent, new requests wait until the window resets instead of failing.
+ * <p>
+ * When Horizon responds with 429 status code, all requests are paused for <code>Retry-After</code> seconds (or with
+ * exponential backoff when the header is missing) and the request is retried. After <code>maxRetries</code>
+ * retries the 429 response is returned and {@link ResponseHandler} throws {@link TooManyRequestsException}.
+ * <p>
+ * Requests wait for the budget on the thread sending them, which for <code>executeAsync()</code> calls and streams
+ * is an OkHttp dispatcher thread or a stream reader thread. The same instance must be shared by all clients sending
+ * requests to a Horizon server, and only requests to that server may use it.
+ *
+ * @see <a href="https://www.stellar.org/developers/horizon/learn/rate-limiting.html" target="_blank">Rate Limiting</a>
+ */
+public class RateLimitInterceptor implements Interceptor {
+
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 60000;
+
+    private final int mMaxRetries;
+    private final Object mLock = new Object();
+    // Limit of the window, -1 until known
+    private int mLimit = -1;
+    // Requests that can still be sent in the current window
+    private int mRemaining;
+    // When the current window ends, 0 when unknown
+    private long mResetAt;
+    private long mPausedUntil;
+    private int mInFlight;
+    private int mBackoffAttempts;
+
+    public RateLimitInterceptor() {
+        this(DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * @param maxRetries number of times a request is retried after 429 response
+     */
+    public RateLimitInterceptor(int maxRetries) {
+        checkArgument(maxRetries >= 0, "maxRetries cannot be negative");
+        mMaxRetries = maxRetries;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        return proceed(chain, chain.request());
+    }
+
+    /**
+     * Sends <code>request</code> to the next interceptor of <code>chain</code> within the rate limit of this instance.
+     * Used by interceptors routing requests to several Horizon servers, which keep an instance per server.
+     */
+    public Response proceed(Chain chain, Request request) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            acquire();
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } finally {
+                release();
+            }
+
+            if (response.code() != 429) {
+                int limit = parseHeader(response.headers(), "X-RateLimit-Limit");
+                int remaining = parseHeader(response.headers(), "X-RateLimit-Remaining");
+                int reset = parseHeader(response.headers(), "X-RateLimit-Reset");
+                if (limit >= 0 && remaining >= 0 && reset >= 0) {
+                    update(limit, remaining, reset);
+                }
+                return response;
+            }
+
+            pause(parseHeader(response.headers(), "Retry-After"));
+            if (attempt >= mMaxRetries) {
+                return response;
+            }
+            response.close();
+        }
+    }
+
+    /**
+     * Waits until a request can be sent.
+     */
+    void acquire() throws InterruptedIOException {
+        synchronized (mLock) {
+            while (true) {
+                long now = now();
+                if (now < mPausedUntil) {
+                    await(mPausedUntil - now);
+                    continue;
+                }
+                if (mResetAt != 0 && now >= mResetAt) {
+                    // New window
+                    mRemaining = mLimit;
+                    mResetAt = 0;
+                }
+                // Without a known reset time, send a single request to learn the current limits
+                if (mLimit < 0 || mRemaining > 0 || (mResetAt == 0 && mInFlight == 0)) {
+                    mRemaining--;
+                    mInFlight++;
+                    return;
+                }
+                await(mResetAt != 0 ? mResetAt - now : 0);
+            }
+        }
+    }
+
+    void release() {
+        synchronized (mLock) {
+            mInFlight--;
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Updates the budget from rate limit headers of a response.
+     */
+    void update(int limit, int remaining, int resetSeconds) {
+        synchronized (mLock) {
+            mLimit = limit;
+            // Other requests in flight were possibly not counted by Horizon yet
+            mRemaining = Math.max(0, remaining - mInFlight);
+            mResetAt = now() + resetSeconds * 1000L;
+            mBackoffAttempts = 0;
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Pauses all requests after 429 response.
+     *
+     * @param retryAfterSeconds value of <code>Retry-After</code> header or -1 when missing
+     * @return pause in milliseconds
+     */
+    long pause(int retryAfterSeconds) {
+        synchronized (mLock) {
+            long delay;
+            if (retryAfterSeconds >= 0) {
+                delay = retryAfterSeconds * 1000L;
+            } else {
+                delay = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(mBackoffAttempts, 16));
+                mBackoffAttempts++;
+            }
+            mPausedUntil = Math.max(mPausedUntil, now() + delay);
+            mRemaining = 0;
+            mLock.notifyAll();
+            return delay;
+        }
+    }
+
+    private void await(long millis) throws InterruptedIOException {
+        try {
+            mLock.wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rate limit");
+        }
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000;
+    }
+
+    /**
+     * Returns value of an integer header, e.g. <code>Retry-After</code>, or -1 when it is missing or invalid.
+     */
+    public static int parseHeader(Headers headers, String name) {
+        String value = headers.get(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
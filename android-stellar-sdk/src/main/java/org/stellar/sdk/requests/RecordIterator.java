@@ -0,0 +1,189 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import org.stellar.sdk.responses.Page;
+
+import java.io.Closeable;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Iterates over all records of a paged Horizon endpoint, following <code>next</code> links.
+ * <p>
+ * Pages are requested with the <code>OkHttpClient</code> of the request builder that created the iterator, so
+ * connections are reused. While the caller consumes one page, up to <code>prefetchPages</code> following pages are
+ * requested in the background. Iteration ends when Horizon returns an empty page. Call {@link #close()} to stop
+ * early and cancel pending requests.
+ * <p>
+ * {@link #hasNext()} blocks while the next page is loading and throws {@link RuntimeException} when it
+ * cannot be loaded.
+ *
+ * @param <T> type of records
+ */
+public class RecordIterator<T> implements Iterator<T>, Closeable {
+
+    private final RequestBuilder mRequestBuilder;
+    private final Type mPageType;
+    private final int mPrefetchPages;
+    private final Object mLock = new Object();
+    // Requested pages not yet handed to the caller, in order
+    private final ArrayDeque<ListenableFuture<Page<T>>> mPages = new ArrayDeque<ListenableFuture<Page<T>>>();
+    // Last loaded page whose next page has not been requested because prefetch queue was full
+    private Page<T> mContinuation;
+    // Whether the last requested page has not been processed by onPageLoaded yet
+    private boolean mLoading;
+    private boolean mClosed;
+    private Iterator<T> mRecords;
+    private boolean mFinished;
+
+    RecordIterator(RequestBuilder requestBuilder, URI uri, Type pageType, int prefetchPages) {
+        checkArgument(prefetchPages >= 0, "prefetchPages cannot be negative");
+        mRequestBuilder = requestBuilder;
+        mPageType = pageType;
+        mPrefetchPages = prefetchPages;
+        synchronized (mLock) {
+            request(uri);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (mRecords == null || !mRecords.hasNext()) {
+            if (mFinished) {
+                return false;
+            }
+            ListenableFuture<Page<T>> future = nextPage();
+            if (future == null) {
+                mFinished = true;
+                return false;
+            }
+            Page<T> page;
+            try {
+                page = Uninterruptibles.getUninterruptibly(future);
+            } catch (CancellationException e) {
+                mFinished = true;
+                return false;
+            } catch (ExecutionException e) {
+                close();
+                throw new RuntimeException(e.getCause());
+            }
+            if (page.getRecords() == null || page.getRecords().isEmpty()) {
+                mFinished = true;
+                return false;
+            }
+            mRecords = page.getRecords().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return mRecords.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stops iteration and cancels pending page requests.
+     */
+    @Override
+    public void close() {
+        synchronized (mLock) {
+            mClosed = true;
+            mContinuation = null;
+            mLock.notifyAll();
+            for (ListenableFuture<Page<T>> future : mPages) {
+                future.cancel(true);
+            }
+            mPages.clear();
+        }
+        mFinished = true;
+    }
+
+    private ListenableFuture<Page<T>> nextPage() {
+        synchronized (mLock) {
+            // The caller may get a page before onPageLoaded decides whether there is a next one
+            boolean interrupted = false;
+            while (!mClosed && mPages.isEmpty() && mContinuation == null && mLoading) {
+                try {
+                    mLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (mClosed) {
+                return null;
+            }
+            if (mPages.isEmpty() && mContinuation != null) {
+                requestNext(mContinuation);
+            }
+            ListenableFuture<Page<T>> future = mPages.poll();
+            if (mContinuation != null && mPages.size() < mPrefetchPages) {
+                requestNext(mContinuation);
+            }
+            return future;
+        }
+    }
+
+    private void onPageLoaded(ListenableFuture<Page<T>> future) {
+        synchronized (mLock) {
+            mLoading = false;
+            mLock.notifyAll();
+            if (mClosed || future.isCancelled()) {
+                return;
+            }
+            Page<T> page;
+            try {
+                page = Uninterruptibles.getUninterruptibly(future);
+            } catch (ExecutionException e) {
+                // Reported to the caller when it reaches this page
+                return;
+            }
+            if (page.getRecords() == null || page.getRecords().isEmpty()
+                    || page.getLinks() == null || page.getLinks().getNext() == null) {
+                return;
+            }
+            if (mPages.size() < mPrefetchPages) {
+                requestNext(page);
+            } else {
+                mContinuation = page;
+            }
+        }
+    }
+
+    private void requestNext(Page<T> page) {
+        mContinuation = null;
+        request(page.getLinks().getNext().getUri());
+    }
+
+    private void request(URI uri) {
+        final ListenableFuture<Page<T>> future = mRequestBuilder.executeAsync(uri, mPageType);
+        mPages.add(future);
+        mLoading = true;
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                onPageLoaded(future);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+}
@@ -1,21 +1,56 @@
 package org.stellar.sdk.requests;
 
 
+import com.google.common.base.Functions;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.reflect.TypeToken;
+
+import org.stellar.sdk.TransactionBuilderAccount;
+import org.stellar.sdk.responses.Page;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Abstract class for request builders.
  */
 public abstract class RequestBuilder {
 
+    private static final int STREAM_PAGE_SIZE = 200;
+
     protected OkHttpClient httpClient;
     protected HttpUrl.Builder urlBuilder;
     private ArrayList<String> segments;
     private boolean segmentsAdded;
+    private Executor executor = MoreExecutors.directExecutor();
+    private long timeoutMillis;
+    private RequestCoalescer coalescer;
+    private ResponseCache responseCache;
 
     RequestBuilder(OkHttpClient httpClient, URI serverURI, String defaultSegment) {
         this.httpClient = httpClient;
@@ -77,6 +112,361 @@ public abstract class RequestBuilder {
         return this;
     }
 
+    /**
+     * Sets executor used to complete futures returned by <code>executeAsync()</code> methods.
+     * Listeners added with {@link MoreExecutors#directExecutor()} run on this executor.
+     * By default futures are completed on OkHttp dispatcher threads.
+     *
+     * @param executor executor to complete futures on
+     */
+    public RequestBuilder executor(Executor executor) {
+        this.executor = checkNotNull(executor, "executor cannot be null");
+        return this;
+    }
+
+    /**
+     * Sets connect, read and write timeout of this request. By default timeouts of the <code>OkHttpClient</code>
+     * are used.
+     *
+     * @param timeout timeout value
+     * @param unit    timeout unit
+     */
+    public RequestBuilder timeout(long timeout, TimeUnit unit) {
+        checkArgument(timeout > 0, "timeout must be positive");
+        this.timeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * Sets {@link RequestCoalescer} sharing this request with identical requests sent at the same time.
+     * Builders created by {@link org.stellar.sdk.Server} use the coalescer of the server.
+     *
+     * @param coalescer request coalescer or <code>null</code> to always send a new request
+     */
+    public RequestBuilder coalescer(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+        return this;
+    }
+
+    /**
+     * Sets {@link ResponseCache} used to cache responses of this request.
+     * Builders created by {@link org.stellar.sdk.Server} use the cache of the server.
+     *
+     * @param responseCache response cache or <code>null</code> to disable caching
+     */
+    public RequestBuilder responseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+        return this;
+    }
+
+    /**
+     * Requests specific <code>uri</code> and blocks until the response is parsed.
+     *
+     * @param uri  URI to request
+     * @param type type of the response
+     * @throws TooManyRequestsException when too many requests were sent to the Horizon server.
+     * @throws IOException
+     */
+    <T> T execute(final URI uri, final Type type) throws IOException, TooManyRequestsException {
+        if (coalescer == null) {
+            return this.send(uri, type);
+        }
+        if (!isShareable(type)) {
+            // Only the body is shared, every caller gets its own parsed response
+            BufferedResponse shared = await(coalescer.coalesce(uri, BufferedResponse.class,
+                    new RequestCoalescer.Loader<BufferedResponse>() {
+                        @Override
+                        public ListenableFuture<BufferedResponse> load() {
+                            try {
+                                Request request = new Request.Builder().url(uri.toString()).build();
+                                return Futures.immediateFuture(new BufferedResponse(client().newCall(request).execute()));
+                            } catch (Exception e) {
+                                return Futures.immediateFailedFuture(e);
+                            }
+                        }
+                    }));
+            return shared.parse(type);
+        }
+        return await(coalescer.coalesce(uri, type, new RequestCoalescer.Loader<T>() {
+            @Override
+            public ListenableFuture<T> load() {
+                try {
+                    return Futures.immediateFuture(RequestBuilder.this.<T>send(uri, type));
+                } catch (Exception e) {
+                    return Futures.immediateFailedFuture(e);
+                }
+            }
+        }));
+    }
+
+    private static <T> T await(ListenableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for coalesced request");
+        } catch (CancellationException e) {
+            throw new IOException("Request cancelled", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private <T> T send(URI uri, Type type) throws IOException {
+        Request.Builder request = new Request.Builder().url(uri.toString());
+        if (responseCache == null || !isShareable(type)) {
+            return new ResponseHandler<T>(type).handleResponse(client().newCall(request.build()).execute());
+        }
+        ResponseCache.Entry cached = responseCache.lookup(uri, type);
+        if (cached != null && responseCache.isFresh(uri, cached)) {
+            return responseCache.value(uri, type, cached);
+        }
+        responseCache.prepareRequest(request, cached);
+        return responseCache.handleResponse(uri, type, cached, client().newCall(request.build()).execute());
+    }
+
+    /**
+     * Returns <code>false</code> for responses modified by their users, which cannot be shared between callers, also
+     * when they are records of a page. {@link org.stellar.sdk.Transaction.Builder} increments the sequence number of
+     * accounts.
+     */
+    private static boolean isShareable(Type type) {
+        if (TransactionBuilderAccount.class.isAssignableFrom(TypeToken.get(type).getRawType())) {
+            return false;
+        }
+        if (type instanceof ParameterizedType) {
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                if (!isShareable(argument)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private OkHttpClient client() {
+        if (timeoutMillis <= 0) {
+            return httpClient;
+        }
+        // Shares connection pool and dispatcher with httpClient
+        return httpClient.newBuilder()
+                .connectTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .writeTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Requests specific <code>uri</code> using OkHttp <code>enqueue()</code> so no thread is blocked while waiting
+     * for the response. Cancelling the returned future cancels the HTTP call.
+     *
+     * @param uri  URI to request
+     * @param type type of the response
+     * @return future completed with the parsed response or an exception on the executor set by {@link #executor(Executor)}
+     */
+    <T> ListenableFuture<T> executeAsync(final URI uri, final Type type) {
+        if (coalescer == null) {
+            return this.sendAsync(uri, type, executor);
+        }
+        if (!isShareable(type)) {
+            ListenableFuture<BufferedResponse> shared = coalescer.coalesce(uri, BufferedResponse.class,
+                    new RequestCoalescer.Loader<BufferedResponse>() {
+                        @Override
+                        public ListenableFuture<BufferedResponse> load() {
+                            return RequestBuilder.this.sendBufferedAsync(uri);
+                        }
+                    });
+            // Only the body is shared, every caller gets its own parsed response
+            return Futures.transformAsync(Futures.nonCancellationPropagating(shared),
+                    new AsyncFunction<BufferedResponse, T>() {
+                        @Override
+                        public ListenableFuture<T> apply(BufferedResponse response) throws Exception {
+                            return Futures.immediateFuture(response.<T>parse(type));
+                        }
+                    }, executor);
+        }
+        ListenableFuture<T> shared = coalescer.coalesce(uri, type, new RequestCoalescer.Loader<T>() {
+            @Override
+            public ListenableFuture<T> load() {
+                return RequestBuilder.this.sendAsync(uri, type, MoreExecutors.directExecutor());
+            }
+        });
+        // Cancelling the future of one caller must not cancel the request of others
+        return Futures.transform(Futures.nonCancellationPropagating(shared), Functions.<T>identity(), executor);
+    }
+
+    private <T> ListenableFuture<T> sendAsync(final URI uri, final Type type, final Executor executor) {
+        final SettableFuture<T> future = SettableFuture.create();
+        final ResponseCache responseCache = isShareable(type) ? this.responseCache : null;
+        final ResponseCache.Entry cached = responseCache != null ? responseCache.lookup(uri, type) : null;
+        if (cached != null && responseCache.isFresh(uri, cached)) {
+            final T result = responseCache.value(uri, type, cached);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    future.set(result);
+                }
+            });
+            return future;
+        }
+        Request.Builder request = new Request.Builder().url(uri.toString());
+        if (responseCache != null) {
+            responseCache.prepareRequest(request, cached);
+        }
+        final Call call = client().newCall(request.build());
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, final IOException e) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        future.setException(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    final T result = responseCache != null
+                            ? responseCache.<T>handleResponse(uri, type, cached, response)
+                            : new ResponseHandler<T>(type).handleResponse(response);
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            future.set(result);
+                        }
+                    });
+                } catch (final Exception e) {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            future.setException(e);
+                        }
+                    });
+                }
+            }
+        });
+        cancelOnCancel(call, future);
+        return future;
+    }
+
+    private ListenableFuture<BufferedResponse> sendBufferedAsync(URI uri) {
+        final SettableFuture<BufferedResponse> future = SettableFuture.create();
+        Call call = client().newCall(new Request.Builder().url(uri.toString()).build());
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.setException(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    future.set(new BufferedResponse(response));
+                } catch (IOException e) {
+                    future.setException(e);
+                }
+            }
+        });
+        cancelOnCancel(call, future);
+        return future;
+    }
+
+    private static void cancelOnCancel(final Call call, final ListenableFuture<?> future) {
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (future.isCancelled()) {
+                    call.cancel();
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Response with its body read into memory, shared by coalesced requests of responses which cannot be shared.
+     */
+    private static class BufferedResponse {
+        // Response without body
+        private final Response response;
+        private final MediaType contentType;
+        private final byte[] body;
+
+        BufferedResponse(Response response) throws IOException {
+            try {
+                ResponseBody body = response.body();
+                this.contentType = body.contentType();
+                this.body = body.bytes();
+                this.response = response.newBuilder().body(null).build();
+            } finally {
+                response.close();
+            }
+        }
+
+        <T> T parse(Type type) throws IOException {
+            return new ResponseHandler<T>(type).handleResponse(
+                    response.newBuilder().body(ResponseBody.create(contentType, body)).build());
+        }
+    }
+
+    /**
+     * Returns pages of stream <code>streamUri</code>, fetching pages of <code>pageType</code> with this builder. Used
+     * for backfill and polling.
+     */
+    <T> SSEStream.Pages<T> pages(final URI streamUri, final Type pageType, final PagingTokens<T> pagingTokens,
+                                 final boolean hasEveryLedger) {
+        return new SSEStream.Pages<T>() {
+            @Override
+            public List<T> fetch(String cursor) throws IOException {
+                HttpUrl.Builder url = HttpUrl.get(streamUri).newBuilder()
+                        .removeAllQueryParameters("cursor")
+                        .setQueryParameter("order", Order.ASC.getValue())
+                        .setQueryParameter("limit", Integer.toString(STREAM_PAGE_SIZE));
+                if (cursor != null) {
+                    url.setQueryParameter("cursor", cursor);
+                }
+                Page<T> page = execute(url.build().uri(), pageType);
+                return page.getRecords();
+            }
+
+            @Override
+            public T latest() throws IOException {
+                URI uri = HttpUrl.get(streamUri).newBuilder()
+                        .removeAllQueryParameters("cursor")
+                        .setQueryParameter("order", Order.DESC.getValue())
+                        .setQueryParameter("limit", "1")
+                        .build()
+                        .uri();
+                Page<T> page = execute(uri, pageType);
+                return page.getRecords().isEmpty() ? null : page.getRecords().get(0);
+            }
+
+            @Override
+            public int pageSize() {
+                return STREAM_PAGE_SIZE;
+            }
+
+            @Override
+            public String pagingToken(T event) {
+                return pagingTokens.pagingToken(event);
+            }
+
+            @Override
+            public boolean hasEveryLedger() {
+                return hasEveryLedger;
+            }
+        };
+    }
+
     URI buildUri() {
         if (segments.size() > 0) {
             for (String segment : segments) {
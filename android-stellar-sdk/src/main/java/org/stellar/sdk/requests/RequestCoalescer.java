@@ -0,0 +1,145 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Coalesces identical GET requests sent at the same time.
+ * <p>
+ * While a request for a URI is in flight, other requests for the same URI do not send a new HTTP request but wait
+ * for the pending one and receive the same parsed response object. Responses can additionally be reused for
+ * <code>reuseWindow</code> after they were received. Failed requests are never reused.
+ * <p>
+ * Responses are shared between callers, so they must not be modified. Accounts are the exception: only the HTTP
+ * call and the response body are shared, and every caller receives its own parsed account, because
+ * {@link org.stellar.sdk.Transaction.Builder} increments their sequence number. Coalescing is disabled by default.
+ * <pre>
+ * // Reuse responses for 500 milliseconds
+ * server.setRequestCoalescer(new RequestCoalescer(500, TimeUnit.MILLISECONDS));
+ * </pre>
+ */
+public class RequestCoalescer {
+
+    /**
+     * Sends a request.
+     */
+    interface Loader<T> {
+        ListenableFuture<T> load();
+    }
+
+    private static final int MIN_SWEEP_SIZE = 64;
+
+    private final long mReuseWindowNanos;
+    private final Object mLock = new Object();
+    private final Map<String, Entry> mEntries = new HashMap<String, Entry>();
+    // Expired entries are removed when the map reaches this size
+    private int mSweepSize = MIN_SWEEP_SIZE;
+
+    private static class Entry {
+        final SettableFuture<Object> future = SettableFuture.create();
+        boolean completed;
+        // When the response was received
+        long completedAt;
+    }
+
+    /**
+     * Creates coalescer sharing only requests in flight.
+     */
+    public RequestCoalescer() {
+        this(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param reuseWindow how long a received response is reused, 0 to share only requests in flight
+     * @param unit        unit of <code>reuseWindow</code>
+     */
+    public RequestCoalescer(long reuseWindow, TimeUnit unit) {
+        checkArgument(reuseWindow >= 0, "reuseWindow cannot be negative");
+        checkNotNull(unit, "unit cannot be null");
+        mReuseWindowNanos = unit.toNanos(reuseWindow);
+    }
+
+    /**
+     * Returns future of a pending or reusable request for <code>uri</code> and <code>type</code> or sends a new one
+     * using <code>loader</code>. Cancelling the returned future cancels the request for all callers.
+     */
+    @SuppressWarnings("unchecked")
+    <T> ListenableFuture<T> coalesce(URI uri, Type type, Loader<T> loader) {
+        final String key = uri.toString() + '\n' + type;
+        final Entry entry;
+        synchronized (mLock) {
+            Entry existing = mEntries.get(key);
+            if (existing != null && (!existing.completed || System.nanoTime() - existing.completedAt < mReuseWindowNanos)) {
+                return (ListenableFuture<T>) existing.future;
+            }
+            entry = new Entry();
+            mEntries.put(key, entry);
+            if (mEntries.size() >= mSweepSize) {
+                sweep();
+            }
+        }
+
+        entry.future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                onCompleted(key, entry);
+            }
+        }, MoreExecutors.directExecutor());
+        ListenableFuture<T> loaded;
+        try {
+            loaded = loader.load();
+        } catch (RuntimeException e) {
+            entry.future.setException(e);
+            throw e;
+        }
+        entry.future.setFuture(loaded);
+        return (ListenableFuture<T>) entry.future;
+    }
+
+    private void onCompleted(String key, Entry entry) {
+        boolean failed = false;
+        try {
+            entry.future.get();
+        } catch (ExecutionException e) {
+            failed = true;
+        } catch (CancellationException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            // Cannot happen, the future is done
+            Thread.currentThread().interrupt();
+        }
+        synchronized (mLock) {
+            entry.completed = true;
+            entry.completedAt = System.nanoTime();
+            if ((failed || mReuseWindowNanos == 0) && mEntries.get(key) == entry) {
+                mEntries.remove(key);
+            }
+        }
+    }
+
+    // Called with mLock held
+    private void sweep() {
+        long now = System.nanoTime();
+        Iterator<Entry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.completed && now - entry.completedAt >= mReuseWindowNanos) {
+                iterator.remove();
+            }
+        }
+        mSweepSize = Math.max(MIN_SWEEP_SIZE, mEntries.size() * 2);
+    }
+}
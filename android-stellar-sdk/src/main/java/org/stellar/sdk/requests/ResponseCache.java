@@ -0,0 +1,380 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.hash.Hashing;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import okhttp3.Headers;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Two-tier cache of Horizon responses: an in-memory LRU cache of parsed responses and an optional disk cache of
+ * response bodies.
+ * <p>
+ * Resources that never change once written are cached without expiration. These are single ledgers, transactions
+ * and operations and records belonging to them, e.g. <code>/ledgers/{sequence}/transactions</code>. Other
+ * resources, like accounts, offers or order books, are fresh for <code>mutableTtl</code> (0 by default). When
+ * a stale response has an <code>ETag</code>, it is revalidated with <code>If-None-Match</code> and reused when
+ * Horizon responds with 304 status code.
+ * <p>
+ * Only 200 responses are cached. Responses of mutable resources are not stored when they have no
+ * <code>ETag</code> and <code>mutableTtl</code> is 0, as they could never be reused. Parsed responses are shared between callers, so they must not be modified.
+ * Accounts, also records of pages, are never cached because {@link org.stellar.sdk.Transaction.Builder} increments their sequence number.
+ * The disk cache is read on the thread sending the request.
+ * <pre>
+ * server.setResponseCache(new ResponseCache(1000, new File(context.getCacheDir(), "horizon"), 10 * 1024 * 1024));
+ * </pre>
+ */
+public class ResponseCache {
+
+    private static final Pattern IMMUTABLE_PATH = Pattern.compile(
+            "/(ledgers/\\d+(/(transactions|operations|payments|effects))?"
+                    + "|transactions/[0-9a-f]{64}(/(operations|payments|effects))?"
+                    + "|operations/\\d+(/effects)?)/?$");
+
+    private final int mMaxEntries;
+    private final File mDirectory;
+    private final long mMaxDiskBytes;
+    private volatile long mMutableTtlMillis;
+    private final Map<String, Entry> mMemory;
+    private final Object mDiskLock = new Object();
+    // Size of files in mDirectory, -1 until the directory is scanned
+    private long mDiskBytes = -1;
+
+    /**
+     * Cached response.
+     */
+    static class Entry {
+        final String etag;
+        final long storedAt;
+        // Parsed response or null when only the body was read from disk
+        final Object value;
+        final String body;
+
+        Entry(String etag, long storedAt, Object value, String body) {
+            this.etag = etag;
+            this.storedAt = storedAt;
+            this.value = value;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Creates cache keeping parsed responses in memory only.
+     *
+     * @param maxEntries maximum number of parsed responses kept in memory
+     */
+    public ResponseCache(int maxEntries) {
+        this(maxEntries, null, 0);
+    }
+
+    /**
+     * Creates cache keeping parsed responses in memory and response bodies in <code>directory</code>.
+     *
+     * @param maxEntries   maximum number of parsed responses kept in memory
+     * @param directory    directory of the disk cache, used only by this cache
+     * @param maxDiskBytes maximum size of the disk cache
+     */
+    public ResponseCache(int maxEntries, File directory, long maxDiskBytes) {
+        checkArgument(maxEntries > 0, "maxEntries must be positive");
+        checkArgument(directory == null || maxDiskBytes > 0, "maxDiskBytes must be positive");
+        mMaxEntries = maxEntries;
+        mDirectory = directory;
+        mMaxDiskBytes = maxDiskBytes;
+        mMemory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > mMaxEntries;
+            }
+        };
+    }
+
+    /**
+     * Sets how long responses of mutable resources are used without revalidation. By default they are always
+     * revalidated.
+     *
+     * @param ttl  time to live of mutable responses
+     * @param unit unit of <code>ttl</code>
+     */
+    public ResponseCache mutableTtl(long ttl, TimeUnit unit) {
+        checkArgument(ttl >= 0, "ttl cannot be negative");
+        checkNotNull(unit, "unit cannot be null");
+        mMutableTtlMillis = unit.toMillis(ttl);
+        return this;
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void clear() {
+        synchronized (mMemory) {
+            mMemory.clear();
+        }
+        if (mDirectory != null) {
+            synchronized (mDiskLock) {
+                File[] files = mDirectory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                mDiskBytes = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> when resource at <code>uri</code> never changes once written.
+     */
+    static boolean isImmutable(URI uri) {
+        return uri.getRawPath() != null && IMMUTABLE_PATH.matcher(uri.getRawPath()).find();
+    }
+
+    /**
+     * Returns cached response for <code>uri</code>, from memory or disk, or <code>null</code>.
+     */
+    Entry lookup(URI uri, Type type) {
+        Entry entry;
+        synchronized (mMemory) {
+            entry = mMemory.get(key(uri, type));
+        }
+        if (entry == null) {
+            entry = readFromDisk(uri);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns <code>true</code> when <code>entry</code> can be used without sending a request.
+     */
+    boolean isFresh(URI uri, Entry entry) {
+        return isImmutable(uri) || System.currentTimeMillis() - entry.storedAt < mMutableTtlMillis;
+    }
+
+    /**
+     * Returns parsed response of <code>entry</code>, parsing and keeping it in memory when it was read from disk.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T value(URI uri, Type type, Entry entry) {
+        if (entry.value != null) {
+            return (T) entry.value;
+        }
+        T value = new ResponseHandler<T>(type).parse(entry.body, null);
+        putInMemory(uri, type, new Entry(entry.etag, entry.storedAt, value, null));
+        return value;
+    }
+
+    /**
+     * Adds <code>If-None-Match</code> header when <code>cached</code> response can be revalidated.
+     */
+    void prepareRequest(Request.Builder request, Entry cached) {
+        if (cached != null && cached.etag != null) {
+            request.header("If-None-Match", cached.etag);
+        }
+    }
+
+    /**
+     * Handles response of a request prepared by {@link #prepareRequest(Request.Builder, Entry)}, caching or
+     * reusing the response, and closes it.
+     *
+     * @param cached cached response used to prepare the request or <code>null</code>
+     */
+    <T> T handleResponse(URI uri, Type type, Entry cached, Response response) throws IOException {
+        int code = response.code();
+        if (code == 304 && cached != null) {
+            response.close();
+            T value = value(uri, type, cached);
+            Entry revalidated = new Entry(cached.etag, System.currentTimeMillis(), value, null);
+            putInMemory(uri, type, revalidated);
+            if (mDirectory != null) {
+                String body = cached.body;
+                if (body == null) {
+                    Entry onDisk = readFromDisk(uri);
+                    body = onDisk != null ? onDisk.body : null;
+                }
+                if (body != null) {
+                    writeToDisk(uri, revalidated.etag, revalidated.storedAt, body);
+                }
+            }
+            return value;
+        }
+        if (code != 200) {
+            return new ResponseHandler<T>(type).handleResponse(response);
+        }
+        String etag = response.header("ETag");
+        if (!isCacheable(uri, etag)) {
+            return new ResponseHandler<T>(type).handleResponse(response);
+        }
+        if (mDirectory == null) {
+            T value = new ResponseHandler<T>(type).handleResponse(response);
+            putInMemory(uri, type, new Entry(etag, System.currentTimeMillis(), value, null));
+            return value;
+        }
+        // Body is needed for the disk cache
+        String body;
+        try {
+            body = response.body().string();
+        } finally {
+            response.close();
+        }
+        return store(uri, type, etag, body, response.headers());
+    }
+
+    /**
+     * Parses <code>body</code> of a 200 response and caches it.
+     */
+    <T> T store(URI uri, Type type, String etag, String body, Headers headers) {
+        T value = new ResponseHandler<T>(type).parse(body, headers);
+        if (!isCacheable(uri, etag)) {
+            return value;
+        }
+        long now = System.currentTimeMillis();
+        putInMemory(uri, type, new Entry(etag, now, value, null));
+        if (mDirectory != null) {
+            writeToDisk(uri, etag, now, body);
+        }
+        return value;
+    }
+
+    // Responses which are neither fresh for some time nor can be revalidated are never reused
+    private boolean isCacheable(URI uri, String etag) {
+        return isImmutable(uri) || mMutableTtlMillis > 0 || etag != null;
+    }
+
+    private void putInMemory(URI uri, Type type, Entry entry) {
+        synchronized (mMemory) {
+            mMemory.put(key(uri, type), entry);
+        }
+    }
+
+    private static String key(URI uri, Type type) {
+        return uri.toString() + '\n' + type;
+    }
+
+    private File file(URI uri) {
+        return new File(mDirectory, Hashing.sha256().hashString(uri.toString(), StandardCharsets.UTF_8).toString());
+    }
+
+    private Entry readFromDisk(URI uri) {
+        if (mDirectory == null) {
+            return null;
+        }
+        File file = file(uri);
+        if (!file.isFile()) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            // Guards against hash collisions
+            if (!in.readUTF().equals(uri.toString())) {
+                return null;
+            }
+            String etag = in.readUTF();
+            long storedAt = in.readLong();
+            String body = IOUtils.toString(in, StandardCharsets.UTF_8);
+            file.setLastModified(System.currentTimeMillis());
+            return new Entry(etag.isEmpty() ? null : etag, storedAt, null, body);
+        } catch (IOException e) {
+            // Corrupted or concurrently replaced file, treated as a miss
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private void writeToDisk(URI uri, String etag, long storedAt, String body) {
+        synchronized (mDiskLock) {
+            if (mDiskBytes < 0) {
+                mDirectory.mkdirs();
+                mDiskBytes = 0;
+                File[] files = mDirectory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        mDiskBytes += file.length();
+                    }
+                }
+            }
+            File file = file(uri);
+            File temp = new File(mDirectory, file.getName() + ".tmp");
+            long previousSize = file.length();
+            DataOutputStream out = null;
+            try {
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+                out.writeUTF(uri.toString());
+                out.writeUTF(etag != null ? etag : "");
+                out.writeLong(storedAt);
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+                out.close();
+                out = null;
+                if (!temp.renameTo(file)) {
+                    file.delete();
+                    if (!temp.renameTo(file)) {
+                        temp.delete();
+                        return;
+                    }
+                }
+                mDiskBytes += file.length() - previousSize;
+            } catch (IOException e) {
+                // Disk cache is best effort
+                temp.delete();
+                return;
+            } finally {
+                IOUtils.closeQuietly(out);
+            }
+            if (mDiskBytes > mMaxDiskBytes) {
+                trimDisk();
+            }
+        }
+    }
+
+    // Called with mDiskLock held. Removes least recently used files until the cache is below 90% of its size.
+    private void trimDisk() {
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final long[] lastModified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            lastModified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.valueOf(lastModified[a]).compareTo(lastModified[b]);
+            }
+        });
+        long target = mMaxDiskBytes * 9 / 10;
+        for (int i = 0; i < order.length && mDiskBytes > target; i++) {
+            File file = files[order[i]];
+            long length = file.length();
+            if (file.delete()) {
+                mDiskBytes -= length;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.stellar.sdk.requests;
+
+import com.google.gson.JsonIOException;
+
+import org.stellar.sdk.responses.GsonSingleton;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+
+import okhttp3.Headers;
+import okhttp3.Response;
+
+/**
+ * Parses Horizon responses.
+ *
+ * @param <T> type of the response
+ */
+public class ResponseHandler<T> {
+
+    private final Type type;
+
+    /**
+     * @param type type of the response
+     */
+    public ResponseHandler(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Parses <code>response</code> body and closes it.
+     *
+     * @throws TooManyRequestsException when the response has 429 status code.
+     * @throws IOException
+     */
+    public T handleResponse(Response response) throws IOException, TooManyRequestsException {
+        try {
+            if (response.code() == 429) {
+                int retryAfter = RateLimitInterceptor.parseHeader(response.headers(), "Retry-After");
+                throw new TooManyRequestsException(Math.max(retryAfter, 0));
+            }
+            // Parsed while reading, without buffering the whole body
+            return parse(response.body().charStream(), response.headers());
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Parses response <code>body</code>.
+     *
+     * @param headers headers of the response or <code>null</code> when the body was read from a cache
+     */
+    T parse(String body, Headers headers) {
+        return setHeaders(GsonSingleton.getInstance().<T>fromJson(body, type), headers);
+    }
+
+    private T parse(Reader body, Headers headers) throws IOException {
+        try {
+            return setHeaders(GsonSingleton.getInstance().<T>fromJson(body, type), headers);
+        } catch (JsonIOException e) {
+            // Connection failed while reading the body
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private T setHeaders(T object, Headers headers) {
+        if (headers != null && object instanceof org.stellar.sdk.responses.Response) {
+            ((org.stellar.sdk.responses.Response) object).setHeaders(headers);
+        }
+        return object;
+    }
+}
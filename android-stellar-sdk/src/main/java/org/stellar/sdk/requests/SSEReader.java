@@ -0,0 +1,298 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Server-Sent Events connection used by {@link SSEStream}.
+ * <p>
+ * Events are parsed from the bytes of the response body into reused buffers, only the data of an event and a
+ * changed event ID are converted to strings. The connection does not reconnect, {@link SSEStream} does.
+ * Connections are read on threads of a pool shared by all streams.
+ *
+ * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
+ */
+final class SSEReader implements Closeable, Runnable {
+
+    /**
+     * Receives events of a connection, called on the connection thread.
+     */
+    interface Handler {
+        void onOpen();
+
+        /**
+         * @param data event data
+         * @param id   ID of the event or the last ID received before it, can be <code>null</code>
+         */
+        void onEvent(String data, String id);
+
+        void onComment();
+
+        /**
+         * Called when the connection is lost or closed by the server, not after {@link SSEReader#close()}.
+         *
+         * @param error error or <code>null</code> when the server closed the stream
+         */
+        void onClosed(Throwable error);
+    }
+
+    // Horizon sends events or keep-alive comments more often
+    private static final long READ_TIMEOUT_MINUTES = 5;
+
+    private static ExecutorService sExecutor;
+
+    private final OkHttpClient mHttpClient;
+    private final URI mUri;
+    private final String mLastEventId;
+    private final Handler mHandler;
+    private volatile Call mCall;
+    private volatile boolean mClosed;
+
+    SSEReader(OkHttpClient httpClient, URI uri, String lastEventId, Handler handler) {
+        mHttpClient = httpClient;
+        mUri = uri;
+        mLastEventId = lastEventId;
+        mHandler = handler;
+    }
+
+    SSEReader start() {
+        executor().execute(this);
+        return this;
+    }
+
+    @Override
+    public void run() {
+        Request.Builder request = new Request.Builder()
+                .url(mUri.toString())
+                .header("Accept", "text/event-stream")
+                .header("Cache-Control", "no-cache");
+        if (mLastEventId != null) {
+            request.header("Last-Event-ID", mLastEventId);
+        }
+        OkHttpClient client = mHttpClient.newBuilder().readTimeout(READ_TIMEOUT_MINUTES, TimeUnit.MINUTES).build();
+        Response response = null;
+        try {
+            mCall = client.newCall(request.build());
+            if (mClosed) {
+                return;
+            }
+            response = mCall.execute();
+            if (!response.isSuccessful()) {
+                throw new IOException("Unexpected response code " + response.code());
+            }
+            ResponseBody body = response.body();
+            if (body == null) {
+                throw new IOException("Empty response");
+            }
+            if (mClosed) {
+                return;
+            }
+            mHandler.onOpen();
+            new Parser(mHandler).parse(body.byteStream());
+            if (!mClosed) {
+                mHandler.onClosed(null);
+            }
+        } catch (IOException e) {
+            if (!mClosed) {
+                mHandler.onClosed(e);
+            }
+        } catch (RuntimeException e) {
+            if (!mClosed) {
+                mHandler.onClosed(e);
+            }
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        mClosed = true;
+        Call call = mCall;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newCachedThreadPool(
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sse-stream-reader-%d").build());
+        }
+        return sExecutor;
+    }
+
+    /**
+     * Parses <code>text/event-stream</code> bytes. Fields other than <code>data</code> and <code>id</code> are
+     * ignored.
+     */
+    static final class Parser {
+        private static final byte[] DATA = {'d', 'a', 't', 'a'};
+        private static final byte[] ID = {'i', 'd'};
+
+        private final Handler mHandler;
+        private final byte[] mBuffer = new byte[8192];
+        private int mPosition;
+        private int mLimit;
+        // Current line without line terminator
+        private byte[] mLine = new byte[256];
+        private int mLineLength;
+        // Data of the current event, lines joined with '\n'
+        private byte[] mData = new byte[1024];
+        private int mDataLength;
+        private boolean mHasData;
+        private byte[] mId = new byte[64];
+        private int mIdLength = -1;
+        private String mIdString;
+        // Skip '\n' of "\r\n"
+        private boolean mSkipLineFeed;
+
+        Parser(Handler handler) {
+            mHandler = handler;
+        }
+
+        void parse(InputStream in) throws IOException {
+            while (readLine(in)) {
+                processLine();
+            }
+        }
+
+        // Reads the next line into mLine, returns false at the end of stream
+        private boolean readLine(InputStream in) throws IOException {
+            mLineLength = 0;
+            while (true) {
+                if (mPosition == mLimit) {
+                    mLimit = in.read(mBuffer, 0, mBuffer.length);
+                    mPosition = 0;
+                    if (mLimit <= 0) {
+                        mLimit = 0;
+                        // Incomplete last line is dropped, like the incomplete event
+                        return false;
+                    }
+                }
+                byte b = mBuffer[mPosition++];
+                if (mSkipLineFeed) {
+                    mSkipLineFeed = false;
+                    if (b == '\n') {
+                        continue;
+                    }
+                }
+                if (b == '\n') {
+                    return true;
+                }
+                if (b == '\r') {
+                    mSkipLineFeed = true;
+                    return true;
+                }
+                if (mLineLength == mLine.length) {
+                    mLine = grow(mLine, mLineLength + 1);
+                }
+                mLine[mLineLength++] = b;
+            }
+        }
+
+        private void processLine() {
+            if (mLineLength == 0) {
+                dispatch();
+                return;
+            }
+            if (mLine[0] == ':') {
+                mHandler.onComment();
+                return;
+            }
+            int colon = indexOf(mLine, mLineLength, (byte) ':');
+            int nameLength = colon == -1 ? mLineLength : colon;
+            int valueStart = colon == -1 ? mLineLength : colon + 1;
+            if (valueStart < mLineLength && mLine[valueStart] == ' ') {
+                valueStart++;
+            }
+            int valueLength = mLineLength - valueStart;
+            if (nameEquals(DATA, nameLength)) {
+                int required = mDataLength + valueLength + 1;
+                if (required > mData.length) {
+                    mData = grow(mData, required);
+                }
+                if (mHasData) {
+                    mData[mDataLength++] = '\n';
+                }
+                System.arraycopy(mLine, valueStart, mData, mDataLength, valueLength);
+                mDataLength += valueLength;
+                mHasData = true;
+            } else if (nameEquals(ID, nameLength)) {
+                setId(valueStart, valueLength);
+            }
+        }
+
+        private void dispatch() {
+            if (!mHasData) {
+                return;
+            }
+            String data = new String(mData, 0, mDataLength, StandardCharsets.UTF_8);
+            mDataLength = 0;
+            mHasData = false;
+            mHandler.onEvent(data, mIdString);
+        }
+
+        // The ID string is created only when the ID changes
+        private void setId(int start, int length) {
+            if (length == mIdLength) {
+                boolean same = true;
+                for (int i = 0; i < length && same; i++) {
+                    same = mId[i] == mLine[start + i];
+                }
+                if (same) {
+                    return;
+                }
+            }
+            if (length > mId.length) {
+                mId = new byte[length];
+            }
+            System.arraycopy(mLine, start, mId, 0, length);
+            mIdLength = length;
+            mIdString = length == 0 ? null : new String(mId, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private boolean nameEquals(byte[] name, int length) {
+            if (length != name.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (mLine[i] != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int indexOf(byte[] bytes, int length, byte b) {
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static byte[] grow(byte[] bytes, int required) {
+            byte[] grown = new byte[Math.max(required, bytes.length * 2)];
+            System.arraycopy(bytes, 0, grown, 0, bytes.length);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,937 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.stellar.sdk.responses.GsonSingleton;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Stream of events received with Server-Sent Events or polling, which reconnects when the connection is lost.
+ * <p>
+ * The stream remembers the <code>paging_token</code> of the last event delivered to the {@link EventListener}
+ * and reconnects from it, sending it as <code>cursor</code> parameter and <code>Last-Event-ID</code> header, so no
+ * events are lost or repeated across reconnects. Reconnects are delayed with exponential backoff with jitter.
+ * <p>
+ * By default events are decoded and delivered on the connection thread, one at a time. When a decode executor is
+ * set in {@link Options}, events are decoded on the executor and delivered on its threads in the order they were
+ * received, one at a time, so a slow listener does not stall the connection until the queue of
+ * {@link Options#queueCapacity(int)} events is full. Connection state changes are reported to {@link StateListener}.
+ * <p>
+ * With {@link Options#backfillGaps(boolean)} the stream fetches events missed while disconnected with paged
+ * requests before it continues live, and drops events which were already delivered, so every event is delivered
+ * exactly once and in order. Missing ledgers in a stream of ledgers are backfilled the same way.
+ * <p>
+ * When Server-Sent Events connections are closed before any message arrives, e.g. by a proxy which does not allow
+ * long-lived connections, the stream falls back to polling the same resource with paged requests, see
+ * {@link Transport}. Polled events are delivered to the listener the same way, on the polling thread, and the
+ * stream resumes from the same <code>paging_token</code>.
+ * <p>
+ * A Server-Sent Events connection which receives no message, including keep-alive comments, for
+ * {@link Options#idleTimeout(long, TimeUnit)}, e.g. a half-open TCP connection, is stalled. A stream of ledgers is
+ * also stalled when no ledger arrives for 6 ledger close intervals. A stalled connection is closed and the stream
+ * reconnects from the last delivered event, stalls are counted by {@link #getStalls()}.
+ * <p>
+ * When the listener throws an exception, the stream reconnects and delivers the event again.
+ *
+ * @param <T> type of events
+ * @see <a href="http://www.w3.org/TR/eventsource/" target="_blank">Server-Sent Events</a>
+ */
+public class SSEStream<T> implements Closeable {
+
+    /**
+     * State of the stream connection.
+     */
+    public enum State {
+        CONNECTING,
+        OPEN,
+        RECONNECTING,
+        CLOSED
+    }
+
+    /**
+     * Receives state changes of a stream.
+     */
+    public interface StateListener {
+        /**
+         * @param state new state
+         * @param error error that caused reconnect or <code>null</code>
+         */
+        void onStateChanged(State state, Throwable error);
+    }
+
+    /**
+     * What happens when an event is received while the decode queue is full.
+     */
+    public enum Overflow {
+        /**
+         * Stop reading from the connection until there is space in the queue.
+         */
+        BLOCK,
+        /**
+         * Drop the oldest event which was not delivered yet.
+         */
+        DROP_OLDEST,
+        /**
+         * Drop queued events and reconnect from the last delivered event.
+         */
+        RECONNECT
+    }
+
+    /**
+     * How the stream receives events.
+     */
+    public enum Transport {
+        /**
+         * Server-Sent Events connection.
+         */
+        SSE,
+        /**
+         * Paged requests following the last event. The interval between requests adapts to the ledger close
+         * interval and grows while there are no new events.
+         */
+        POLLING,
+        /**
+         * Server-Sent Events, falling back to polling when several connections in a row are closed before any
+         * message arrives. Server-Sent Events are tried again after 10 minutes of polling.
+         */
+        AUTO
+    }
+
+    /**
+     * Fetches events following a cursor with paged requests, used for backfill and polling.
+     */
+    interface Pages<T> {
+        /**
+         * Returns events following <code>cursor</code> in ascending order, empty list when there are no more events.
+         *
+         * @param cursor paging token, <code>null</code> for the first event
+         */
+        List<T> fetch(String cursor) throws IOException;
+
+        /**
+         * Returns the latest event or <code>null</code> when there is none.
+         */
+        T latest() throws IOException;
+
+        /**
+         * Returns maximum number of events returned by {@link #fetch(String)}.
+         */
+        int pageSize();
+
+        String pagingToken(T event);
+
+        /**
+         * Returns <code>true</code> when the stream contains an event for every ledger, so a missing ledger is a gap.
+         */
+        boolean hasEveryLedger();
+    }
+
+    /**
+     * Stream options.
+     */
+    public static class Options {
+        private static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+        private StateListener stateListener;
+        private Executor decodeExecutor;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private Overflow overflow = Overflow.BLOCK;
+        private boolean backfillGaps;
+        private Transport transport = Transport.AUTO;
+        private long maxPollIntervalMillis = DEFAULT_MAX_POLL_INTERVAL_MILLIS;
+        private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+
+        /**
+         * Sets listener notified about connection state changes.
+         */
+        public Options stateListener(StateListener stateListener) {
+            this.stateListener = stateListener;
+            return this;
+        }
+
+        /**
+         * Sets executor decoding and delivering events. Events are decoded on the connection thread by default.
+         */
+        public Options decodeExecutor(Executor decodeExecutor) {
+            this.decodeExecutor = decodeExecutor;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of events waiting for decoding or delivery, 256 by default.
+         */
+        public Options queueCapacity(int queueCapacity) {
+            checkArgument(queueCapacity > 0, "queueCapacity must be positive");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets what happens when the queue is full, {@link Overflow#BLOCK} by default.
+         */
+        public Options overflow(Overflow overflow) {
+            this.overflow = checkNotNull(overflow, "overflow cannot be null");
+            return this;
+        }
+
+        /**
+         * When enabled, events missed while disconnected or after the cursor of the request are fetched with paged
+         * requests before the stream continues live, and events which were already delivered are dropped.
+         * Disabled by default. Not supported by streams of a single resource.
+         */
+        public Options backfillGaps(boolean backfillGaps) {
+            this.backfillGaps = backfillGaps;
+            return this;
+        }
+
+        /**
+         * Sets how the stream receives events, {@link Transport#AUTO} by default. Streams of a single resource
+         * support only Server-Sent Events, {@link Transport#AUTO} does not fall back to polling for them.
+         */
+        public Options transport(Transport transport) {
+            this.transport = checkNotNull(transport, "transport cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets maximum interval between polls while there are no new events, 1 minute by default.
+         */
+        public Options maxPollInterval(long maxPollInterval, TimeUnit unit) {
+            checkArgument(maxPollInterval > 0, "maxPollInterval must be positive");
+            this.maxPollIntervalMillis = unit.toMillis(maxPollInterval);
+            return this;
+        }
+
+        /**
+         * Sets how long a Server-Sent Events connection can go without any message before it is recycled,
+         * 1 minute by default, 0 disables stall detection. Horizon sends keep-alive comments much more often.
+         */
+        public Options idleTimeout(long idleTimeout, TimeUnit unit) {
+            checkArgument(idleTimeout >= 0, "idleTimeout cannot be negative");
+            this.idleTimeoutMillis = unit.toMillis(idleTimeout);
+            return this;
+        }
+    }
+
+    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 1000;
+    private static final long DEFAULT_MAX_BACKOFF_MILLIS = 60000;
+    private static final long DEFAULT_MAX_POLL_INTERVAL_MILLIS = 60000;
+    // Connections opened and closed in a row before any message arrived, after which AUTO transport falls back to
+    // polling. Connections which failed to open, e.g. during an outage of Horizon, are not counted.
+    private static final int FALLBACK_SILENT_CONNECTIONS = 3;
+    private static final long SSE_RETRY_MILLIS = 10 * 60 * 1000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60000;
+    // Ledger close intervals without a ledger after which a stream of ledgers is stalled
+    private static final int STALL_LEDGER_CLOSES = 6;
+
+    private static ScheduledExecutorService sScheduler;
+    private static ExecutorService sBackfillExecutor;
+
+    private final OkHttpClient mHttpClient;
+    private final URI mUri;
+    private final Type mType;
+    private final EventListener<T> mListener;
+    private final StateListener mStateListener;
+    private final DecodingPipeline<T> mPipeline;
+    // Pages of the stream, null for streams of a single resource
+    private final Pages<T> mPages;
+    // Pages used for backfill, null when backfill is disabled
+    private final Pages<T> mBackfill;
+    private final Transport mTransport;
+    private final PollInterval mPollInterval;
+    private final long mIdleTimeoutMillis;
+    private final long mInitialBackoffMillis;
+    private final long mMaxBackoffMillis;
+    private final Object mLock = new Object();
+    private State mState = State.CONNECTING;
+    private Closeable mConnection;
+    // Incremented for every connection, events of previous connections are ignored
+    private int mGeneration;
+    private int mAttempts;
+    private boolean mPolling;
+    private int mSilentConnections;
+    private String mLastPagingToken;
+    private long mLastMessageAt;
+    private long mLastEventAt;
+    // When the current connection was opened, and whether its handler is delivering an event
+    private long mConnectedAt;
+    private boolean mHandlerBusy;
+    private ScheduledFuture<?> mWatchdog;
+    private long mStalls;
+    private long mBackfilledEvents;
+    private long mDuplicateEvents;
+
+    SSEStream(OkHttpClient httpClient, URI uri, Type type, EventListener<T> listener, StateListener stateListener) {
+        this(httpClient, uri, type, listener, new Options().stateListener(stateListener));
+    }
+
+    SSEStream(OkHttpClient httpClient, URI uri, Type type, EventListener<T> listener, Options options) {
+        this(httpClient, uri, type, listener, options, null);
+    }
+
+    SSEStream(OkHttpClient httpClient, URI uri, Type type, EventListener<T> listener, Options options,
+              Pages<T> pages) {
+        this(httpClient, uri, type, listener, options, pages, DEFAULT_INITIAL_BACKOFF_MILLIS,
+                DEFAULT_MAX_BACKOFF_MILLIS);
+    }
+
+    SSEStream(OkHttpClient httpClient, URI uri, Type type, EventListener<T> listener, Options options,
+              Pages<T> pages, long initialBackoffMillis, long maxBackoffMillis) {
+        checkArgument(initialBackoffMillis > 0 && maxBackoffMillis >= initialBackoffMillis, "invalid backoff");
+        mHttpClient = httpClient;
+        mUri = checkNotNull(uri, "uri cannot be null");
+        mType = type;
+        mListener = checkNotNull(listener, "listener cannot be null");
+        checkNotNull(options, "options cannot be null");
+        mStateListener = options.stateListener;
+        if (options.decodeExecutor != null) {
+            mPipeline = new DecodingPipeline<T>(type, options.decodeExecutor, options.queueCapacity, options.overflow,
+                    new DecodingPipeline.Sink<T>() {
+                        @Override
+                        public void deliver(int generation, T event, String pagingToken) {
+                            SSEStream.this.deliver(generation, event, pagingToken, true);
+                        }
+
+                        @Override
+                        public void overflow(int generation) {
+                            onFailure(generation, new IOException("Event queue overflow"));
+                        }
+
+                        @Override
+                        public void fail(int generation, Throwable error) {
+                            onFailure(generation, error);
+                        }
+                    });
+        } else {
+            mPipeline = null;
+        }
+        checkArgument(!options.backfillGaps || pages != null, "stream does not support backfill");
+        checkArgument(options.transport != Transport.POLLING || pages != null, "stream does not support polling");
+        mPages = pages;
+        mBackfill = options.backfillGaps ? pages : null;
+        mTransport = pages != null ? options.transport : Transport.SSE;
+        mPolling = mTransport == Transport.POLLING;
+        mPollInterval = new PollInterval(options.maxPollIntervalMillis);
+        mIdleTimeoutMillis = options.idleTimeoutMillis;
+        mInitialBackoffMillis = initialBackoffMillis;
+        mMaxBackoffMillis = maxBackoffMillis;
+        // Resume from the cursor of the request, if any
+        mLastPagingToken = queryParameter(uri, "cursor");
+        mLastMessageAt = System.nanoTime();
+        mLastEventAt = mLastMessageAt;
+    }
+
+    /**
+     * Opens the first connection.
+     */
+    SSEStream<T> start() {
+        int generation;
+        synchronized (mLock) {
+            generation = mGeneration;
+        }
+        if (mIdleTimeoutMillis > 0) {
+            long period = Math.max(1, Math.min(mIdleTimeoutMillis, stallLedgerMillis()) / 4);
+            ScheduledFuture<?> watchdog = scheduler().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    checkStalled();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+            synchronized (mLock) {
+                mWatchdog = watchdog;
+            }
+        }
+        reconnect(generation);
+        return this;
+    }
+
+    /**
+     * Returns the current state of the stream.
+     */
+    public State getState() {
+        synchronized (mLock) {
+            return mState;
+        }
+    }
+
+    /**
+     * Returns transport currently used by the stream, {@link Transport#SSE} or {@link Transport#POLLING}.
+     */
+    public Transport getTransport() {
+        synchronized (mLock) {
+            return mPolling ? Transport.POLLING : Transport.SSE;
+        }
+    }
+
+    /**
+     * Returns <code>paging_token</code> of the last event delivered to the listener, the stream resumes from it after
+     * reconnect. Can be used as <code>cursor</code> of a new stream.
+     */
+    public String getLastPagingToken() {
+        synchronized (mLock) {
+            return mLastPagingToken;
+        }
+    }
+
+    /**
+     * Returns how long ago the last message (including keep-alive <code>hello</code> messages) or poll was received
+     * or the stream was started.
+     */
+    public long getMillisSinceLastMessage() {
+        synchronized (mLock) {
+            return (System.nanoTime() - mLastMessageAt) / 1000000;
+        }
+    }
+
+    /**
+     * Returns how long ago the last event was received or the stream was started.
+     */
+    public long getMillisSinceLastEvent() {
+        synchronized (mLock) {
+            return (System.nanoTime() - mLastEventAt) / 1000000;
+        }
+    }
+
+    /**
+     * Returns number of stalled connections which were recycled.
+     */
+    public long getStalls() {
+        synchronized (mLock) {
+            return mStalls;
+        }
+    }
+
+    /**
+     * Returns number of events waiting for decoding or delivery, always 0 without decode executor.
+     */
+    public int getQueueDepth() {
+        return mPipeline != null ? mPipeline.getDepth() : 0;
+    }
+
+    /**
+     * Returns the highest number of events waiting for decoding or delivery so far.
+     */
+    public int getMaxQueueDepth() {
+        return mPipeline != null ? mPipeline.getMaxDepth() : 0;
+    }
+
+    /**
+     * Returns number of events dropped by {@link Overflow#DROP_OLDEST} policy.
+     */
+    public long getDroppedEvents() {
+        return mPipeline != null ? mPipeline.getDropped() : 0;
+    }
+
+    /**
+     * Returns number of events fetched with paged requests by backfill.
+     */
+    public long getBackfilledEvents() {
+        synchronized (mLock) {
+            return mBackfilledEvents;
+        }
+    }
+
+    /**
+     * Returns number of dropped events which were already delivered, only counted with backfill enabled.
+     */
+    public long getDuplicateEvents() {
+        synchronized (mLock) {
+            return mDuplicateEvents;
+        }
+    }
+
+    /**
+     * Closes the stream. No events are delivered after this method returns, except the one being delivered.
+     */
+    @Override
+    public void close() {
+        Closeable connection;
+        ScheduledFuture<?> watchdog;
+        synchronized (mLock) {
+            if (mState == State.CLOSED) {
+                return;
+            }
+            mGeneration++;
+            connection = mConnection;
+            mConnection = null;
+            mState = State.CLOSED;
+            watchdog = mWatchdog;
+        }
+        if (watchdog != null) {
+            watchdog.cancel(false);
+        }
+        closeQuietly(connection);
+        if (mPipeline != null) {
+            mPipeline.clear();
+        }
+        notifyState(State.CLOSED, null);
+    }
+
+    /**
+     * Opens connection to <code>uri</code> delivering events to <code>handler</code>.
+     */
+    Closeable open(URI uri, String lastEventId, SSEReader.Handler handler) {
+        return new SSEReader(mHttpClient, uri, lastEventId, handler).start();
+    }
+
+    // Opens a connection unless the stream was closed or failed again since expectedGeneration
+    private void connect(int expectedGeneration) {
+        final int generation;
+        URI uri;
+        String lastEventId;
+        boolean polling;
+        synchronized (mLock) {
+            if (expectedGeneration != mGeneration || mState == State.CLOSED) {
+                return;
+            }
+            generation = ++mGeneration;
+            lastEventId = mLastPagingToken;
+            uri = lastEventId == null ? mUri : withCursor(mUri, lastEventId);
+            polling = mPolling;
+            mConnectedAt = System.nanoTime();
+            mHandlerBusy = false;
+        }
+        Closeable connection;
+        try {
+            connection = polling ? new Poller(generation).start() : open(uri, lastEventId, new Handler(generation));
+        } catch (RuntimeException e) {
+            onFailure(generation, e);
+            return;
+        }
+        boolean stale;
+        synchronized (mLock) {
+            stale = generation != mGeneration;
+            if (!stale) {
+                mConnection = connection;
+            }
+        }
+        if (stale) {
+            closeQuietly(connection);
+        }
+    }
+
+    // Backfills events following the last delivered one, when enabled, and connects. Polling does not need backfill.
+    private void reconnect(final int generation) {
+        if (mBackfill == null || getTransport() == Transport.POLLING || !PagingTokens.isValid(getLastPagingToken())) {
+            connect(generation);
+            return;
+        }
+        backfillExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    backfill(generation);
+                } catch (IOException e) {
+                    onFailure(generation, e);
+                    return;
+                } catch (RuntimeException e) {
+                    onFailure(generation, e);
+                    return;
+                }
+                // Backfill ends early when a delivered event failed, the reconnect it scheduled connects instead
+                connect(generation);
+            }
+        });
+    }
+
+    private void backfill(int generation) throws IOException {
+        String cursor = getLastPagingToken();
+        while (true) {
+            synchronized (mLock) {
+                if (generation != mGeneration || mState == State.CLOSED) {
+                    return;
+                }
+            }
+            List<T> events = mBackfill.fetch(cursor);
+            if (events.isEmpty()) {
+                return;
+            }
+            for (T event : events) {
+                cursor = mBackfill.pagingToken(event);
+                deliver(generation, event, cursor, false);
+            }
+        }
+    }
+
+    private void onFailure(int generation, Throwable error) {
+        Closeable connection;
+        long delay;
+        final int next;
+        synchronized (mLock) {
+            if (generation != mGeneration || mState == State.CLOSED) {
+                return;
+            }
+            // Events of the failed connection are ignored from now on
+            next = ++mGeneration;
+            connection = mConnection;
+            mConnection = null;
+            mState = State.RECONNECTING;
+            delay = backoff(mAttempts++);
+        }
+        // Stops reconnects of the failed connection
+        closeQuietly(connection);
+        // Queued events are sent again after reconnect
+        if (mPipeline != null) {
+            mPipeline.clear();
+        }
+        notifyState(State.RECONNECTING, error);
+        scheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                reconnect(next);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns delay before reconnect attempt, a random value between half and full exponential backoff.
+     */
+    long backoff(int attempt) {
+        long backoff = Math.min(mMaxBackoffMillis, mInitialBackoffMillis << Math.min(attempt, 20));
+        return backoff / 2 + (long) (Math.random() * (backoff / 2 + 1));
+    }
+
+    /**
+     * Delivers event received live or fetched by backfill. With backfill enabled, drops events which were already
+     * delivered and restarts the stream when ledgers are missing.
+     */
+    private void deliver(int generation, T event, String pagingToken, boolean live) {
+        long missingFrom = 0;
+        synchronized (mLock) {
+            if (generation != mGeneration || mState == State.CLOSED) {
+                return;
+            }
+            if (mBackfill != null && PagingTokens.isValid(pagingToken) && PagingTokens.isValid(mLastPagingToken)) {
+                if (PagingTokens.compare(pagingToken, mLastPagingToken) <= 0) {
+                    mDuplicateEvents++;
+                    return;
+                }
+                long lastLedger = PagingTokens.ledgerOf(mLastPagingToken);
+                if (live && mBackfill.hasEveryLedger() && PagingTokens.ledgerOf(pagingToken) > lastLedger + 1) {
+                    missingFrom = lastLedger + 1;
+                }
+            }
+            if (!live) {
+                mBackfilledEvents++;
+            }
+        }
+        if (missingFrom > 0) {
+            // Missing ledgers are backfilled before the stream continues
+            onFailure(generation, new IOException("Missing ledgers from " + missingFrom));
+            return;
+        }
+        try {
+            mListener.onEvent(event);
+        } catch (RuntimeException e) {
+            // The event is delivered again after reconnect
+            onFailure(generation, e);
+            return;
+        }
+        synchronized (mLock) {
+            if (pagingToken != null && !pagingToken.isEmpty() && generation == mGeneration) {
+                mLastPagingToken = pagingToken;
+            }
+        }
+    }
+
+    /**
+     * Recycles the Server-Sent Events connection when it is stalled. Polling is not checked, its requests time out.
+     */
+    private void checkStalled() {
+        int generation;
+        IOException stall;
+        synchronized (mLock) {
+            if (mState == State.CLOSED || mPolling || mConnection == null || mHandlerBusy) {
+                return;
+            }
+            long now = System.nanoTime();
+            long silentMillis = (now - Math.max(mLastMessageAt, mConnectedAt)) / 1000000;
+            long noEventMillis = (now - Math.max(mLastEventAt, mConnectedAt)) / 1000000;
+            if (silentMillis >= mIdleTimeoutMillis) {
+                stall = new IOException("Stream stalled, no message for " + silentMillis + " ms");
+            } else if (mPages != null && mPages.hasEveryLedger() && noEventMillis >= stallLedgerMillis()) {
+                stall = new IOException("Stream stalled, no ledger for " + noEventMillis + " ms");
+            } else {
+                return;
+            }
+            mStalls++;
+            generation = mGeneration;
+        }
+        onFailure(generation, stall);
+    }
+
+    private long stallLedgerMillis() {
+        synchronized (mLock) {
+            return STALL_LEDGER_CLOSES * mPollInterval.getLedgerCloseMillis();
+        }
+    }
+
+    private boolean isCurrent(int generation) {
+        synchronized (mLock) {
+            return generation == mGeneration && mState != State.CLOSED;
+        }
+    }
+
+    // Marks the stream open after a connection was opened or a poll succeeded
+    private void opened(int generation) {
+        synchronized (mLock) {
+            if (generation != mGeneration || mState == State.CLOSED) {
+                return;
+            }
+            mAttempts = 0;
+            if (mState == State.OPEN) {
+                return;
+            }
+            mState = State.OPEN;
+        }
+        notifyState(State.OPEN, null);
+    }
+
+    private void notifyState(State state, Throwable error) {
+        if (mStateListener != null) {
+            mStateListener.onStateChanged(state, error);
+        }
+    }
+
+    private class Handler implements SSEReader.Handler {
+        private final int generation;
+        private volatile boolean open;
+        private volatile boolean received;
+
+        Handler(int generation) {
+            this.generation = generation;
+        }
+
+        @Override
+        public void onOpen() {
+            open = true;
+            opened(generation);
+        }
+
+        @Override
+        public void onClosed(Throwable error) {
+            synchronized (mLock) {
+                // Only a proxy or server closing streams which were opened is a reason to poll
+                if (generation == mGeneration && mTransport == Transport.AUTO && open) {
+                    mSilentConnections = received ? 0 : mSilentConnections + 1;
+                    if (mSilentConnections >= FALLBACK_SILENT_CONNECTIONS) {
+                        mPolling = true;
+                        mSilentConnections = 0;
+                        mAttempts = 0;
+                    }
+                }
+            }
+            onFailure(generation, error);
+        }
+
+        @Override
+        public void onEvent(String data, String id) {
+            if (!isCurrent(generation)) {
+                return;
+            }
+            received = true;
+            synchronized (mLock) {
+                mLastMessageAt = System.nanoTime();
+            }
+            if (data == null || data.equals("\"hello\"") || data.equals("\"byebye\"")) {
+                return;
+            }
+            synchronized (mLock) {
+                mLastEventAt = mLastMessageAt;
+                // A slow listener or a full queue is not a stalled connection
+                mHandlerBusy = generation == mGeneration;
+            }
+            try {
+                handle(data, id);
+            } finally {
+                synchronized (mLock) {
+                    if (generation == mGeneration) {
+                        mHandlerBusy = false;
+                        mLastMessageAt = System.nanoTime();
+                    }
+                }
+            }
+        }
+
+        private void handle(String data, String id) {
+            if (mPipeline != null) {
+                mPipeline.submit(generation, data, id);
+                return;
+            }
+            T object;
+            try {
+                object = GsonSingleton.getInstance().fromJson(data, mType);
+            } catch (RuntimeException e) {
+                onFailure(generation, e);
+                return;
+            }
+            deliver(generation, object, id, true);
+        }
+
+        @Override
+        public void onComment() {
+            received = true;
+            synchronized (mLock) {
+                mLastMessageAt = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Polls pages following the last delivered event, the polling counterpart of an {@link SSEReader} connection.
+     */
+    private class Poller implements Closeable, Runnable {
+        private final int generation;
+        private final long startedAt = System.nanoTime();
+        private boolean closed;
+        private ScheduledFuture<?> scheduled;
+
+        Poller(int generation) {
+            this.generation = generation;
+        }
+
+        Poller start() {
+            schedule(0);
+            return this;
+        }
+
+        private synchronized void schedule(long delayMillis) {
+            if (closed) {
+                return;
+            }
+            scheduled = scheduler().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    backfillExecutor().execute(Poller.this);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            try {
+                poll();
+            } catch (IOException e) {
+                onFailure(generation, e);
+            } catch (RuntimeException e) {
+                onFailure(generation, e);
+            }
+        }
+
+        private void poll() throws IOException {
+            String cursor = getLastPagingToken();
+            if ("now".equals(cursor)) {
+                // "now" moves with every request, so it is replaced by the latest event once
+                T latest = mPages.latest();
+                cursor = latest != null ? mPages.pagingToken(latest) : "0";
+                synchronized (mLock) {
+                    if (generation != mGeneration || mState == State.CLOSED) {
+                        return;
+                    }
+                    mLastPagingToken = cursor;
+                }
+            }
+            List<T> events = mPages.fetch(cursor);
+            synchronized (mLock) {
+                mLastMessageAt = System.nanoTime();
+            }
+            opened(generation);
+            String pagingToken = null;
+            if (!events.isEmpty()) {
+                synchronized (mLock) {
+                    mLastEventAt = System.nanoTime();
+                }
+            }
+            for (T event : events) {
+                pagingToken = mPages.pagingToken(event);
+                deliver(generation, event, pagingToken, true);
+                if (!isCurrent(generation)) {
+                    return;
+                }
+            }
+            long delay;
+            boolean retrySSE;
+            synchronized (mLock) {
+                if (generation != mGeneration || mState == State.CLOSED) {
+                    return;
+                }
+                long ledger = PagingTokens.isValid(pagingToken) ? PagingTokens.ledgerOf(pagingToken) : -1;
+                delay = mPollInterval.next(events.size(), events.size() >= mPages.pageSize(), ledger,
+                        System.nanoTime() / 1000000);
+                retrySSE = mTransport == Transport.AUTO
+                        && System.nanoTime() - startedAt >= TimeUnit.MILLISECONDS.toNanos(SSE_RETRY_MILLIS);
+                if (retrySSE) {
+                    mPolling = false;
+                    mConnection = null;
+                }
+            }
+            if (retrySSE) {
+                close();
+                connect(generation);
+                return;
+            }
+            schedule(delay);
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    private static URI withCursor(URI uri, String cursor) {
+        return HttpUrl.get(uri).newBuilder().setQueryParameter("cursor", cursor).build().uri();
+    }
+
+    private static String queryParameter(URI uri, String name) {
+        HttpUrl url = HttpUrl.get(uri);
+        return url != null ? url.queryParameter(name) : null;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Ignored
+        }
+    }
+
+    private static synchronized ExecutorService backfillExecutor() {
+        if (sBackfillExecutor == null) {
+            sBackfillExecutor = Executors.newCachedThreadPool(
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sse-stream-backfill-%d").build());
+        }
+        return sBackfillExecutor;
+    }
+
+    static synchronized ScheduledExecutorService scheduler() {
+        if (sScheduler == null) {
+            sScheduler = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sse-stream-scheduler-%d").build());
+        }
+        return sScheduler;
+    }
+}
@@ -1,16 +1,17 @@
 package org.stellar.sdk.requests;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import org.stellar.sdk.Asset;
 import org.stellar.sdk.AssetTypeCreditAlphaNum;
-import org.stellar.sdk.responses.GsonSingleton;
 import org.stellar.sdk.responses.TradeResponse;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
 /**
  * Builds requests connected to trades.
@@ -26,7 +27,7 @@ public class TradesRequestBuilder extends RequestBuilder {
         if (asset instanceof AssetTypeCreditAlphaNum) {
             AssetTypeCreditAlphaNum creditAlphaNumAsset = (AssetTypeCreditAlphaNum) asset;
             urlBuilder.addQueryParameter("buying_asset_code", creditAlphaNumAsset.getCode());
-            urlBuilder.addQueryParameter("buying_asset_issuer", creditAlphaNumAsset.getIssuer().getAccountId());
+            urlBuilder.addQueryParameter("buying_asset_issuer", creditAlphaNumAsset.getIssuerAccountId());
         }
         return this;
     }
@@ -36,17 +37,62 @@ public class TradesRequestBuilder extends RequestBuilder {
         if (asset instanceof AssetTypeCreditAlphaNum) {
             AssetTypeCreditAlphaNum creditAlphaNumAsset = (AssetTypeCreditAlphaNum) asset;
             urlBuilder.addQueryParameter("selling_asset_code", creditAlphaNumAsset.getCode());
-            urlBuilder.addQueryParameter("selling_asset_issuer", creditAlphaNumAsset.getIssuer().getAccountId());
+            urlBuilder.addQueryParameter("selling_asset_issuer", creditAlphaNumAsset.getIssuerAccountId());
         }
         return this;
     }
 
     public TradeResponse execute(URI uri) throws IOException, TooManyRequestsException {
-        Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), TradeResponse.class);
+        return this.execute(uri, TradeResponse.class);
     }
 
     public TradeResponse execute() throws IOException, TooManyRequestsException {
         return this.execute(this.buildUri());
     }
+
+    /**
+     * Requests specific <code>uri</code> asynchronously.
+     *
+     * @return future completed with {@link TradeResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<TradeResponse> executeAsync(URI uri) {
+        return this.executeAsync(uri, TradeResponse.class);
+    }
+
+    /**
+     * Build and execute request asynchronously.
+     *
+     * @return future completed with {@link TradeResponse}
+     * @see #executor(Executor)
+     * @see #timeout(long, TimeUnit)
+     */
+    public ListenableFuture<TradeResponse> executeAsync() {
+        return this.executeAsync(this.buildUri());
+    }
+
+    @Override
+    public TradesRequestBuilder executor(Executor executor) {
+        super.executor(executor);
+        return this;
+    }
+
+    @Override
+    public TradesRequestBuilder timeout(long timeout, TimeUnit unit) {
+        super.timeout(timeout, unit);
+        return this;
+    }
+
+    @Override
+    public TradesRequestBuilder coalescer(RequestCoalescer coalescer) {
+        super.coalescer(coalescer);
+        return this;
+    }
+
+    @Override
+    public TradesRequestBuilder responseCache(ResponseCache responseCache) {
+        super.responseCache(responseCache);
+        return this;
+    }
 }
@@ -2,8 +2,8 @@ package org.stellar.sdk.responses;
 
 import com.google.gson.annotations.SerializedName;
 
+import org.stellar.sdk.Amount;
 import org.stellar.sdk.Asset;
-import org.stellar.sdk.AssetTypeNative;
 import org.stellar.sdk.KeyPair;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -179,9 +179,9 @@ public class AccountResponse extends Response implements org.stellar.sdk.Transac
 
         public Asset getAsset() {
             if (assetType.equals("native")) {
-                return new AssetTypeNative();
+                return Asset.createNativeAsset();
             } else {
-                return Asset.createNonNativeAsset(assetCode, getAssetIssuer());
+                return Asset.createNonNativeAsset(assetCode, assetIssuer);
             }
         }
 
@@ -201,9 +201,23 @@ public class AccountResponse extends Response implements org.stellar.sdk.Transac
             return balance;
         }
 
+        /**
+         * Returns balance as {@link Amount}.
+         */
+        public Amount getBalanceValue() {
+            return Amount.fromString(balance);
+        }
+
         public String getLimit() {
             return limit;
         }
+
+        /**
+         * Returns trustline limit as {@link Amount} or <code>null</code> for native balance.
+         */
+        public Amount getLimitValue() {
+            return limit == null ? null : Amount.fromString(limit);
+        }
     }
 
     /**
@@ -0,0 +1,51 @@
+package org.stellar.sdk.responses;
+
+import org.stellar.sdk.responses.operations.AccountMergeOperationResponse;
+import org.stellar.sdk.responses.operations.AllowTrustOperationResponse;
+import org.stellar.sdk.responses.operations.ChangeTrustOperationResponse;
+import org.stellar.sdk.responses.operations.CreateAccountOperationResponse;
+import org.stellar.sdk.responses.operations.CreatePassiveOfferOperationResponse;
+import org.stellar.sdk.responses.operations.InflationOperationResponse;
+import org.stellar.sdk.responses.operations.ManageDataOperationResponse;
+import org.stellar.sdk.responses.operations.ManageOfferOperationResponse;
+import org.stellar.sdk.responses.operations.OperationResponse;
+import org.stellar.sdk.responses.operations.PathPaymentOperationResponse;
+import org.stellar.sdk.responses.operations.PaymentOperationResponse;
+import org.stellar.sdk.responses.operations.SetOptionsOperationResponse;
+
+class OperationTypeAdapterFactory extends TypeIdAdapterFactory<OperationResponse> {
+
+    OperationTypeAdapterFactory() {
+        super(OperationResponse.class, "operation");
+    }
+
+    @Override
+    Class<? extends OperationResponse> classOf(int typeId) {
+        switch (typeId) {
+            case 0:
+                return CreateAccountOperationResponse.class;
+            case 1:
+                return PaymentOperationResponse.class;
+            case 2:
+                return PathPaymentOperationResponse.class;
+            case 3:
+                return ManageOfferOperationResponse.class;
+            case 4:
+                return CreatePassiveOfferOperationResponse.class;
+            case 5:
+                return SetOptionsOperationResponse.class;
+            case 6:
+                return ChangeTrustOperationResponse.class;
+            case 7:
+                return AllowTrustOperationResponse.class;
+            case 8:
+                return AccountMergeOperationResponse.class;
+            case 9:
+                return InflationOperationResponse.class;
+            case 10:
+                return ManageDataOperationResponse.class;
+            default:
+                return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.stellar.sdk.responses;
 
 import com.google.gson.annotations.SerializedName;
 
+import org.stellar.sdk.Amount;
 import org.stellar.sdk.Asset;
 import org.stellar.sdk.Price;
 
@@ -69,6 +70,13 @@ public class OrderBookResponse extends Response {
             return amount;
         }
 
+        /**
+         * Returns amount as {@link Amount}.
+         */
+        public Amount getAmountValue() {
+            return Amount.fromString(amount);
+        }
+
         public String getPrice() {
             return price;
         }
@@ -1,9 +1,11 @@
 package org.stellar.sdk.responses;
 
 import com.google.gson.annotations.SerializedName;
-import com.google.gson.reflect.TypeToken;
+
+import org.stellar.sdk.requests.ResponseHandler;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -22,10 +24,20 @@ public class Page<T> extends Response {
     private ArrayList<T> records;
     @SerializedName("links")
     private Links links;
+    // Set by PageTypeAdapterFactory, generic type of this page is erased at runtime
+    transient Type type;
+
+    // Used by getNextPage() when no client is given, shared so that connections are reused
+    private static OkHttpClient sHttpClient;
 
     Page() {
     }
 
+    Page(ArrayList<T> records, Links links) {
+        this.records = records;
+        this.links = links;
+    }
+
     public ArrayList<T> getRecords() {
         return records;
     }
@@ -38,16 +50,35 @@ public class Page<T> extends Response {
      * @return The next page of results or null when there is no more results
      * @throws URISyntaxException
      * @throws IOException
+     * @see #getNextPage(OkHttpClient)
      */
     public Page<T> getNextPage() throws URISyntaxException, IOException {
+        return getNextPage(defaultHttpClient());
+    }
+
+    /**
+     * Requests the next page using <code>httpClient</code>, e.g. the client of the {@link org.stellar.sdk.Server}.
+     *
+     * @param httpClient client used to send the request
+     * @return The next page of results or null when there is no more results
+     * @throws URISyntaxException
+     * @throws IOException
+     * @see org.stellar.sdk.requests.RecordIterator
+     */
+    public Page<T> getNextPage(OkHttpClient httpClient) throws URISyntaxException, IOException {
         if (this.getLinks().getNext() == null) {
             return null;
         }
-        TypeToken type = new TypeToken<Page<T>>() {};
         URI uri = new URI(this.getLinks().getNext().getHref());
-        OkHttpClient httpClient = new OkHttpClient();
         okhttp3.Response response = httpClient.newCall(new Request.Builder().url(uri.toString()).build()).execute();
-        return GsonSingleton.getInstance().fromJson(response.body().string(), type.getType());
+        return new ResponseHandler<Page<T>>(type != null ? type : Page.class).handleResponse(response);
+    }
+
+    private static synchronized OkHttpClient defaultHttpClient() {
+        if (sHttpClient == null) {
+            sHttpClient = new OkHttpClient();
+        }
+        return sHttpClient;
     }
 
     /**
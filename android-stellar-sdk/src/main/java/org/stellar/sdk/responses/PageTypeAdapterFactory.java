@@ -0,0 +1,94 @@
+package org.stellar.sdk.responses;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+
+/**
+ * Creates adapters parsing {@link Page} of any record type.
+ * <p>
+ * Records are read one by one from <code>_embedded.records</code> using the adapter of the record type,
+ * without building a tree of the whole page.
+ */
+class PageTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, final TypeToken<T> type) {
+        if (type.getRawType() != Page.class) {
+            return null;
+        }
+        // Generic type of the page is erased at runtime, so records of raw Page are parsed as Object
+        Type recordType = type.getType() instanceof ParameterizedType
+                ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0]
+                : Object.class;
+        final TypeAdapter<Object> recordAdapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(recordType));
+        final TypeAdapter<Page.Links> linksAdapter = gson.getAdapter(Page.Links.class);
+        final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        return (TypeAdapter<T>) new TypeAdapter<Page<Object>>() {
+            @Override
+            public void write(JsonWriter out, Page<Object> value) throws IOException {
+                delegate.write(out, (T) value);
+            }
+
+            @Override
+            public Page<Object> read(JsonReader in) throws IOException {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+                ArrayList<Object> records = null;
+                Page.Links links = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (name.equals("_links") || name.equals("links")) {
+                        links = linksAdapter.read(in);
+                    } else if (name.equals("_embedded")) {
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            if (in.nextName().equals("records")) {
+                                records = readRecords(in);
+                            } else {
+                                in.skipValue();
+                            }
+                        }
+                        in.endObject();
+                    } else if (name.equals("records")) {
+                        records = readRecords(in);
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+
+                Page<Object> page = new Page<Object>(records, links);
+                page.type = type.getType();
+                return page;
+            }
+
+            private ArrayList<Object> readRecords(JsonReader in) throws IOException {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+                ArrayList<Object> records = new ArrayList<Object>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    records.add(recordAdapter.read(in));
+                }
+                in.endArray();
+                return records;
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package org.stellar.sdk.responses;
 
+import org.stellar.sdk.requests.RateLimitInterceptor;
+
 import okhttp3.Headers;
 
 public abstract class Response {
@@ -14,6 +16,27 @@ public abstract class Response {
         this.rateLimitReset = Integer.parseInt(reset.value(0));
     }
 
+    /**
+     * Sets rate limit values from <code>X-RateLimit-*</code> headers of the HTTP response. Missing or invalid
+     * headers are ignored.
+     *
+     * @param headers HTTP response headers
+     */
+    public void setHeaders(Headers headers) {
+        int limit = RateLimitInterceptor.parseHeader(headers, "X-RateLimit-Limit");
+        int remaining = RateLimitInterceptor.parseHeader(headers, "X-RateLimit-Remaining");
+        int reset = RateLimitInterceptor.parseHeader(headers, "X-RateLimit-Reset");
+        if (limit >= 0) {
+            this.rateLimitLimit = limit;
+        }
+        if (remaining >= 0) {
+            this.rateLimitRemaining = remaining;
+        }
+        if (reset >= 0) {
+            this.rateLimitReset = reset;
+        }
+    }
+
     /**
      * Returns X-RateLimit-Limit header from the response.
      * This number represents the he maximum number of requests that the current client can
@@ -1,6 +1,7 @@
 package org.stellar.sdk.responses;
 
 import com.google.gson.annotations.SerializedName;
+import org.stellar.sdk.Amount;
 import org.stellar.sdk.KeyPair;
 
 /**
@@ -78,6 +79,13 @@ public class TradeResponse extends Response {
         return soldAmount;
     }
 
+    /**
+     * Returns sold amount as {@link Amount}.
+     */
+    public Amount getSoldAmountValue() {
+        return Amount.fromString(soldAmount);
+    }
+
     public String getSoldAssetType() {
         return soldAssetType;
     }
@@ -98,6 +106,13 @@ public class TradeResponse extends Response {
         return boughtAmount;
     }
 
+    /**
+     * Returns bought amount as {@link Amount}.
+     */
+    public Amount getBoughtAmountValue() {
+        return Amount.fromString(boughtAmount);
+    }
+
     public String getBoughtAssetType() {
         return boughtAssetType;
     }
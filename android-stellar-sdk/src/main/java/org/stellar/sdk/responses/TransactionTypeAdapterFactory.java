@@ -0,0 +1,78 @@
+package org.stellar.sdk.responses;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import org.apache.commons.codec.binary.Base64;
+import org.stellar.sdk.Memo;
+
+import java.io.IOException;
+
+/**
+ * Creates adapter parsing {@link TransactionResponse} and its memo.
+ */
+class TransactionTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != TransactionResponse.class) {
+            return null;
+        }
+        final TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+        final TypeAdapter<TransactionResponse> delegate = gson.getDelegateAdapter(this, TypeToken.get(TransactionResponse.class));
+        return (TypeAdapter<T>) new TypeAdapter<TransactionResponse>() {
+            @Override
+            public void write(JsonWriter out, TransactionResponse value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public TransactionResponse read(JsonReader in) throws IOException {
+                JsonElement json = elementAdapter.read(in);
+                if (json.isJsonNull()) {
+                    return null;
+                }
+                TransactionResponse transaction = delegate.fromJsonTree(json);
+                transaction.setMemo(memo(json.getAsJsonObject()));
+                return transaction;
+            }
+        };
+    }
+
+    private static Memo memo(JsonObject json) {
+        String memoType = json.get("memo_type").getAsString();
+        if (memoType.equals("none")) {
+            return Memo.none();
+        }
+        // Because of the way "encoding/json" works on structs in Go, if transaction
+        // has an empty `memo_text` value, the `memo` field won't be present in a JSON
+        // representation of a transaction. That's why we need to handle a special case
+        // here.
+        if (memoType.equals("text")) {
+            JsonElement memoField = json.get("memo");
+            if (memoField != null) {
+                return Memo.text(memoField.getAsString());
+            } else {
+                return Memo.text("");
+            }
+        }
+        String memoValue = json.get("memo").getAsString();
+        if (memoType.equals("id")) {
+            return Memo.id(Long.parseLong(memoValue));
+        } else if (memoType.equals("hash")) {
+            return Memo.hash(Base64.decodeBase64(memoValue));
+        } else if (memoType.equals("return")) {
+            return Memo.returnHash(Base64.decodeBase64(memoValue));
+        } else {
+            throw new JsonParseException("Unknown memo type.");
+        }
+    }
+}
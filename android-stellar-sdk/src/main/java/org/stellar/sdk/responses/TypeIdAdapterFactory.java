@@ -0,0 +1,81 @@
+package org.stellar.sdk.responses;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Creates adapters parsing responses whose class depends on <code>type_i</code> field, like operations and effects.
+ * <p>
+ * Each record is read into a {@link JsonElement} first, because <code>type_i</code> is not guaranteed to be the
+ * first field, and then bound by the adapter of its class.
+ *
+ * @param <T> base class of responses
+ */
+abstract class TypeIdAdapterFactory<T> implements TypeAdapterFactory {
+
+    private final Class<T> baseClass;
+    private final String name;
+
+    /**
+     * @param baseClass base class of responses
+     * @param name      name of responses used in error messages
+     */
+    TypeIdAdapterFactory(Class<T> baseClass, String name) {
+        this.baseClass = baseClass;
+        this.name = name;
+    }
+
+    /**
+     * Returns class of responses with <code>type_i</code> value or <code>null</code> when it is unknown.
+     */
+    abstract Class<? extends T> classOf(int typeId);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> TypeAdapter<R> create(final Gson gson, TypeToken<R> type) {
+        if (type.getRawType() != baseClass) {
+            return null;
+        }
+        final TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+        return (TypeAdapter<R>) new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                if (value == null) {
+                    out.nullValue();
+                    return;
+                }
+                ((TypeAdapter<T>) gson.getAdapter(value.getClass())).write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                JsonElement json = elementAdapter.read(in);
+                if (json.isJsonNull()) {
+                    return null;
+                }
+                JsonElement typeId = json.getAsJsonObject().get("type_i");
+                if (typeId == null) {
+                    throw new JsonParseException("Missing type_i");
+                }
+                return adapter(typeId.getAsInt()).fromJsonTree(json);
+            }
+
+            // Gson caches adapters, so they are created once per class
+            private TypeAdapter<? extends T> adapter(int typeId) {
+                Class<? extends T> responseClass = classOf(typeId);
+                if (responseClass == null) {
+                    throw new JsonParseException("Invalid " + name + " type");
+                }
+                return gson.getAdapter(responseClass);
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package org.stellar.sdk;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AmountTest {
+
+  private static final BigDecimal ONE = new BigDecimal(10).pow(7);
+
+  @Test
+  public void testParse() {
+    assertEquals(0L, Amount.parse("0"));
+    assertEquals(0L, Amount.parse("-0"));
+    assertEquals(1L, Amount.parse("0.0000001"));
+    assertEquals(1L, Amount.parse(".0000001"));
+    assertEquals(10000000L, Amount.parse("1"));
+    assertEquals(10000000L, Amount.parse("+1."));
+    assertEquals(-15000000L, Amount.parse("-1.5"));
+    assertEquals(729912843007381L, Amount.parse("72991284.30073810000"));
+    assertEquals(10000000000L, Amount.parse("1E+3"));
+    // Exponent is applied before scale and range are checked
+    assertEquals(1L, Amount.parse("0.000000001e2"));
+    assertEquals(100000000000000000L, Amount.parse("100000000000000000000E-10"));
+    assertEquals(Long.MAX_VALUE, Amount.parse("922337203685.4775807"));
+    assertEquals(Long.MIN_VALUE, Amount.parse("-922337203685.4775808"));
+  }
+
+  @Test
+  public void testParseInvalid() {
+    String[] invalid = {"", "-", ".", "1.2.3", "abc", "1,5", " 1", "1 "};
+    for (String value : invalid) {
+      try {
+        Amount.parse(value);
+        fail(value);
+      } catch (NumberFormatException e) {}
+    }
+  }
+
+  @Test
+  public void testParseArithmeticErrors() {
+    String[] invalid = {"0.00000001", "922337203685.4775808", "-922337203685.4775809", "922337203686", "100000000000000000000"};
+    for (String value : invalid) {
+      try {
+        Amount.parse(value);
+        fail(value);
+      } catch (ArithmeticException e) {}
+    }
+  }
+
+  @Test
+  public void testFormat() {
+    assertEquals("0", Amount.format(0L));
+    assertEquals("0.0000001", Amount.format(1L));
+    assertEquals("-0.0000001", Amount.format(-1L));
+    assertEquals("1", Amount.format(10000000L));
+    assertEquals("1.05", Amount.format(10500000L));
+    assertEquals("922337203685.4775807", Amount.format(Long.MAX_VALUE));
+    assertEquals("-922337203685.4775808", Amount.format(Long.MIN_VALUE));
+    assertEquals("x=1.5", Amount.format(15000000L, new StringBuilder("x=")).toString());
+  }
+
+  @Test
+  public void testMatchesBigDecimal() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      long stroops = random.nextLong() >> random.nextInt(64);
+      String expected = new BigDecimal(stroops).divide(ONE).toPlainString();
+      assertEquals(expected, Amount.format(stroops));
+      assertEquals(stroops, new BigDecimal(expected).multiply(ONE).longValueExact());
+      assertEquals(stroops, Amount.parse(expected));
+    }
+  }
+
+  @Test
+  public void testArithmetic() {
+    Amount a = Amount.fromString("1.5");
+    Amount b = Amount.fromStroops(5000000L);
+    assertEquals(Amount.fromString("2"), a.plus(b));
+    assertEquals(Amount.fromString("1"), a.minus(b));
+    assertTrue(a.compareTo(b) > 0);
+    assertEquals(a.hashCode(), Amount.fromStroops(15000000L).hashCode());
+
+    try {
+      Amount.fromStroops(Long.MAX_VALUE).plus(Amount.fromStroops(1L));
+      fail();
+    } catch (ArithmeticException e) {}
+
+    try {
+      Amount.fromStroops(Long.MIN_VALUE).minus(Amount.fromStroops(1L));
+      fail();
+    } catch (ArithmeticException e) {}
+  }
+}
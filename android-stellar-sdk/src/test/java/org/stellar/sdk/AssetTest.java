@@ -5,6 +5,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -79,4 +80,27 @@ public class AssetTest {
     assertFalse(new AssetTypeCreditAlphaNum12("ABCDE", issuer1).equals(new AssetTypeCreditAlphaNum12("EDCBA", issuer1)));
     assertFalse(new AssetTypeCreditAlphaNum12("ABCDE", issuer1).equals(new AssetTypeCreditAlphaNum12("ABCDE", issuer2)));
   }
+
+  @Test
+  public void testCanonicalInstances() {
+    KeyPair issuer = KeyPair.random();
+    Asset asset = Asset.createNonNativeAsset("USD", issuer.getAccountId());
+    assertSame(asset, Asset.createNonNativeAsset("USD", issuer));
+    assertSame(asset, Asset.fromXdr(new AssetTypeCreditAlphaNum4("USD", issuer).toXdr()));
+    assertSame(asset, new AssetTypeCreditAlphaNum4("USD", issuer).intern());
+    assertSame(Asset.createNativeAsset(), Asset.fromXdr(new AssetTypeNative().toXdr()));
+    assertSame(Asset.createNativeAsset(), new AssetTypeNative().intern());
+    assertEquals(issuer.getAccountId(), ((AssetTypeCreditAlphaNum) asset).getIssuerAccountId());
+  }
+
+  @Test
+  public void testCachedXdr() {
+    Asset asset = Asset.createNonNativeAsset("TESTTEST", KeyPair.random());
+    assertSame(asset.toXdr(), asset.toXdr());
+  }
+
+  @Test(expected = FormatException.class)
+  public void testInvalidIssuer() {
+    Asset.createNonNativeAsset("USD", new String(KeyPair.random().getSecretSeed()));
+  }
 }
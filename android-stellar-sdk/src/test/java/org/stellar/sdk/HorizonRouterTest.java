@@ -0,0 +1,261 @@
+package org.stellar.sdk;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.FormBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HorizonRouterTest {
+
+  @Rule
+  public final MockWebServer primary = new MockWebServer();
+  @Rule
+  public final MockWebServer backup = new MockWebServer();
+
+  private static HorizonRouter router() {
+    return new HorizonRouter(Arrays.asList(
+            URI.create("https://a.example.com"),
+            URI.create("https://b.example.com/horizon/"),
+            URI.create("https://c.example.com")), 5);
+  }
+
+  private static String hosts(List<HorizonRouter.Endpoint> endpoints) {
+    StringBuilder hosts = new StringBuilder();
+    for (HorizonRouter.Endpoint endpoint : endpoints) {
+      hosts.append(endpoint.host.charAt(0));
+    }
+    return hosts.toString();
+  }
+
+  @Test
+  public void testEndpoint() {
+    HorizonRouter.Endpoint endpoint = router().getEndpoints().get(1);
+    assertEquals("https", endpoint.scheme);
+    assertEquals("b.example.com", endpoint.host);
+    assertEquals("/horizon", endpoint.pathPrefix);
+  }
+
+  @Test
+  public void testReadsGoToFastestEndpoint() {
+    HorizonRouter router = router();
+    List<HorizonRouter.Endpoint> endpoints = router.getEndpoints();
+    router.recordSuccess(endpoints.get(0), 300, 0);
+    router.recordSuccess(endpoints.get(1), 100, 0);
+    router.recordSuccess(endpoints.get(2), 200, 0);
+    assertEquals("bca", hosts(router.byLatency()));
+    // Submissions go to the primary
+    assertEquals("abc", hosts(router.byPriority()));
+  }
+
+  @Test
+  public void testUnmeasuredEndpointIsTriedFirst() {
+    HorizonRouter router = router();
+    List<HorizonRouter.Endpoint> endpoints = router.getEndpoints();
+    router.recordSuccess(endpoints.get(0), 100, 0);
+    router.recordSuccess(endpoints.get(2), 100, 0);
+    assertSame(endpoints.get(1), router.byLatency().get(0));
+  }
+
+  @Test
+  public void testFailedEndpointCoolsDown() throws InterruptedException {
+    HorizonRouter router = router();
+    List<HorizonRouter.Endpoint> endpoints = router.getEndpoints();
+    router.recordSuccess(endpoints.get(0), 100, 0);
+    router.recordSuccess(endpoints.get(1), 200, 0);
+    router.recordSuccess(endpoints.get(2), 300, 0);
+    router.recordFailure(endpoints.get(0));
+    assertEquals("bca", hosts(router.byLatency()));
+    assertEquals("bca", hosts(router.byPriority()));
+
+    // Cooldown is over, but errors still count against the endpoint
+    Thread.sleep(600);
+    router.recordFailure(endpoints.get(1));
+    assertEquals("acb", hosts(router.byLatency()));
+  }
+
+  @Test
+  public void testLaggingEndpointIsExcluded() {
+    HorizonRouter router = router();
+    List<HorizonRouter.Endpoint> endpoints = router.getEndpoints();
+    router.recordSuccess(endpoints.get(0), 100, 1000);
+    router.recordSuccess(endpoints.get(1), 200, 1010);
+    router.recordSuccess(endpoints.get(2), 300, 1008);
+    assertEquals("bca", hosts(router.byLatency()));
+    assertEquals("bca", hosts(router.byPriority()));
+
+    router.recordSuccess(endpoints.get(0), 100, 1010);
+    assertEquals("abc", hosts(router.byLatency()));
+  }
+
+  @Test
+  public void testParseLedger() {
+    assertEquals(123L, HorizonRouter.parseLedger("123"));
+    assertEquals(0L, HorizonRouter.parseLedger(null));
+    assertEquals(0L, HorizonRouter.parseLedger("abc"));
+  }
+
+  private HorizonRouter mockRouter() {
+    return new HorizonRouter(Arrays.asList(primary.url("/").uri(), backup.url("/horizon/").uri()), 5);
+  }
+
+  private static OkHttpClient client(HorizonRouter router) {
+    return new OkHttpClient.Builder()
+            .addInterceptor(router)
+            .readTimeout(500, TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  private Request submission() {
+    return new Request.Builder()
+            .url(primary.url("/transactions"))
+            .post(new FormBody.Builder().add("tx", "AAAA").build())
+            .build();
+  }
+
+  // Returns URI of a server which refuses connections
+  private static URI closedServer() throws IOException {
+    MockWebServer server = new MockWebServer();
+    server.start();
+    URI uri = server.url("/").uri();
+    server.shutdown();
+    return uri;
+  }
+
+  @Test
+  public void testRequestIsRewrittenToChosenEndpoint() throws Exception {
+    HorizonRouter router = mockRouter();
+    router.recordSuccess(router.getEndpoints().get(0), 300, 0);
+    router.recordSuccess(router.getEndpoints().get(1), 100, 0);
+    backup.enqueue(new MockResponse().setBody("{}"));
+
+    Request request = new Request.Builder().url(primary.url("/ledgers?order=desc")).build();
+    Response response = client(router).newCall(request).execute();
+    response.close();
+
+    assertEquals(200, response.code());
+    assertEquals("/horizon/ledgers?order=desc", backup.takeRequest().getPath());
+    assertEquals(0, primary.getRequestCount());
+  }
+
+  @Test
+  public void testReadFailsOverOn5xx() throws Exception {
+    HorizonRouter router = mockRouter();
+    primary.enqueue(new MockResponse().setResponseCode(503));
+    backup.enqueue(new MockResponse().setBody("{}").addHeader("Latest-Ledger", "1000"));
+
+    Request request = new Request.Builder().url(primary.url("/ledgers")).build();
+    Response response = client(router).newCall(request).execute();
+    response.close();
+
+    assertEquals(200, response.code());
+    assertEquals("/ledgers", primary.takeRequest().getPath());
+    assertEquals("/horizon/ledgers", backup.takeRequest().getPath());
+    assertEquals(1000L, router.getEndpoints().get(1).latestLedger);
+    // Failed primary is cooling down
+    assertSame(router.getEndpoints().get(1), router.byLatency().get(0));
+  }
+
+  @Test
+  public void testReadFailsOverWhenConnectionFails() throws Exception {
+    HorizonRouter router = new HorizonRouter(Arrays.asList(closedServer(), backup.url("/").uri()), 5);
+    backup.enqueue(new MockResponse().setBody("{}"));
+
+    Request request = new Request.Builder().url(router.getEndpoints().get(0).uri.resolve("/ledgers").toString()).build();
+    Response response = client(router).newCall(request).execute();
+    response.close();
+
+    assertEquals(200, response.code());
+    assertEquals("/ledgers", backup.takeRequest().getPath());
+  }
+
+  @Test
+  public void testSubmissionIsNotRetriedAfter5xx() throws Exception {
+    HorizonRouter router = mockRouter();
+    primary.enqueue(new MockResponse().setResponseCode(504));
+    backup.enqueue(new MockResponse().setBody("{}"));
+
+    Response response = client(router).newCall(submission()).execute();
+    response.close();
+
+    assertEquals(504, response.code());
+    assertEquals(1, primary.getRequestCount());
+    assertEquals(0, backup.getRequestCount());
+  }
+
+  @Test
+  public void testSubmissionIsNotRetriedAfterTimeout() throws Exception {
+    HorizonRouter router = mockRouter();
+    primary.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+    backup.enqueue(new MockResponse().setBody("{}"));
+
+    try {
+      client(router).newCall(submission()).execute();
+      fail();
+    } catch (SocketTimeoutException e) {
+      // Transaction may still be applied
+    }
+    assertEquals(1, primary.getRequestCount());
+    assertEquals(0, backup.getRequestCount());
+  }
+
+  @Test
+  public void testSubmissionFailsOverWhenConnectionFails() throws Exception {
+    URI closed = closedServer();
+    HorizonRouter router = new HorizonRouter(Arrays.asList(closed, backup.url("/").uri()), 5);
+    backup.enqueue(new MockResponse().setBody("{}"));
+
+    Request request = new Request.Builder()
+            .url(closed.resolve("/transactions").toString())
+            .post(new FormBody.Builder().add("tx", "AAAA").build())
+            .build();
+    Response response = client(router).newCall(request).execute();
+    response.close();
+
+    assertEquals(200, response.code());
+    assertEquals("/transactions", backup.takeRequest().getPath());
+  }
+
+  @Test
+  public void testRateLimitOfOneEndpointDoesNotDelayOthers() throws Exception {
+    HorizonRouter router = mockRouter();
+    router.setRateLimited(true);
+    // Budget of the primary is spent for 10 seconds
+    primary.enqueue(new MockResponse().setBody("{}")
+            .addHeader("X-RateLimit-Limit", "1")
+            .addHeader("X-RateLimit-Remaining", "0")
+            .addHeader("X-RateLimit-Reset", "10"));
+    backup.enqueue(new MockResponse().setBody("{}"));
+    OkHttpClient client = client(router);
+    client.newCall(submission()).execute().close();
+
+    // Reads go to the backup
+    router.recordSuccess(router.getEndpoints().get(0), 5000, 0);
+    router.recordSuccess(router.getEndpoints().get(1), 100, 0);
+    long start = System.nanoTime();
+    Request request = new Request.Builder().url(primary.url("/ledgers")).build();
+    Response response = client.newCall(request).execute();
+    response.close();
+
+    assertEquals(200, response.code());
+    assertEquals("/horizon/ledgers", backup.takeRequest().getPath());
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+  }
+}
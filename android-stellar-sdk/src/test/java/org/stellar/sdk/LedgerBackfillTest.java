@@ -0,0 +1,106 @@
+package org.stellar.sdk;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LedgerBackfillTest {
+
+    /**
+     * Returns <code>ledger % 3</code> records for each ledger after a random delay.
+     */
+    private static class FakeFetcher implements LedgerBackfill.Fetcher<String> {
+        private final Random random = new Random(42);
+        private final long failingLedger;
+        final AtomicLong maxFetched = new AtomicLong();
+
+        FakeFetcher(long failingLedger) {
+            this.failingLedger = failingLedger;
+        }
+
+        @Override
+        public List<String> fetch(long ledgerSequence) throws Exception {
+            int delay;
+            synchronized (random) {
+                delay = random.nextInt(3);
+            }
+            Thread.sleep(delay);
+            if (ledgerSequence == failingLedger) {
+                throw new IOException("ledger " + ledgerSequence);
+            }
+            synchronized (maxFetched) {
+                maxFetched.set(Math.max(maxFetched.get(), ledgerSequence));
+            }
+            List<String> records = new ArrayList<String>();
+            for (int i = 0; i < ledgerSequence % 3; i++) {
+                records.add(ledgerSequence + "-" + i);
+            }
+            return records;
+        }
+    }
+
+    @Test
+    public void testReturnsRecordsInLedgerOrder() {
+        final List<Long> checkpoints = new ArrayList<Long>();
+        LedgerBackfill<String> backfill = new LedgerBackfill<String>(new FakeFetcher(-1), 100, 399, 8, 16)
+                .setCheckpointListener(new LedgerBackfill.CheckpointListener() {
+                    @Override
+                    public void onLedgerCompleted(long ledgerSequence) {
+                        checkpoints.add(ledgerSequence);
+                    }
+                });
+
+        List<String> expected = new ArrayList<String>();
+        for (long ledger = 100; ledger <= 399; ledger++) {
+            for (int i = 0; i < ledger % 3; i++) {
+                expected.add(ledger + "-" + i);
+            }
+        }
+        List<String> records = new ArrayList<String>();
+        while (backfill.hasNext()) {
+            records.add(backfill.next());
+        }
+        assertEquals(expected, records);
+        assertEquals(399L, backfill.getLastCompletedLedger());
+        assertEquals(300, checkpoints.size());
+        for (int i = 0; i < checkpoints.size(); i++) {
+            assertEquals(Long.valueOf(100 + i), checkpoints.get(i));
+        }
+    }
+
+    @Test
+    public void testBufferIsBounded() throws InterruptedException {
+        FakeFetcher fetcher = new FakeFetcher(-1);
+        LedgerBackfill<String> backfill = new LedgerBackfill<String>(fetcher, 1, 1000, 4, 8);
+        Thread.sleep(100);
+        // Nothing returned yet, so only ledgers 1 to 8 may be fetched
+        assertTrue(fetcher.maxFetched.get() <= 8);
+        backfill.close();
+    }
+
+    @Test
+    public void testFailure() {
+        LedgerBackfill<String> backfill = new LedgerBackfill<String>(new FakeFetcher(50), 1, 100, 4, 8);
+        int records = 0;
+        try {
+            while (backfill.hasNext()) {
+                backfill.next();
+                records++;
+            }
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("ledger 50"));
+        }
+        // Ledgers before the failing one were returned
+        assertEquals(49, backfill.getLastCompletedLedger());
+        assertEquals(49, records);
+    }
+}
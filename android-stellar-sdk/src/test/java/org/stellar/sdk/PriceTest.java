@@ -2,7 +2,14 @@ package org.stellar.sdk;
 
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 public class PriceTest {
     @Test
@@ -42,6 +49,97 @@ public class PriceTest {
         }
     }
 
+    @Test
+    public void testMatchesBigDecimalImplementation() {
+        Random random = new Random(1234);
+        for (int i = 0; i < 200000; i++) {
+            String input;
+            switch (i % 4) {
+                case 0:
+                    // Amount-like decimal with up to 7 places
+                    input = new BigDecimal(random.nextLong() >>> random.nextInt(64)).movePointLeft(random.nextInt(8)).toPlainString();
+                    break;
+                case 1:
+                    // Long decimal expansions
+                    input = new BigDecimal(Math.abs(random.nextLong())).movePointLeft(random.nextInt(19)).toPlainString();
+                    break;
+                case 2:
+                    input = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+                    break;
+                default:
+                    input = Integer.toString(random.nextInt(Integer.MAX_VALUE)) + "." + random.nextInt(1000);
+                    break;
+            }
+            Price expected = legacyFromString(input);
+            Price actual = Price.fromString(input);
+            assertEquals(input,
+                    expected.getNumerator() + "/" + expected.getDenominator(),
+                    actual.getNumerator() + "/" + actual.getDenominator());
+        }
+    }
+
+    @Test
+    public void testFromDoubleValue() {
+        double[] inputs = {0, 0.1, 1.25, 5.5, 1e-5, 1.5e9, 3.3e10, 0.85334384};
+        for (double input : inputs) {
+            Price expected = legacyFromString(Double.toString(input));
+            Price actual = Price.fromDouble(input);
+            assertEquals(expected.getNumerator() + "/" + expected.getDenominator(),
+                    actual.getNumerator() + "/" + actual.getDenominator());
+        }
+    }
+
+    @Test
+    public void testCompareAndHashCode() {
+        assertEquals(new Price(1, 2), new Price(2, 4));
+        assertEquals(new Price(1, 2).hashCode(), new Price(2, 4).hashCode());
+        assertEquals(new Price(-1, 2), new Price(1, -2));
+        assertEquals(new Price(-1, 2).hashCode(), new Price(1, -2).hashCode());
+        assertNotEquals(new Price(1, 2), new Price(1, 3));
+
+        assertEquals(0, new Price(3, 6).compareTo(new Price(1, 2)));
+        assertTrue(new Price(1, 3).compareTo(new Price(1, 2)) < 0);
+        assertTrue(new Price(Integer.MAX_VALUE, 1).compareTo(new Price(Integer.MAX_VALUE - 1, 1)) > 0);
+        assertTrue(new Price(1, Integer.MAX_VALUE).compareTo(new Price(1, Integer.MAX_VALUE - 1)) < 0);
+        assertTrue(new Price(1, -2).compareTo(new Price(1, 3)) < 0);
+    }
+
+    /**
+     * Continued fraction implementation using BigDecimal that <code>Price.fromString</code> used before the
+     * long-arithmetic fast path.
+     */
+    private static Price legacyFromString(String price) {
+        BigDecimal maxInt = new BigDecimal(Integer.MAX_VALUE);
+        BigDecimal number = new BigDecimal(price);
+        BigDecimal a;
+        BigDecimal f;
+        List<BigDecimal[]> fractions = new ArrayList<BigDecimal[]>();
+        fractions.add(new BigDecimal[]{new BigDecimal(0), new BigDecimal(1)});
+        fractions.add(new BigDecimal[]{new BigDecimal(1), new BigDecimal(0)});
+        int i = 2;
+        while (true) {
+            if (number.compareTo(maxInt) > 0) {
+                break;
+            }
+            a = number.setScale(0, BigDecimal.ROUND_FLOOR);
+            f = number.subtract(a);
+            BigDecimal h = a.multiply(fractions.get(i - 1)[0]).add(fractions.get(i - 2)[0]);
+            BigDecimal k = a.multiply(fractions.get(i - 1)[1]).add(fractions.get(i - 2)[1]);
+            if (h.compareTo(maxInt) > 0 || k.compareTo(maxInt) > 0) {
+                break;
+            }
+            fractions.add(new BigDecimal[]{h, k});
+            if (f.compareTo(BigDecimal.ZERO) == 0) {
+                break;
+            }
+            number = new BigDecimal(1).divide(f, 20, BigDecimal.ROUND_HALF_UP);
+            i = i + 1;
+        }
+        BigDecimal n = fractions.get(fractions.size() - 1)[0];
+        BigDecimal d = fractions.get(fractions.size() - 1)[1];
+        return new Price(n.intValue(), d.intValue());
+    }
+
     private class PriceTestCase {
         public String input;
         public Price expectedPrice;
@@ -7,6 +7,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.stellar.sdk.requests.RequestCoalescer;
+import org.stellar.sdk.responses.AccountResponse;
 import org.stellar.sdk.responses.SubmitTransactionResponse;
 
 import java.io.ByteArrayInputStream;
@@ -14,6 +16,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
@@ -22,6 +30,10 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 import okhttp3.internal.http.StatusLine;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
@@ -140,4 +152,47 @@ public class ServerTest extends TestCase {
         assertEquals("tx_failed", response.getExtras().getResultCodes().getTransactionResultCode());
         assertEquals("op_no_destination", response.getExtras().getResultCodes().getOperationsResultCodes().get(0));
     }
+
+    @Test
+    public void testCoalescedAccountRequestsAreParsedForEachCaller() throws Exception {
+        final KeyPair source = KeyPair.fromSecretSeed("SCH27VUZZ6UAKB67BDNF6FA42YMBMQCBKXWGMFD5TZ6S5ZZCZFLRXKHS");
+        final KeyPair destination = KeyPair.fromAccountId("GDW6AUTBXTOC7FIKUO5BOO3OGLK4SF7ZPOBLMQHMZDI45J2Z6VXRB5NR");
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                // Holds the request until both callers wait for it
+                bothStarted.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setBody("{\"account_id\": \"" + source.getAccountId() + "\", \"sequence\": \"2908908335136768\"}");
+            }
+        });
+        mockWebServer.start();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Server server = new Server(mockWebServer.url("/").toString());
+            server.setRequestCoalescer(new RequestCoalescer(1, TimeUnit.MINUTES));
+            Callable<Transaction> buildTransaction = new Callable<Transaction>() {
+                @Override
+                public Transaction call() throws Exception {
+                    bothStarted.countDown();
+                    AccountResponse account = server.accounts().account(source);
+                    return new Transaction.Builder(account)
+                            .addOperation(new CreateAccountOperation.Builder(destination, "2000").build())
+                            .build();
+                }
+            };
+            Future<Transaction> first = executor.submit(buildTransaction);
+            Future<Transaction> second = executor.submit(buildTransaction);
+
+            // Both callers increment the sequence number of their own account
+            assertEquals(2908908335136769L, first.get(10, TimeUnit.SECONDS).getSequenceNumber());
+            assertEquals(2908908335136769L, second.get(10, TimeUnit.SECONDS).getSequenceNumber());
+            assertEquals(2908908335136769L, buildTransaction.call().getSequenceNumber());
+            assertEquals(1, mockWebServer.getRequestCount());
+        } finally {
+            executor.shutdownNow();
+            mockWebServer.shutdown();
+        }
+    }
 }
@@ -0,0 +1,122 @@
+package org.stellar.sdk;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.stellar.sdk.responses.SubmitTransactionResponse;
+
+import java.net.URLDecoder;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransactionTemplateTest {
+
+    // GBPMKIRA2OQW2XZZQUCQILI5TMVZ6JNRKM423BSAISDM7ZFWQ6KWEBC4
+    private final KeyPair source = KeyPair.fromSecretSeed("SCH27VUZZ6UAKB67BDNF6FA42YMBMQCBKXWGMFD5TZ6S5ZZCZFLRXKHS");
+    private final Asset asset = Asset.createNonNativeAsset("USD", KeyPair.fromAccountId("GDW6AUTBXTOC7FIKUO5BOO3OGLK4SF7ZPOBLMQHMZDI45J2Z6VXRB5NR"));
+
+    @Before
+    public void setupNetwork() {
+        Network.useTestNetwork();
+    }
+
+    @Test
+    public void testMatchesBuilder() {
+        Memo[] memos = {null, Memo.text("Salary"), Memo.text("Salary for April 2018"), Memo.id(12345L), Memo.hash(new byte[32])};
+        for (boolean timeBounds : new boolean[]{false, true}) {
+            for (boolean operationSource : new boolean[]{false, true}) {
+                TransactionTemplate template = new TransactionTemplate(build(2908908335136768L, KeyPair.random(), "1", Memo.text("prototype"), timeBounds, operationSource));
+                for (Memo memo : memos) {
+                    KeyPair destination = KeyPair.random();
+                    long sequenceNumber = 2908908335136768L + memos.length;
+                    Transaction expected = build(sequenceNumber - 1, destination, "1234.5678901", memo, timeBounds, operationSource);
+                    expected.sign(source);
+
+                    TransactionTemplate.PatchedTransaction transaction = template.newTransaction(sequenceNumber, destination, "1234.5678901", memo);
+                    transaction.sign(source);
+
+                    assertArrayEquals(expected.signatureBase(), transaction.signatureBase());
+                    assertEquals(expected.toEnvelopeXdrBase64(), transaction.toEnvelopeXdrBase64());
+
+                    TransactionTemplate.PatchedTransaction byAccountId = template.newTransaction(sequenceNumber, destination.getAccountId(), 12345678901L, memo);
+                    assertArrayEquals(expected.hash(), byAccountId.hash());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRequiresSinglePayment() {
+        Account account = new Account(source, 1L);
+        Transaction noPayments = new Transaction.Builder(account)
+                .addOperation(new CreateAccountOperation.Builder(KeyPair.random(), "10").build())
+                .build();
+        try {
+            new TransactionTemplate(noPayments);
+            fail();
+        } catch (IllegalArgumentException e) {}
+
+        Transaction twoPayments = new Transaction.Builder(account)
+                .addOperation(new PaymentOperation.Builder(KeyPair.random(), asset, "1").build())
+                .addOperation(new PaymentOperation.Builder(KeyPair.random(), asset, "1").build())
+                .build();
+        try {
+            new TransactionTemplate(twoPayments);
+            fail();
+        } catch (IllegalArgumentException e) {}
+    }
+
+    @Test
+    public void testNotSigned() {
+        TransactionTemplate template = new TransactionTemplate(build(1L, KeyPair.random(), "1", null, false, false));
+        try {
+            template.newTransaction(2L, KeyPair.random(), "1", null).toEnvelopeXdrBase64();
+            fail();
+        } catch (NotEnoughSignaturesException e) {}
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        TransactionTemplate template = new TransactionTemplate(build(1L, KeyPair.random(), "1", null, false, false));
+        TransactionTemplate.PatchedTransaction transaction = template.newTransaction(2L, KeyPair.random(), "1", null);
+        transaction.sign(source);
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.enqueue(new MockResponse().setBody("{\"hash\": \"" + Util.bytesToHex(transaction.hash()).toLowerCase() + "\", \"ledger\": 826150}"));
+        mockWebServer.start();
+        try {
+            Server server = new Server(mockWebServer.url("/").toString());
+            SubmitTransactionResponse response = server.submitTransaction(transaction.toEnvelopeXdrBase64());
+
+            assertTrue(response.isSuccess());
+            RecordedRequest request = mockWebServer.takeRequest();
+            assertEquals("POST", request.getMethod());
+            assertEquals("tx=" + transaction.toEnvelopeXdrBase64(), URLDecoder.decode(request.getBody().readUtf8(), "UTF-8"));
+        } finally {
+            mockWebServer.shutdown();
+        }
+    }
+
+    private Transaction build(long sequenceNumber, KeyPair destination, String amount, Memo memo, boolean timeBounds, boolean operationSource) {
+        PaymentOperation.Builder payment = new PaymentOperation.Builder(destination, asset, amount);
+        if (operationSource) {
+            payment.setSourceAccount(KeyPair.fromAccountId("GDW6AUTBXTOC7FIKUO5BOO3OGLK4SF7ZPOBLMQHMZDI45J2Z6VXRB5NR"));
+        }
+        Transaction.Builder builder = new Transaction.Builder(new Account(source, sequenceNumber))
+                .addOperation(new ManageDataOperation.Builder("payroll", new byte[]{1, 2, 3}).build())
+                .addOperation(payment.build())
+                .addOperation(new CreateAccountOperation.Builder(source, "10").build());
+        if (memo != null) {
+            builder.addMemo(memo);
+        }
+        if (timeBounds) {
+            builder.addTimeBounds(new TimeBounds(1000L, 2000L));
+        }
+        return builder.build();
+    }
+}
@@ -4,6 +4,7 @@ import android.util.Base64;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.stellar.sdk.xdr.Uint64;
 import org.stellar.sdk.xdr.XdrDataInputStream;
 
 import java.io.ByteArrayInputStream;
@@ -188,4 +189,128 @@ public class TransactionTest {
             assertTrue(exception.getMessage().contains("Memo has been already added."));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFromEnvelopeXdr() {
+        // GBPMKIRA2OQW2XZZQUCQILI5TMVZ6JNRKM423BSAISDM7ZFWQ6KWEBC4
+        KeyPair source = KeyPair.fromSecretSeed("SCH27VUZZ6UAKB67BDNF6FA42YMBMQCBKXWGMFD5TZ6S5ZZCZFLRXKHS");
+        KeyPair destination = KeyPair.fromAccountId("GDW6AUTBXTOC7FIKUO5BOO3OGLK4SF7ZPOBLMQHMZDI45J2Z6VXRB5NR");
+        KeyPair cosigner = KeyPair.random();
+
+        Account account = new Account(source, 2908908335136768L);
+        Transaction transaction = new Transaction.Builder(account)
+                .addOperation(new CreateAccountOperation.Builder(destination, "2000").build())
+                .addOperation(new PaymentOperation.Builder(destination, new AssetTypeNative(), "10.5").setSourceAccount(cosigner).build())
+                .addMemo(Memo.text("Hello world!"))
+                .addTimeBounds(new TimeBounds(42, 1337))
+                .build();
+        transaction.sign(source);
+
+        Transaction decoded = Transaction.fromEnvelopeXdr(transaction.toEnvelopeXdrBase64());
+        assertEquals(transaction.toEnvelopeXdrBase64(), decoded.toEnvelopeXdrBase64());
+        assertTrue(Arrays.equals(transaction.hash(), decoded.hash()));
+        assertEquals(source.getAccountId(), decoded.getSourceAccount().getAccountId());
+        assertEquals(transaction.getSequenceNumber(), decoded.getSequenceNumber());
+        assertEquals(transaction.getFee(), decoded.getFee());
+        assertEquals("Hello world!", ((MemoText) decoded.getMemo()).getText());
+        assertEquals(42, decoded.getTimeBounds().getMinTime());
+        assertEquals(1337, decoded.getTimeBounds().getMaxTime());
+        assertEquals(2, decoded.getOperations().length);
+        PaymentOperation payment = (PaymentOperation) decoded.getOperations()[1];
+        assertEquals("10.5", payment.getAmount());
+        assertEquals(cosigner.getAccountId(), payment.getSourceAccount().getAccountId());
+        assertEquals(1, decoded.getSignatures().size());
+
+        transaction.sign(cosigner);
+        decoded.sign(cosigner);
+        assertEquals(transaction.toEnvelopeXdrBase64(), decoded.toEnvelopeXdrBase64());
+        assertEquals(transaction.toEnvelopeXdr().getSignatures().length, decoded.toEnvelopeXdr().getSignatures().length);
+    }
+
+    @Test
+    public void testFromEnvelopeXdrHighMemoId() {
+        KeyPair source = KeyPair.fromSecretSeed("SCH27VUZZ6UAKB67BDNF6FA42YMBMQCBKXWGMFD5TZ6S5ZZCZFLRXKHS");
+        KeyPair destination = KeyPair.fromAccountId("GDW6AUTBXTOC7FIKUO5BOO3OGLK4SF7ZPOBLMQHMZDI45J2Z6VXRB5NR");
+        // 2^64 - 2, with the highest bit set
+        Uint64 id = new Uint64();
+        id.setUint64(-2L);
+
+        Transaction transaction = new Transaction.Builder(new Account(source, 2908908335136768L))
+                .addOperation(new CreateAccountOperation.Builder(destination, "2000").build())
+                .addMemo(new MemoId(id))
+                .build();
+        transaction.sign(source);
+
+        Transaction decoded = Transaction.fromEnvelopeXdr(transaction.toEnvelopeXdrBase64());
+        assertEquals(-2L, ((MemoId) decoded.getMemo()).getId());
+        assertEquals(transaction.toEnvelopeXdrBase64(), decoded.toEnvelopeXdrBase64());
+    }
+
+    @Test
+    public void testFromEnvelopeXdrInvalid() {
+        try {
+            Transaction.fromEnvelopeXdr("AAAA");
+            fail();
+        } catch (IllegalArgumentException exception) {
+            assertTrue(exception.getMessage().contains("Invalid transaction envelope"));
+        }
+    }
+
+    @Test
+    public void testMergeEnvelopeXdr() {
+        // GBPMKIRA2OQW2XZZQUCQILI5TMVZ6JNRKM423BSAISDM7ZFWQ6KWEBC4
+        KeyPair source = KeyPair.fromSecretSeed("SCH27VUZZ6UAKB67BDNF6FA42YMBMQCBKXWGMFD5TZ6S5ZZCZFLRXKHS");
+        KeyPair destination = KeyPair.fromAccountId("GDW6AUTBXTOC7FIKUO5BOO3OGLK4SF7ZPOBLMQHMZDI45J2Z6VXRB5NR");
+        KeyPair signer1 = KeyPair.random();
+        KeyPair signer2 = KeyPair.random();
+
+        Transaction transaction = new Transaction.Builder(new Account(source, 2908908335136768L))
+                .addOperation(new CreateAccountOperation.Builder(destination, "2000").build())
+                .build();
+        String signedBySource = signedBy(transaction, source);
+
+        Transaction partial1 = Transaction.fromEnvelopeXdr(signedBySource);
+        partial1.sign(signer1);
+        Transaction partial2 = Transaction.fromEnvelopeXdr(signedBySource);
+        partial2.sign(signer2);
+        partial2.sign(signer1);
+
+        Transaction merged = Transaction.fromEnvelopeXdr(
+                Transaction.mergeEnvelopeXdr(partial1.toEnvelopeXdrBase64(), partial2.toEnvelopeXdrBase64()));
+        assertTrue(Arrays.equals(transaction.hash(), merged.hash()));
+        assertEquals(3, merged.getSignatures().size());
+
+        transaction.sign(signer1);
+        transaction.sign(signer2);
+        assertEquals(transaction.toEnvelopeXdrBase64(), merged.toEnvelopeXdrBase64());
+
+        Transaction other = new Transaction.Builder(new Account(source, 2908908335136768L))
+                .addOperation(new CreateAccountOperation.Builder(destination, "2001").build())
+                .build();
+        try {
+            Transaction.mergeEnvelopeXdr(partial1.toEnvelopeXdrBase64(), signedBy(other, signer1));
+            fail();
+        } catch (IllegalArgumentException exception) {
+            assertTrue(exception.getMessage().contains("different transactions"));
+        }
+    }
+
+    @Test
+    public void testMergeEnvelopeXdrMaxSignatures() {
+        KeyPair source = KeyPair.random();
+        Transaction transaction = new Transaction.Builder(new Account(source, 1L))
+                .addOperation(new CreateAccountOperation.Builder(KeyPair.random(), "2000").build())
+                .build();
+        String[] envelopes = new String[Transaction.MAX_SIGNATURES + 5];
+        for (int i = 0; i < envelopes.length; i++) {
+            envelopes[i] = signedBy(Transaction.fromEnvelopeXdr(signedBy(transaction, source)), KeyPair.random());
+        }
+        Transaction merged = Transaction.fromEnvelopeXdr(Transaction.mergeEnvelopeXdr(envelopes));
+        assertEquals(Transaction.MAX_SIGNATURES, merged.getSignatures().size());
+    }
+
+    private static String signedBy(Transaction transaction, KeyPair signer) {
+        transaction.sign(signer);
+        return transaction.toEnvelopeXdrBase64();
+    }
+}
@@ -1,13 +1,45 @@
 package org.stellar.sdk.requests;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.stellar.sdk.KeyPair;
 import org.stellar.sdk.Server;
+import org.stellar.sdk.responses.AccountResponse;
+import org.stellar.sdk.responses.Page;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class AccountsRequestBuilderTest {
+
+  private static final String ACCOUNT_ID = "GAAZI4TCR3TY5OJHCTJC2A4QSY6CJWJH5IAJTGKIN2ER7LBNVKOCCWN7";
+  private static final String PAGE = "{\"_embedded\":{\"records\":[{\"account_id\":\"" + ACCOUNT_ID + "\"}]}}";
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
   @Test
   public void testAccounts() {
     Server server = new Server("https://horizon-testnet.stellar.org");
@@ -18,4 +50,133 @@ public class AccountsRequestBuilderTest {
             .buildUri();
     assertEquals("https://horizon-testnet.stellar.org/accounts?cursor=13537736921089&limit=200&order=asc", uri.toString());
   }
+
+  @Test
+  public void testAsyncOptions() {
+    Server server = new Server("https://horizon-testnet.stellar.org");
+    URI uri = server.accounts()
+            .executor(MoreExecutors.directExecutor())
+            .timeout(5, TimeUnit.SECONDS)
+            .limit(200)
+            .buildUri();
+    assertEquals("https://horizon-testnet.stellar.org/accounts?limit=200", uri.toString());
+  }
+
+  private AccountsRequestBuilder accounts(OkHttpClient client) {
+    return new AccountsRequestBuilder(client, server.url("/").uri());
+  }
+
+  @Test
+  public void testExecuteAsync() throws Exception {
+    server.enqueue(new MockResponse().setBody(PAGE));
+
+    Page<AccountResponse> page = accounts(new OkHttpClient()).limit(1).executeAsync().get(5, TimeUnit.SECONDS);
+    assertEquals(1, page.getRecords().size());
+    assertEquals(ACCOUNT_ID, page.getRecords().get(0).getKeypair().getAccountId());
+    assertEquals("/accounts?limit=1", server.takeRequest().getPath());
+  }
+
+  @Test
+  public void testExecuteAsyncConnectionFailure() throws Exception {
+    MockWebServer closed = new MockWebServer();
+    closed.start();
+    URI uri = closed.url("/accounts").uri();
+    closed.shutdown();
+
+    try {
+      accounts(new OkHttpClient()).executeAsync(uri).get(5, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+  }
+
+  @Test
+  public void testExecuteAsyncTooManyRequests() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "7"));
+
+    try {
+      accounts(new OkHttpClient()).executeAsync().get(5, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TooManyRequestsException);
+      assertEquals(7, ((TooManyRequestsException) e.getCause()).getRetryAfter());
+    }
+  }
+
+  @Test
+  public void testCoalescedAccountsAreParsedForEachCaller() throws Exception {
+    server.enqueue(new MockResponse().setBody("{\"account_id\":\"" + ACCOUNT_ID + "\",\"sequence\":\"100\"}"));
+    RequestCoalescer coalescer = new RequestCoalescer(1, TimeUnit.MINUTES);
+
+    AccountResponse first = accounts(new OkHttpClient()).coalescer(coalescer).account(KeyPair.fromAccountId(ACCOUNT_ID));
+    first.incrementSequenceNumber();
+    AccountResponse second = accounts(new OkHttpClient()).coalescer(coalescer).account(KeyPair.fromAccountId(ACCOUNT_ID));
+    assertNotSame(first, second);
+    assertEquals(Long.valueOf(100), second.getSequenceNumber());
+    assertEquals(1, server.getRequestCount());
+  }
+
+  @Test
+  public void testCoalescedAsyncPagesOfAccountsAreParsedForEachCaller() throws Exception {
+    server.enqueue(new MockResponse().setBody(PAGE));
+    RequestCoalescer coalescer = new RequestCoalescer(1, TimeUnit.MINUTES);
+
+    ListenableFuture<Page<AccountResponse>> first = accounts(new OkHttpClient()).coalescer(coalescer).executeAsync();
+    ListenableFuture<Page<AccountResponse>> second = accounts(new OkHttpClient()).coalescer(coalescer).executeAsync();
+    AccountResponse firstAccount = first.get(5, TimeUnit.SECONDS).getRecords().get(0);
+    AccountResponse secondAccount = second.get(5, TimeUnit.SECONDS).getRecords().get(0);
+    assertNotSame(firstAccount, secondAccount);
+    assertEquals(ACCOUNT_ID, secondAccount.getKeypair().getAccountId());
+    assertEquals(1, server.getRequestCount());
+  }
+
+  @Test
+  public void testCancelCancelsCall() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+    OkHttpClient client = new OkHttpClient();
+
+    ListenableFuture<Page<AccountResponse>> future = accounts(client).executeAsync();
+    server.takeRequest();
+    assertEquals(1, client.dispatcher().runningCallsCount());
+    assertTrue(future.cancel(true));
+
+    // Cancelled call finishes without waiting for the read timeout
+    for (int i = 0; i < 200 && client.dispatcher().runningCallsCount() > 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, client.dispatcher().runningCallsCount());
+  }
+
+  @Test
+  public void testCompletesOnExecutor() throws Exception {
+    final CountDownLatch listenerAdded = new CountDownLatch(1);
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        listenerAdded.await(5, TimeUnit.SECONDS);
+        return new MockResponse().setBody(PAGE);
+      }
+    });
+    ExecutorService executor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("callbacks-%d").build());
+    try {
+      ListenableFuture<Page<AccountResponse>> future = accounts(new OkHttpClient()).executor(executor).executeAsync();
+      final AtomicReference<String> thread = new AtomicReference<String>();
+      final CountDownLatch completed = new CountDownLatch(1);
+      future.addListener(new Runnable() {
+        @Override
+        public void run() {
+          thread.set(Thread.currentThread().getName());
+          completed.countDown();
+        }
+      }, MoreExecutors.directExecutor());
+      listenerAdded.countDown();
+
+      assertTrue(completed.await(5, TimeUnit.SECONDS));
+      assertEquals("callbacks-0", thread.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
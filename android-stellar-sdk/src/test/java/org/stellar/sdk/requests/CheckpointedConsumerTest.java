@@ -0,0 +1,168 @@
+package org.stellar.sdk.requests;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.stellar.sdk.responses.GsonSingleton;
+import org.stellar.sdk.responses.LedgerResponse;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class CheckpointedConsumerTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before
+  public void setUp() {
+    // Created by the store
+    directory = new File(temporaryFolder.getRoot(), "checkpoints");
+  }
+
+  private static class Ledgers implements EventListener<LedgerResponse> {
+    final List<Long> sequences = new ArrayList<Long>();
+    long failAt = -1;
+
+    @Override
+    public void onEvent(LedgerResponse ledger) {
+      if (ledger.getSequence() == failAt) {
+        throw new IllegalStateException("failed");
+      }
+      sequences.add(ledger.getSequence());
+    }
+  }
+
+  private static LedgerResponse ledger(long sequence) {
+    return GsonSingleton.getInstance().fromJson(
+            "{\"sequence\":" + sequence + ",\"paging_token\":\"" + (sequence << 32) + "\"}", LedgerResponse.class);
+  }
+
+  @Test
+  public void testFileStore() throws IOException {
+    FileCheckpointStore store = new FileCheckpointStore(directory);
+    assertNull(store.load("ledgers"));
+    store.save("ledgers", "123");
+    store.save("ledgers", "456");
+    assertEquals("456", new FileCheckpointStore(directory).load("ledgers"));
+    assertFalse(new File(directory, "ledgers.checkpoint.tmp").exists());
+
+    try {
+      store.save("../ledgers", "1");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testFileStoreReadsBackup() throws IOException {
+    // Save interrupted after the previous checkpoint was renamed to the backup
+    directory.mkdirs();
+    FileOutputStream out = new FileOutputStream(new File(directory, "ledgers.checkpoint.bak"));
+    out.write("123".getBytes(StandardCharsets.UTF_8));
+    out.close();
+    FileCheckpointStore store = new FileCheckpointStore(directory);
+    assertEquals("123", store.load("ledgers"));
+
+    store.save("ledgers", "456");
+    assertEquals("456", store.load("ledgers"));
+  }
+
+  @Test
+  public void testCheckpointsInBatches() throws IOException {
+    FileCheckpointStore store = new FileCheckpointStore(directory);
+    Ledgers ledgers = new Ledgers();
+    CheckpointedConsumer<LedgerResponse> consumer = CheckpointedConsumer.forLedgers("ledgers", store, ledgers)
+            .batchSize(3)
+            .maxDelay(1, TimeUnit.HOURS);
+    assertEquals("now", consumer.getCursor("now"));
+
+    for (long sequence = 1; sequence <= 4; sequence++) {
+      consumer.onEvent(ledger(sequence));
+    }
+    assertEquals(Long.toString(3L << 32), store.load("ledgers"));
+
+    consumer.close();
+    assertEquals(Long.toString(4L << 32), store.load("ledgers"));
+
+    // Restarted consumer resumes from the checkpoint
+    CheckpointedConsumer<LedgerResponse> restarted = CheckpointedConsumer.forLedgers("ledgers", store, ledgers);
+    assertEquals(Long.toString(4L << 32), restarted.getCursor("now"));
+  }
+
+  @Test
+  public void testCheckpointAfterDelay() throws Exception {
+    FileCheckpointStore store = new FileCheckpointStore(directory);
+    CheckpointedConsumer<LedgerResponse> consumer = CheckpointedConsumer.forLedgers("ledgers", store, new Ledgers())
+            .maxDelay(50, TimeUnit.MILLISECONDS);
+    consumer.onEvent(ledger(1));
+    assertNull(consumer.getCommittedCheckpoint());
+    for (int i = 0; i < 100 && consumer.getCommittedCheckpoint() == null; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(Long.toString(1L << 32), store.load("ledgers"));
+  }
+
+  @Test
+  public void testFailedDelayedCheckpointIsRetried() throws Exception {
+    final FileCheckpointStore files = new FileCheckpointStore(directory);
+    final int[] failures = {2};
+    CheckpointStore store = new CheckpointStore() {
+      @Override
+      public String load(String name) throws IOException {
+        return files.load(name);
+      }
+
+      @Override
+      public void save(String name, String pagingToken) throws IOException {
+        synchronized (failures) {
+          if (failures[0] > 0) {
+            failures[0]--;
+            throw new IOException("disk full");
+          }
+        }
+        files.save(name, pagingToken);
+      }
+    };
+    CheckpointedConsumer<LedgerResponse> consumer = CheckpointedConsumer.forLedgers("ledgers", store, new Ledgers())
+            .maxDelay(20, TimeUnit.MILLISECONDS);
+    consumer.onEvent(ledger(1));
+    // No more records arrive
+    for (int i = 0; i < 100 && consumer.getCommittedCheckpoint() == null; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(Long.toString(1L << 32), files.load("ledgers"));
+  }
+
+  @Test
+  public void testFailedRecordIsNotCheckpointed() throws IOException {
+    FileCheckpointStore store = new FileCheckpointStore(directory);
+    Ledgers ledgers = new Ledgers();
+    ledgers.failAt = 2;
+    CheckpointedConsumer<LedgerResponse> consumer = CheckpointedConsumer.forLedgers("ledgers", store, ledgers)
+            .batchSize(1);
+    consumer.onEvent(ledger(1));
+    try {
+      consumer.onEvent(ledger(2));
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected
+    }
+    consumer.close();
+    assertEquals(Long.toString(1L << 32), store.load("ledgers"));
+  }
+}
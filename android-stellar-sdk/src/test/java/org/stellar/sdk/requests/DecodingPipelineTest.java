@@ -0,0 +1,158 @@
+package org.stellar.sdk.requests;
+
+import org.junit.Test;
+import org.stellar.sdk.responses.LedgerResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DecodingPipelineTest {
+
+  private static class Sink implements DecodingPipeline.Sink<LedgerResponse> {
+    final List<Long> sequences = new ArrayList<Long>();
+    final List<String> tokens = new ArrayList<String>();
+    int overflows;
+    Throwable error;
+
+    @Override
+    public synchronized void deliver(int generation, LedgerResponse event, String pagingToken) {
+      sequences.add(event.getSequence());
+      tokens.add(pagingToken);
+    }
+
+    @Override
+    public synchronized void overflow(int generation) {
+      overflows++;
+    }
+
+    @Override
+    public synchronized void fail(int generation, Throwable error) {
+      this.error = error;
+    }
+  }
+
+  // Runs tasks when run() is called
+  private static class ManualExecutor implements Executor {
+    final List<Runnable> tasks = new ArrayList<Runnable>();
+
+    @Override
+    public void execute(Runnable command) {
+      tasks.add(command);
+    }
+
+    void run(int index) {
+      tasks.get(index).run();
+    }
+  }
+
+  private static String ledger(long sequence) {
+    return "{\"sequence\":" + sequence + "}";
+  }
+
+  @Test
+  public void testDeliversInOrder() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    Sink sink = new Sink();
+    DecodingPipeline<LedgerResponse> pipeline = new DecodingPipeline<LedgerResponse>(LedgerResponse.class, executor, 16, SSEStream.Overflow.BLOCK, sink);
+    for (long i = 1; i <= 1000; i++) {
+      pipeline.submit(1, ledger(i), Long.toString(i));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    synchronized (sink) {
+      assertEquals(1000, sink.sequences.size());
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(Long.valueOf(i + 1), sink.sequences.get(i));
+      }
+      assertEquals("1000", sink.tokens.get(999));
+    }
+    assertEquals(0, pipeline.getDepth());
+    assertTrue(pipeline.getMaxDepth() <= 16);
+  }
+
+  @Test
+  public void testWaitsForEarlierEvents() {
+    ManualExecutor executor = new ManualExecutor();
+    Sink sink = new Sink();
+    DecodingPipeline<LedgerResponse> pipeline = new DecodingPipeline<LedgerResponse>(LedgerResponse.class, executor, 16, SSEStream.Overflow.BLOCK, sink);
+    pipeline.submit(1, ledger(1), "1");
+    pipeline.submit(1, ledger(2), "2");
+
+    executor.run(1);
+    assertEquals(0, sink.sequences.size());
+    assertEquals(2, pipeline.getDepth());
+    executor.run(0);
+    assertEquals(2, sink.sequences.size());
+    assertEquals(Long.valueOf(1), sink.sequences.get(0));
+  }
+
+  @Test
+  public void testDropOldest() {
+    ManualExecutor executor = new ManualExecutor();
+    Sink sink = new Sink();
+    DecodingPipeline<LedgerResponse> pipeline = new DecodingPipeline<LedgerResponse>(LedgerResponse.class, executor, 2, SSEStream.Overflow.DROP_OLDEST, sink);
+    pipeline.submit(1, ledger(1), "1");
+    pipeline.submit(1, ledger(2), "2");
+    pipeline.submit(1, ledger(3), "3");
+    assertEquals(1, pipeline.getDropped());
+
+    for (int i = 0; i < 3; i++) {
+      executor.run(i);
+    }
+    assertEquals(2, sink.sequences.size());
+    assertEquals(Long.valueOf(2), sink.sequences.get(0));
+    assertEquals(Long.valueOf(3), sink.sequences.get(1));
+  }
+
+  @Test
+  public void testReconnectOnOverflow() {
+    ManualExecutor executor = new ManualExecutor();
+    Sink sink = new Sink();
+    DecodingPipeline<LedgerResponse> pipeline = new DecodingPipeline<LedgerResponse>(LedgerResponse.class, executor, 1, SSEStream.Overflow.RECONNECT, sink);
+    pipeline.submit(1, ledger(1), "1");
+    pipeline.submit(1, ledger(2), "2");
+    assertEquals(1, sink.overflows);
+    assertEquals(1, executor.tasks.size());
+  }
+
+  @Test
+  public void testBlockedSubmitGivesUpOnClear() throws InterruptedException {
+    ManualExecutor executor = new ManualExecutor();
+    Sink sink = new Sink();
+    final DecodingPipeline<LedgerResponse> pipeline = new DecodingPipeline<LedgerResponse>(LedgerResponse.class, executor, 1, SSEStream.Overflow.BLOCK, sink);
+    pipeline.submit(1, ledger(1), "1");
+
+    final CountDownLatch submitted = new CountDownLatch(1);
+    Thread reader = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        pipeline.submit(1, ledger(2), "2");
+        submitted.countDown();
+      }
+    });
+    reader.start();
+    assertEquals(false, submitted.await(100, TimeUnit.MILLISECONDS));
+    pipeline.clear();
+    assertTrue(submitted.await(5, TimeUnit.SECONDS));
+    assertEquals(0, pipeline.getDepth());
+  }
+
+  @Test
+  public void testDecodeError() {
+    ManualExecutor executor = new ManualExecutor();
+    Sink sink = new Sink();
+    DecodingPipeline<LedgerResponse> pipeline = new DecodingPipeline<LedgerResponse>(LedgerResponse.class, executor, 4, SSEStream.Overflow.BLOCK, sink);
+    pipeline.submit(1, "{\"sequence\":", "1");
+    executor.run(0);
+    assertTrue(sink.error != null);
+  }
+}
@@ -0,0 +1,101 @@
+package org.stellar.sdk.requests;
+
+import org.junit.Test;
+import org.stellar.sdk.responses.GsonSingleton;
+import org.stellar.sdk.responses.LedgerResponse;
+import org.stellar.sdk.responses.operations.OperationResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LedgerBatcherTest {
+
+  private static class Batches implements EventListener<List<OperationResponse>> {
+    final List<List<OperationResponse>> batches = new ArrayList<List<OperationResponse>>();
+
+    @Override
+    public void onEvent(List<OperationResponse> batch) {
+      batches.add(batch);
+    }
+  }
+
+  private static OperationResponse operation(long ledger, int index) {
+    long id = (ledger << 32) | (1 << 12) | index;
+    String json = "{\"id\":" + id + ",\"paging_token\":\"" + id + "\"," +
+            "\"source_account\":\"GB6NVEN5HSUBKMYCE5ZOWSK5K23TBWRUQLZY3KNMXUZ3AQ2ESC4MY4AQ\"," +
+            "\"type\":\"inflation\",\"type_i\":9}";
+    return GsonSingleton.getInstance().fromJson(json, OperationResponse.class);
+  }
+
+  @Test
+  public void testLedgerOf() {
+    assertEquals(917541L, PagingTokens.ledgerOf("3940808587743233"));
+    assertEquals(917541L, PagingTokens.ledgerOf("3940808587743233-1"));
+  }
+
+  @Test
+  public void testGroupsByLedger() {
+    Batches batches = new Batches();
+    LedgerBatcher<OperationResponse> batcher = LedgerBatcher.forOperations(batches);
+    batcher.onEvent(operation(10, 1));
+    batcher.onEvent(operation(10, 2));
+    batcher.onEvent(operation(12, 1));
+    assertEquals(1, batches.batches.size());
+    assertEquals(2, batches.batches.get(0).size());
+
+    batcher.onEvent(operation(13, 1));
+    assertEquals(2, batches.batches.size());
+    assertEquals(1, batches.batches.get(1).size());
+  }
+
+  @Test
+  public void testLedgerClose() {
+    Batches batches = new Batches();
+    LedgerBatcher<OperationResponse> batcher = LedgerBatcher.forOperations(batches);
+    batcher.onEvent(operation(10, 1));
+    batcher.onLedgerClosed(9);
+    assertEquals(0, batches.batches.size());
+
+    LedgerResponse ledger = GsonSingleton.getInstance().fromJson("{\"sequence\":10}", LedgerResponse.class);
+    batcher.ledgerCloseListener().onEvent(ledger);
+    assertEquals(1, batches.batches.size());
+    // Nothing to deliver
+    batcher.onLedgerClosed(11);
+    batcher.flush();
+    assertEquals(1, batches.batches.size());
+  }
+
+  @Test
+  public void testBatchIsKeptWhenListenerThrows() {
+    final List<List<OperationResponse>> delivered = new ArrayList<List<OperationResponse>>();
+    final boolean[] failing = {true};
+    LedgerBatcher<OperationResponse> batcher = LedgerBatcher.forOperations(new EventListener<List<OperationResponse>>() {
+      @Override
+      public void onEvent(List<OperationResponse> batch) {
+        if (failing[0]) {
+          throw new RuntimeException("Database write failed");
+        }
+        delivered.add(batch);
+      }
+    });
+    batcher.onEvent(operation(10, 1));
+    batcher.onEvent(operation(10, 2));
+    try {
+      batcher.onEvent(operation(11, 1));
+      fail();
+    } catch (RuntimeException e) {
+      // Stream delivers the event again after reconnect
+    }
+
+    failing[0] = false;
+    batcher.onEvent(operation(11, 1));
+    assertEquals(1, delivered.size());
+    assertEquals(2, delivered.get(0).size());
+    batcher.flush();
+    assertEquals(2, delivered.size());
+    assertEquals(1, delivered.get(1).size());
+  }
+}
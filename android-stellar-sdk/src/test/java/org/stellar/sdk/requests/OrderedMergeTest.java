@@ -0,0 +1,175 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.junit.Test;
+import org.stellar.sdk.responses.GsonSingleton;
+import org.stellar.sdk.responses.operations.OperationResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OrderedMergeTest {
+
+  private static class Records implements EventListener<OperationResponse> {
+    final List<Long> ids = new ArrayList<Long>();
+    String lastThread;
+
+    @Override
+    public synchronized void onEvent(OperationResponse operation) {
+      ids.add(operation.getId());
+      lastThread = Thread.currentThread().getName();
+    }
+
+    synchronized List<Long> ids() {
+      return new ArrayList<Long>(ids);
+    }
+  }
+
+  private static OperationResponse operation(long id) {
+    String json = "{\"id\":" + id + ",\"paging_token\":\"" + id + "\"," +
+            "\"source_account\":\"GB6NVEN5HSUBKMYCE5ZOWSK5K23TBWRUQLZY3KNMXUZ3AQ2ESC4MY4AQ\"," +
+            "\"type\":\"inflation\",\"type_i\":9}";
+    return GsonSingleton.getInstance().fromJson(json, OperationResponse.class);
+  }
+
+  private static List<Long> ids(long... ids) {
+    List<Long> list = new ArrayList<Long>();
+    for (long id : ids) {
+      list.add(id);
+    }
+    return list;
+  }
+
+  @Test
+  public void testComparePagingTokens() {
+    assertTrue(PagingTokens.compare("9", "10") < 0);
+    assertTrue(PagingTokens.compare("10-2", "10-10") < 0);
+    assertTrue(PagingTokens.compare("11-1", "10-10") > 0);
+    assertEquals(0, PagingTokens.compare("10", "10-0"));
+  }
+
+  @Test
+  public void testMergesInPagingTokenOrder() {
+    Records records = new Records();
+    OrderedMerge<OperationResponse> merge = OrderedMerge.forOperations(records, 2, 1, TimeUnit.MINUTES);
+    EventListener<OperationResponse> first = merge.source(0);
+    EventListener<OperationResponse> second = merge.source(1);
+
+    first.onEvent(operation(1));
+    first.onEvent(operation(4));
+    // Waiting for the second source
+    assertEquals(0, records.ids().size());
+    second.onEvent(operation(2));
+    assertEquals(ids(1, 2), records.ids());
+    second.onEvent(operation(3));
+    second.onEvent(operation(5));
+    assertEquals(ids(1, 2, 3, 4), records.ids());
+
+    merge.complete(0);
+    assertEquals(ids(1, 2, 3, 4, 5), records.ids());
+    assertEquals(0, merge.getBufferedRecords());
+  }
+
+  @Test
+  public void testLaggingSourceIsSkippedAfterWatermark() throws InterruptedException {
+    Records records = new Records();
+    OrderedMerge<OperationResponse> merge = OrderedMerge.forOperations(records, 2, 100, TimeUnit.MILLISECONDS);
+    merge.source(0).onEvent(operation(5));
+    assertEquals(1, merge.getBufferedRecords());
+
+    for (int i = 0; i < 100 && records.ids().isEmpty(); i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(ids(5), records.ids());
+    assertTrue(records.lastThread.startsWith("ordered-merge-"));
+
+    // Late record is emitted out of order
+    merge.source(1).onEvent(operation(3));
+    assertEquals(ids(5, 3), records.ids());
+    assertEquals(1, merge.getLateRecords());
+  }
+
+  @Test
+  public void testRecordOfSeveralSourcesIsEmittedOnce() {
+    Records records = new Records();
+    OrderedMerge<OperationResponse> merge = OrderedMerge.forOperations(records, 2, 1, TimeUnit.MINUTES);
+    EventListener<OperationResponse> first = merge.source(0);
+    EventListener<OperationResponse> second = merge.source(1);
+
+    // Payment between the two accounts, buffered from both sources
+    first.onEvent(operation(1));
+    first.onEvent(operation(2));
+    second.onEvent(operation(2));
+    second.onEvent(operation(3));
+    assertEquals(ids(1, 2), records.ids());
+
+    // Arrives after it was emitted
+    first.onEvent(operation(3));
+    first.onEvent(operation(4));
+    assertEquals(ids(1, 2, 3), records.ids());
+    second.onEvent(operation(4));
+    merge.complete(0);
+    merge.complete(1);
+    assertEquals(ids(1, 2, 3, 4), records.ids());
+    assertEquals(0, merge.getLateRecords());
+  }
+
+  @Test
+  public void testLateCopyOfEmittedRecordIsDropped() {
+    Records records = new Records();
+    // Every record is emitted immediately
+    OrderedMerge<OperationResponse> merge = OrderedMerge.forOperations(records, 2, 0, TimeUnit.MILLISECONDS);
+    merge.source(0).onEvent(operation(3));
+    merge.source(0).onEvent(operation(5));
+    assertEquals(ids(3, 5), records.ids());
+
+    merge.source(1).onEvent(operation(3));
+    merge.source(1).onEvent(operation(4));
+    assertEquals(ids(3, 5, 4), records.ids());
+    assertEquals(1, merge.getLateRecords());
+  }
+
+  @Test
+  public void testSlowListenerOnExecutorDoesNotBlockSources() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final Records records = new Records();
+    EventListener<OperationResponse> slow = new EventListener<OperationResponse>() {
+      @Override
+      public void onEvent(OperationResponse operation) {
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        records.onEvent(operation);
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(2,
+            new ThreadFactoryBuilder().setNameFormat("merged-%d").build());
+    try {
+      OrderedMerge<OperationResponse> merge = OrderedMerge.forOperations(slow, 1, 1, TimeUnit.MINUTES)
+              .executor(executor);
+      for (long id = 1; id <= 5; id++) {
+        merge.source(0).onEvent(operation(id));
+      }
+      assertEquals(0, records.ids().size());
+
+      release.countDown();
+      for (int i = 0; i < 500 && records.ids().size() < 5; i++) {
+        Thread.sleep(10);
+      }
+      assertEquals(ids(1, 2, 3, 4, 5), records.ids());
+      assertTrue(records.lastThread.startsWith("merged-"));
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
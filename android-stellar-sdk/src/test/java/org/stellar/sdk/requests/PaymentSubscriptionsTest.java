@@ -0,0 +1,142 @@
+package org.stellar.sdk.requests;
+
+import org.junit.Test;
+import org.stellar.sdk.KeyPair;
+import org.stellar.sdk.responses.operations.OperationResponse;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PaymentSubscriptionsTest {
+
+  private static final KeyPair FROM = KeyPair.fromAccountId("GB6NVEN5HSUBKMYCE5ZOWSK5K23TBWRUQLZY3KNMXUZ3AQ2ESC4MY4AQ");
+  private static final KeyPair TO = KeyPair.fromAccountId("GDWNY2POLGK65VVKIH5KQSH7VWLKRTQ5M6ADLJAYC2UEHEBEARCZJWWI");
+  private static final KeyPair OTHER = KeyPair.fromAccountId("GAZN3PPIDQCSP5JD4ETQQQ2IU2RMFYQTAL4NNQZUGLLO2XJJJ3RDSDGA");
+
+  private static String payment(long id, KeyPair from, KeyPair to) {
+    return "{\"amount\":\"100.0\",\"asset_type\":\"native\"," +
+            "\"from\":\"" + from.getAccountId() + "\"," +
+            "\"id\":" + id + ",\"paging_token\":\"" + id + "\"," +
+            "\"source_account\":\"" + from.getAccountId() + "\"," +
+            "\"to\":\"" + to.getAccountId() + "\"," +
+            "\"type\":\"payment\",\"type_i\":1}";
+  }
+
+  private static class TestPayments extends PaymentsRequestBuilder {
+    final List<SSEReader.Handler> handlers = new ArrayList<SSEReader.Handler>();
+    int streams;
+
+    TestPayments() {
+      super(null, URI.create("https://horizon.example.com"));
+    }
+
+    @Override
+    public SSEStream<OperationResponse> stream(EventListener<OperationResponse> listener, SSEStream.StateListener stateListener) {
+      streams++;
+      return new SSEStream<OperationResponse>(null, buildUri(), OperationResponse.class, listener, stateListener) {
+        @Override
+        Closeable open(URI uri, String lastEventId, SSEReader.Handler handler) {
+          handlers.add(handler);
+          return null;
+        }
+      }.start();
+    }
+
+    void message(long id, KeyPair from, KeyPair to) throws Exception {
+      handlers.get(handlers.size() - 1).onEvent(payment(id, from, to), Long.toString(id));
+    }
+  }
+
+  private static class Operations implements EventListener<OperationResponse> {
+    final List<Long> ids = new ArrayList<Long>();
+
+    @Override
+    public void onEvent(OperationResponse operation) {
+      ids.add(operation.getId());
+    }
+  }
+
+  @Test
+  public void testDeliversToWatchedAccounts() throws Exception {
+    TestPayments payments = new TestPayments();
+    PaymentSubscriptions subscriptions = new PaymentSubscriptions(payments);
+    assertNull(subscriptions.getStream());
+
+    Operations sender = new Operations();
+    Operations receiver = new Operations();
+    Operations both = new Operations();
+    subscriptions.subscribe(FROM, sender);
+    subscriptions.subscribe(TO, receiver);
+    subscriptions.subscribe(FROM, both);
+    subscriptions.subscribe(TO, both);
+    assertEquals(2, subscriptions.getAccountsCount());
+
+    payments.message(1, FROM, TO);
+    payments.message(2, OTHER, TO);
+    payments.message(3, OTHER, OTHER);
+
+    assertEquals(1, sender.ids.size());
+    assertEquals(2, receiver.ids.size());
+    // Delivered once even though both accounts are watched
+    assertEquals(2, both.ids.size());
+    assertEquals(1, payments.streams);
+    assertEquals("3", subscriptions.getStream().getLastPagingToken());
+    subscriptions.close();
+  }
+
+  @Test
+  public void testUnsubscribeKeepsStream() throws Exception {
+    TestPayments payments = new TestPayments();
+    PaymentSubscriptions subscriptions = new PaymentSubscriptions(payments);
+    Operations first = new Operations();
+    Operations second = new Operations();
+    subscriptions.subscribe(FROM, first);
+    SSEStream<OperationResponse> stream = subscriptions.getStream();
+
+    subscriptions.unsubscribe(FROM, first);
+    assertEquals(0, subscriptions.getAccountsCount());
+    subscriptions.subscribe(TO, second);
+    payments.message(1, FROM, TO);
+
+    assertEquals(0, first.ids.size());
+    assertEquals(1, second.ids.size());
+    assertSame(stream, subscriptions.getStream());
+    assertEquals(1, payments.handlers.size());
+
+    subscriptions.close();
+    assertEquals(SSEStream.State.CLOSED, stream.getState());
+  }
+
+  @Test
+  public void testFailingListenerDoesNotAffectOthers() throws Exception {
+    TestPayments payments = new TestPayments();
+    PaymentSubscriptions subscriptions = new PaymentSubscriptions(payments);
+    Operations first = new Operations();
+    Operations second = new Operations();
+    subscriptions.subscribe(FROM, first);
+    subscriptions.subscribe(TO, new EventListener<OperationResponse>() {
+      @Override
+      public void onEvent(OperationResponse operation) {
+        throw new IllegalStateException("poison record");
+      }
+    });
+    subscriptions.subscribe(TO, second);
+
+    payments.message(1, FROM, TO);
+    payments.message(2, FROM, TO);
+
+    assertEquals(2, first.ids.size());
+    assertEquals(2, second.ids.size());
+    assertEquals(2, subscriptions.getFailedDeliveries());
+    // Stream did not reconnect
+    assertEquals(1, payments.handlers.size());
+    assertEquals("2", subscriptions.getStream().getLastPagingToken());
+    subscriptions.close();
+  }
+}
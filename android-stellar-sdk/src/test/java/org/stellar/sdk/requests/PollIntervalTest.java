@@ -0,0 +1,42 @@
+package org.stellar.sdk.requests;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PollIntervalTest {
+
+  @Test
+  public void testFullPageIsFollowedImmediately() {
+    PollInterval interval = new PollInterval(60000);
+    assertEquals(0, interval.next(200, true, 10, 0));
+    assertEquals(PollInterval.DEFAULT_LEDGER_CLOSE_MILLIS, interval.next(50, false, 12, 100));
+  }
+
+  @Test
+  public void testAdaptsToLedgerCloseInterval() {
+    PollInterval interval = new PollInterval(60000);
+    interval.next(1, false, 10, 0);
+    // Ledgers close every 3 seconds
+    long now = 0;
+    for (int ledger = 11; ledger < 40; ledger++) {
+      now += 3000;
+      interval.next(1, false, ledger, now);
+    }
+    assertEquals(3000, interval.getLedgerCloseMillis(), 50);
+    assertEquals(interval.getLedgerCloseMillis(), interval.next(1, false, 40, now + 3000));
+  }
+
+  @Test
+  public void testBacksOffWhenIdle() {
+    PollInterval interval = new PollInterval(30000);
+    assertEquals(5000, interval.next(0, false, -1, 0));
+    assertEquals(10000, interval.next(0, false, -1, 5000));
+    assertEquals(20000, interval.next(0, false, -1, 15000));
+    assertEquals(30000, interval.next(0, false, -1, 35000));
+    assertEquals(30000, interval.next(0, false, -1, 65000));
+    // New records reset the backoff
+    assertEquals(5000, interval.next(1, false, 20, 70000));
+    assertEquals(5000, interval.next(0, false, -1, 75000));
+  }
+}
@@ -0,0 +1,167 @@
+package org.stellar.sdk.requests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.stellar.sdk.Server;
+import org.stellar.sdk.responses.LedgerResponse;
+
+import java.io.InterruptedIOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RateLimitInterceptorTest {
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  private static long elapsedMillis(long start) {
+    return (System.nanoTime() - start) / 1000000;
+  }
+
+  @Test
+  public void testUnknownLimitDoesNotBlock() throws InterruptedIOException {
+    RateLimitInterceptor interceptor = new RateLimitInterceptor();
+    long start = System.nanoTime();
+    for (int i = 0; i < 10; i++) {
+      interceptor.acquire();
+    }
+    assertTrue(elapsedMillis(start) < 500);
+  }
+
+  @Test
+  public void testWaitsForNextWindowWhenBudgetIsSpent() throws InterruptedIOException {
+    RateLimitInterceptor interceptor = new RateLimitInterceptor();
+    interceptor.acquire();
+    interceptor.release();
+    interceptor.update(100, 2, 1);
+
+    long start = System.nanoTime();
+    interceptor.acquire();
+    interceptor.release();
+    interceptor.acquire();
+    interceptor.release();
+    assertTrue(elapsedMillis(start) < 500);
+
+    // Budget spent, waits for the window to reset
+    interceptor.acquire();
+    interceptor.release();
+    assertTrue(elapsedMillis(start) >= 900);
+  }
+
+  @Test
+  public void testRequestsInFlightAreSubtractedFromBudget() throws InterruptedIOException {
+    RateLimitInterceptor interceptor = new RateLimitInterceptor();
+    interceptor.acquire();
+    interceptor.acquire();
+    // The first request returns while the second one is still in flight
+    interceptor.release();
+    interceptor.update(100, 1, 1);
+
+    long start = System.nanoTime();
+    interceptor.acquire();
+    assertTrue(elapsedMillis(start) >= 900);
+  }
+
+  @Test
+  public void testPauseWithRetryAfter() throws InterruptedIOException {
+    RateLimitInterceptor interceptor = new RateLimitInterceptor();
+    assertEquals(1000, interceptor.pause(1));
+
+    long start = System.nanoTime();
+    interceptor.acquire();
+    assertTrue(elapsedMillis(start) >= 900);
+  }
+
+  @Test
+  public void testPauseBackoff() {
+    RateLimitInterceptor interceptor = new RateLimitInterceptor();
+    assertEquals(1000, interceptor.pause(-1));
+    assertEquals(2000, interceptor.pause(-1));
+    assertEquals(4000, interceptor.pause(-1));
+    // Successful response resets backoff
+    interceptor.update(100, 100, 60);
+    assertEquals(1000, interceptor.pause(-1));
+    for (int i = 0; i < 20; i++) {
+      interceptor.pause(-1);
+    }
+    assertEquals(60000, interceptor.pause(-1));
+  }
+
+  private LedgersRequestBuilder ledgers(RateLimitInterceptor interceptor) {
+    OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+    return new LedgersRequestBuilder(client, server.url("/").uri());
+  }
+
+  @Test
+  public void testRetriesAfter429() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+    server.enqueue(new MockResponse().setBody("{\"sequence\":5}"));
+
+    long start = System.nanoTime();
+    LedgerResponse ledger = ledgers(new RateLimitInterceptor()).ledger(server.url("/ledgers/5").uri());
+    assertEquals(Long.valueOf(5), ledger.getSequence());
+    assertEquals(2, server.getRequestCount());
+    // Paused for Retry-After before retrying
+    assertTrue(elapsedMillis(start) >= 900);
+  }
+
+  @Test
+  public void testThrowsAfterMaxRetries() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+    }
+    server.enqueue(new MockResponse().setBody("{\"sequence\":5}"));
+
+    try {
+      ledgers(new RateLimitInterceptor(2)).ledger(server.url("/ledgers/5").uri());
+      fail();
+    } catch (TooManyRequestsException e) {
+      assertEquals(0, e.getRetryAfter());
+    }
+    // The first request and 2 retries
+    assertEquals(3, server.getRequestCount());
+  }
+
+  @Test
+  public void testServerIsNotLimitedByDefault() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+    server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+    server.enqueue(new MockResponse().setBody("{\"sequence\":5}"));
+    Server horizon = new Server(server.url("/").toString());
+
+    try {
+      horizon.ledgers().ledger(5);
+      fail();
+    } catch (TooManyRequestsException e) {
+      assertEquals(1, server.getRequestCount());
+    }
+
+    horizon.setRateLimited(true);
+    assertEquals(Long.valueOf(5), horizon.ledgers().ledger(5).getSequence());
+    assertEquals(3, server.getRequestCount());
+  }
+
+  @Test
+  public void testResponseRateLimitHeaders() throws Exception {
+    server.enqueue(new MockResponse().setBody("{\"sequence\":5}")
+            .setHeader("X-RateLimit-Limit", "3600")
+            .setHeader("X-RateLimit-Remaining", "3599")
+            .setHeader("X-RateLimit-Reset", "invalid"));
+
+    LedgerResponse ledger = ledgers(new RateLimitInterceptor()).ledger(server.url("/ledgers/5").uri());
+    assertEquals(3600, ledger.getRateLimitLimit());
+    assertEquals(3599, ledger.getRateLimitRemaining());
+    assertEquals(0, ledger.getRateLimitReset());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeMaxRetries() {
+    new RateLimitInterceptor(-1);
+  }
+}
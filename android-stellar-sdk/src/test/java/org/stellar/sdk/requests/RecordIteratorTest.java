@@ -0,0 +1,118 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+import org.stellar.sdk.responses.GsonSingleton;
+import org.stellar.sdk.responses.LedgerResponse;
+import org.stellar.sdk.responses.Page;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RecordIteratorTest {
+
+  private static final Type PAGE_TYPE = new TypeToken<Page<LedgerResponse>>() {}.getType();
+
+  /**
+   * Serves pages of <code>pageSize</code> ledgers until <code>total</code> ledgers were returned.
+   */
+  private static class FakeRequestBuilder extends RequestBuilder {
+    private final int pageSize;
+    private final int total;
+    private final boolean deferred;
+    final List<URI> requested = new ArrayList<URI>();
+    final List<SettableFuture<Object>> pending = new ArrayList<SettableFuture<Object>>();
+
+    FakeRequestBuilder(int pageSize, int total, boolean deferred) {
+      super(null, URI.create("https://horizon.example.com"), "ledgers");
+      this.pageSize = pageSize;
+      this.total = total;
+      this.deferred = deferred;
+    }
+
+    @Override
+    <T> ListenableFuture<T> executeAsync(URI uri, Type type) {
+      requested.add(uri);
+      String query = uri.getQuery();
+      int cursor = query == null ? 0 : Integer.parseInt(query.substring("cursor=".length()));
+      StringBuilder json = new StringBuilder("{\"_links\":{\"next\":{\"href\":\"https://horizon.example.com/ledgers?cursor=");
+      int end = Math.min(cursor + pageSize, total);
+      json.append(end).append("\"}},\"_embedded\":{\"records\":[");
+      for (int i = cursor; i < end; i++) {
+        json.append(i > cursor ? "," : "").append("{\"sequence\":").append(i).append("}");
+      }
+      json.append("]}}");
+      T page = GsonSingleton.getInstance().fromJson(json.toString(), type);
+      if (!deferred) {
+        return Futures.immediateFuture(page);
+      }
+      SettableFuture<Object> future = SettableFuture.create();
+      pending.add(future);
+      return (ListenableFuture<T>) future;
+    }
+  }
+
+  @Test
+  public void testIteratesAllRecords() {
+    for (int prefetch = 0; prefetch <= 3; prefetch++) {
+      FakeRequestBuilder builder = new FakeRequestBuilder(10, 95, false);
+      RecordIterator<LedgerResponse> iterator = new RecordIterator<LedgerResponse>(builder, builder.buildUri(), PAGE_TYPE, prefetch);
+      long expected = 0;
+      while (iterator.hasNext()) {
+        assertEquals(Long.valueOf(expected++), iterator.next().getSequence());
+      }
+      assertEquals(95, expected);
+      // 10 pages with records and one empty page
+      assertEquals(11, builder.requested.size());
+    }
+  }
+
+  @Test
+  public void testPrefetchIsBounded() {
+    FakeRequestBuilder builder = new FakeRequestBuilder(10, 1000, false);
+    RecordIterator<LedgerResponse> iterator = new RecordIterator<LedgerResponse>(builder, builder.buildUri(), PAGE_TYPE, 2);
+    assertTrue(iterator.hasNext());
+    // Page being consumed and two prefetched pages
+    assertEquals(3, builder.requested.size());
+    for (int i = 0; i < 10; i++) {
+      iterator.next();
+    }
+    assertTrue(iterator.hasNext());
+    assertEquals(4, builder.requested.size());
+  }
+
+  @Test
+  public void testCloseCancelsPendingRequests() {
+    FakeRequestBuilder builder = new FakeRequestBuilder(10, 1000, true);
+    RecordIterator<LedgerResponse> iterator = new RecordIterator<LedgerResponse>(builder, builder.buildUri(), PAGE_TYPE, 2);
+    assertEquals(1, builder.pending.size());
+    iterator.close();
+    assertTrue(builder.pending.get(0).isCancelled());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void testFailure() {
+    FakeRequestBuilder builder = new FakeRequestBuilder(10, 1000, true);
+    RecordIterator<LedgerResponse> iterator = new RecordIterator<LedgerResponse>(builder, builder.buildUri(), PAGE_TYPE, 1);
+    builder.pending.get(0).setException(new java.io.IOException("timeout"));
+    try {
+      iterator.hasNext();
+      fail();
+    } catch (RuntimeException e) {
+      assertEquals("timeout", e.getCause().getMessage());
+    }
+    assertFalse(iterator.hasNext());
+  }
+}
@@ -0,0 +1,163 @@
+package org.stellar.sdk.requests;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestCoalescerTest {
+
+  private static final URI URI_A = URI.create("https://horizon.example.com/accounts/A");
+  private static final URI URI_B = URI.create("https://horizon.example.com/accounts/B");
+
+  /**
+   * Returns futures completed by the test.
+   */
+  private static class PendingLoader implements RequestCoalescer.Loader<Object> {
+    final List<SettableFuture<Object>> requests = new ArrayList<SettableFuture<Object>>();
+
+    @Override
+    public ListenableFuture<Object> load() {
+      SettableFuture<Object> future = SettableFuture.create();
+      requests.add(future);
+      return future;
+    }
+  }
+
+  @Test
+  public void testSharesRequestInFlight() throws Exception {
+    RequestCoalescer coalescer = new RequestCoalescer();
+    PendingLoader loader = new PendingLoader();
+    ListenableFuture<Object> first = coalescer.coalesce(URI_A, String.class, loader);
+    ListenableFuture<Object> second = coalescer.coalesce(URI_A, String.class, loader);
+    assertEquals(1, loader.requests.size());
+
+    Object response = new Object();
+    loader.requests.get(0).set(response);
+    assertSame(response, first.get());
+    assertSame(response, second.get());
+
+    // Without reuse window a completed request is not reused
+    coalescer.coalesce(URI_A, String.class, loader);
+    assertEquals(2, loader.requests.size());
+  }
+
+  @Test
+  public void testDifferentRequestsAreNotShared() {
+    RequestCoalescer coalescer = new RequestCoalescer();
+    PendingLoader loader = new PendingLoader();
+    coalescer.coalesce(URI_A, String.class, loader);
+    coalescer.coalesce(URI_B, String.class, loader);
+    coalescer.coalesce(URI_A, Integer.class, loader);
+    assertEquals(3, loader.requests.size());
+  }
+
+  @Test
+  public void testReuseWindow() throws Exception {
+    RequestCoalescer coalescer = new RequestCoalescer(200, TimeUnit.MILLISECONDS);
+    PendingLoader loader = new PendingLoader();
+    coalescer.coalesce(URI_A, String.class, loader);
+    Object response = new Object();
+    loader.requests.get(0).set(response);
+
+    assertSame(response, coalescer.coalesce(URI_A, String.class, loader).get());
+    assertEquals(1, loader.requests.size());
+
+    Thread.sleep(250);
+    ListenableFuture<Object> expired = coalescer.coalesce(URI_A, String.class, loader);
+    assertEquals(2, loader.requests.size());
+    loader.requests.get(1).set(new Object());
+    assertNotSame(response, expired.get());
+  }
+
+  @Test
+  public void testFailureIsNotReused() {
+    RequestCoalescer coalescer = new RequestCoalescer(1, TimeUnit.MINUTES);
+    PendingLoader loader = new PendingLoader();
+    ListenableFuture<Object> first = coalescer.coalesce(URI_A, String.class, loader);
+    loader.requests.get(0).setException(new IOException("timeout"));
+    assertTrue(first.isDone());
+
+    coalescer.coalesce(URI_A, String.class, loader);
+    assertEquals(2, loader.requests.size());
+  }
+
+  @Test
+  public void testConcurrentCallers() throws Exception {
+    final RequestCoalescer coalescer = new RequestCoalescer();
+    final SettableFuture<Object> response = SettableFuture.create();
+    final int[] loads = new int[1];
+    final RequestCoalescer.Loader<Object> loader = new RequestCoalescer.Loader<Object>() {
+      @Override
+      public ListenableFuture<Object> load() {
+        synchronized (loads) {
+          loads[0]++;
+        }
+        return response;
+      }
+    };
+
+    final List<Object> results = new ArrayList<Object>();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 8; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            Object result = coalescer.coalesce(URI_A, String.class, loader).get();
+            synchronized (results) {
+              results.add(result);
+            }
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    Thread.sleep(50);
+    Object value = new Object();
+    response.set(value);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(1, loads[0]);
+    assertEquals(8, results.size());
+    for (Object result : results) {
+      assertSame(value, result);
+    }
+  }
+
+  @Test
+  public void testLoaderExceptionIsNotShared() {
+    RequestCoalescer coalescer = new RequestCoalescer(1, TimeUnit.MINUTES);
+    try {
+      coalescer.coalesce(URI_A, String.class, new RequestCoalescer.Loader<Object>() {
+        @Override
+        public ListenableFuture<Object> load() {
+          throw new IllegalStateException();
+        }
+      });
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    PendingLoader loader = new PendingLoader();
+    coalescer.coalesce(URI_A, String.class, loader);
+    assertEquals(1, loader.requests.size());
+  }
+}
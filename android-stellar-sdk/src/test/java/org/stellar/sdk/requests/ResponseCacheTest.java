@@ -0,0 +1,188 @@
+package org.stellar.sdk.requests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.stellar.sdk.responses.LedgerResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheTest {
+
+  private static final URI LEDGER = URI.create("https://horizon.example.com/ledgers/5");
+  private static final URI ACCOUNT = URI.create("https://horizon.example.com/accounts/GABC");
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = File.createTempFile("response-cache", "");
+    directory.delete();
+  }
+
+  @After
+  public void tearDown() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void testImmutablePaths() {
+    assertTrue(ResponseCache.isImmutable(URI.create("https://horizon.example.com/ledgers/5")));
+    assertTrue(ResponseCache.isImmutable(URI.create("https://horizon.example.com/ledgers/5/transactions?cursor=10&limit=200")));
+    assertTrue(ResponseCache.isImmutable(URI.create("https://horizon.example.com/horizon/operations/123/effects")));
+    assertTrue(ResponseCache.isImmutable(URI.create("https://horizon.example.com/transactions/6391dd190f15f7d1665ba53c63842e368f485651a53d8d852ed442a446d1c69a/payments")));
+
+    assertFalse(ResponseCache.isImmutable(URI.create("https://horizon.example.com/ledgers?order=desc")));
+    assertFalse(ResponseCache.isImmutable(URI.create("https://horizon.example.com/transactions")));
+    assertFalse(ResponseCache.isImmutable(URI.create("https://horizon.example.com/accounts/GABC/transactions")));
+    assertFalse(ResponseCache.isImmutable(URI.create("https://horizon.example.com/order_book?selling_asset_type=native")));
+    assertFalse(ResponseCache.isImmutable(ACCOUNT));
+  }
+
+  @Test
+  public void testMemoryCache() {
+    ResponseCache cache = new ResponseCache(10);
+    assertNull(cache.lookup(LEDGER, LedgerResponse.class));
+    LedgerResponse ledger = cache.store(LEDGER, LedgerResponse.class, null, "{\"sequence\":5}", null);
+
+    ResponseCache.Entry entry = cache.lookup(LEDGER, LedgerResponse.class);
+    assertTrue(cache.isFresh(LEDGER, entry));
+    assertSame(ledger, cache.value(LEDGER, LedgerResponse.class, entry));
+  }
+
+  @Test
+  public void testMemoryCacheIsBounded() {
+    ResponseCache cache = new ResponseCache(2);
+    for (int i = 1; i <= 3; i++) {
+      cache.store(URI.create("https://horizon.example.com/ledgers/" + i), LedgerResponse.class, null, "{\"sequence\":" + i + "}", null);
+    }
+    assertNull(cache.lookup(URI.create("https://horizon.example.com/ledgers/1"), LedgerResponse.class));
+    assertNotNull(cache.lookup(URI.create("https://horizon.example.com/ledgers/3"), LedgerResponse.class));
+  }
+
+  @Test
+  public void testDiskCache() {
+    new ResponseCache(10, directory, 1024 * 1024).store(LEDGER, LedgerResponse.class, "\"abc\"", "{\"sequence\":5}", null);
+
+    // New cache with the same directory, e.g. after restart
+    ResponseCache cache = new ResponseCache(10, directory, 1024 * 1024);
+    ResponseCache.Entry entry = cache.lookup(LEDGER, LedgerResponse.class);
+    assertEquals("\"abc\"", entry.etag);
+    assertTrue(cache.isFresh(LEDGER, entry));
+    LedgerResponse ledger = cache.value(LEDGER, LedgerResponse.class, entry);
+    assertEquals(Long.valueOf(5), ledger.getSequence());
+    // Parsed response is kept in memory
+    assertSame(ledger, cache.value(LEDGER, LedgerResponse.class, cache.lookup(LEDGER, LedgerResponse.class)));
+  }
+
+  @Test
+  public void testDiskCacheIsBounded() {
+    ResponseCache cache = new ResponseCache(10, directory, 1000);
+    StringBuilder padding = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      padding.append(' ');
+    }
+    for (int i = 1; i <= 20; i++) {
+      cache.store(URI.create("https://horizon.example.com/ledgers/" + i), LedgerResponse.class, null, "{\"sequence\":" + i + "}" + padding, null);
+    }
+    long size = 0;
+    for (File file : directory.listFiles()) {
+      size += file.length();
+    }
+    assertTrue(size <= 1000);
+  }
+
+  @Test
+  public void testMutableTtl() throws InterruptedException {
+    ResponseCache cache = new ResponseCache(10);
+    cache.store(ACCOUNT, LedgerResponse.class, "\"v1\"", "{\"sequence\":5}", null);
+    ResponseCache.Entry entry = cache.lookup(ACCOUNT, LedgerResponse.class);
+    // Revalidated by default
+    assertFalse(cache.isFresh(ACCOUNT, entry));
+
+    cache.mutableTtl(100, TimeUnit.MILLISECONDS);
+    assertTrue(cache.isFresh(ACCOUNT, entry));
+    Thread.sleep(150);
+    assertFalse(cache.isFresh(ACCOUNT, entry));
+  }
+
+  @Test
+  public void testClear() {
+    ResponseCache cache = new ResponseCache(10, directory, 1024 * 1024);
+    cache.store(LEDGER, LedgerResponse.class, null, "{\"sequence\":5}", null);
+    cache.clear();
+    assertNull(cache.lookup(LEDGER, LedgerResponse.class));
+  }
+
+  private LedgersRequestBuilder ledgers(ResponseCache cache) {
+    return new LedgersRequestBuilder(new OkHttpClient(), server.url("/").uri()).responseCache(cache);
+  }
+
+  @Test
+  public void testImmutableResponseIsServedFromCache() throws Exception {
+    ResponseCache cache = new ResponseCache(10);
+    server.enqueue(new MockResponse().setBody("{\"sequence\":5}"));
+    URI uri = server.url("/ledgers/5").uri();
+
+    LedgerResponse ledger = ledgers(cache).ledger(uri);
+    assertSame(ledger, ledgers(cache).ledger(uri));
+    assertEquals(1, server.getRequestCount());
+  }
+
+  @Test
+  public void testRevalidatesWithETag() throws Exception {
+    ResponseCache cache = new ResponseCache(10, directory, 1024 * 1024);
+    server.enqueue(new MockResponse().setBody("{\"sequence\":5}").setHeader("ETag", "\"v1\""));
+    server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+    server.enqueue(new MockResponse().setBody("{\"sequence\":6}").setHeader("ETag", "\"v2\""));
+    URI uri = server.url("/ledgers?order=desc&limit=1").uri();
+
+    LedgerResponse ledger = ledgers(cache).ledger(uri);
+    assertNull(server.takeRequest().getHeader("If-None-Match"));
+
+    // Not modified
+    assertSame(ledger, ledgers(cache).ledger(uri));
+    assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+
+    // Modified
+    LedgerResponse latest = ledgers(cache).ledger(uri);
+    assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    assertEquals(Long.valueOf(6), latest.getSequence());
+    assertEquals("\"v2\"", new ResponseCache(10, directory, 1024 * 1024).lookup(uri, LedgerResponse.class).etag);
+  }
+
+  @Test
+  public void testResponseWhichCannotBeReusedIsNotStored() throws Exception {
+    ResponseCache cache = new ResponseCache(10, directory, 1024 * 1024);
+    server.enqueue(new MockResponse().setBody("{\"sequence\":5}"));
+    URI uri = server.url("/ledgers?order=desc&limit=1").uri();
+
+    assertEquals(Long.valueOf(5), ledgers(cache).ledger(uri).getSequence());
+    assertNull(cache.lookup(uri, LedgerResponse.class));
+    assertFalse(directory.exists());
+  }
+}
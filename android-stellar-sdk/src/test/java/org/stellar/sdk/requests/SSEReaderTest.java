@@ -0,0 +1,116 @@
+package org.stellar.sdk.requests;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SSEReaderTest {
+
+  private static class Events implements SSEReader.Handler {
+    final List<String> data = new ArrayList<String>();
+    final List<String> ids = new ArrayList<String>();
+    int comments;
+
+    @Override
+    public void onOpen() {
+    }
+
+    @Override
+    public void onEvent(String data, String id) {
+      this.data.add(data);
+      this.ids.add(id);
+    }
+
+    @Override
+    public void onComment() {
+      comments++;
+    }
+
+    @Override
+    public void onClosed(Throwable error) {
+    }
+  }
+
+  private static Events parse(String stream) throws IOException {
+    return parse(new ByteArrayInputStream(stream.getBytes("UTF-8")));
+  }
+
+  private static Events parse(InputStream in) throws IOException {
+    Events events = new Events();
+    new SSEReader.Parser(events).parse(in);
+    return events;
+  }
+
+  @Test
+  public void testParseEvents() throws IOException {
+    Events events = parse("retry: 1000\n" +
+            "event: open\n" +
+            "data: \"hello\"\n" +
+            "\n" +
+            ": keep-alive\n" +
+            "id: 12884901888\n" +
+            "data: {\"sequence\":3}\n" +
+            "\n" +
+            "id:17179869184\n" +
+            "data:{\"sequence\":\n" +
+            "data: 4}\n" +
+            "\n");
+    assertEquals(3, events.data.size());
+    assertEquals("\"hello\"", events.data.get(0));
+    assertNull(events.ids.get(0));
+    assertEquals("{\"sequence\":3}", events.data.get(1));
+    assertEquals("12884901888", events.ids.get(1));
+    assertEquals("{\"sequence\":\n4}", events.data.get(2));
+    assertEquals("17179869184", events.ids.get(2));
+    assertEquals(1, events.comments);
+  }
+
+  @Test
+  public void testIdIsKeptForFollowingEvents() throws IOException {
+    Events events = parse("id: 1\ndata: a\n\ndata: b\n\nid: 1\ndata: c\n\n");
+    assertEquals("1", events.ids.get(1));
+    // Unchanged ID is not converted again
+    assertSame(events.ids.get(0), events.ids.get(2));
+  }
+
+  @Test
+  public void testLineTerminators() throws IOException {
+    Events events = parse("data: a\r\n\r\ndata: b\r\rdata: c\n\ndata: incomplete");
+    assertEquals(3, events.data.size());
+    assertEquals("a", events.data.get(0));
+    assertEquals("b", events.data.get(1));
+    assertEquals("c", events.data.get(2));
+  }
+
+  @Test
+  public void testLongLinesAndSmallReads() throws IOException {
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      value.append((char) ('a' + i % 26));
+    }
+    final byte[] bytes = ("data: " + value + "\n\n").getBytes("UTF-8");
+    // Returns at most 7 bytes per read
+    InputStream in = new ByteArrayInputStream(bytes) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, Math.min(len, 7));
+      }
+    };
+    Events events = parse(in);
+    assertEquals(value.toString(), events.data.get(0));
+  }
+
+  @Test
+  public void testUtf8() throws IOException {
+    Events events = parse("data: {\"memo\":\"zażółć\"}\n\n");
+    assertEquals("{\"memo\":\"zażółć\"}", events.data.get(0));
+  }
+}
@@ -0,0 +1,459 @@
+package org.stellar.sdk.requests;
+
+import org.junit.Test;
+import org.stellar.sdk.responses.GsonSingleton;
+import org.stellar.sdk.responses.LedgerResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.HttpUrl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SSEStreamTest {
+
+  private static final URI LEDGERS = URI.create("https://horizon.example.com/ledgers");
+
+  private static class Connection implements Closeable {
+    final URI uri;
+    final String lastEventId;
+    final SSEReader.Handler handler;
+    volatile boolean closed;
+
+    Connection(URI uri, String lastEventId, SSEReader.Handler handler) {
+      this.uri = uri;
+      this.lastEventId = lastEventId;
+      this.handler = handler;
+    }
+
+    void message(String data, String id) throws Exception {
+      handler.onEvent(data, id);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    // Connection opened on the reconnect thread can be closed after close() of the stream returns
+    boolean awaitClosed() throws InterruptedException {
+      for (int i = 0; i < 100 && !closed; i++) {
+        Thread.sleep(10);
+      }
+      return closed;
+    }
+  }
+
+  private static class TestStream extends SSEStream<LedgerResponse> {
+    final BlockingQueue<Connection> connections = new LinkedBlockingQueue<Connection>();
+
+    TestStream(URI uri, EventListener<LedgerResponse> listener, StateListener stateListener) {
+      this(uri, listener, new Options().stateListener(stateListener));
+    }
+
+    TestStream(URI uri, EventListener<LedgerResponse> listener, Options options) {
+      this(uri, listener, options, null);
+    }
+
+    TestStream(URI uri, EventListener<LedgerResponse> listener, Options options, Pages<LedgerResponse> pages) {
+      super(null, uri, LedgerResponse.class, listener, options, pages, 10, 40);
+    }
+
+    @Override
+    Closeable open(URI uri, String lastEventId, SSEReader.Handler handler) {
+      Connection connection = new Connection(uri, lastEventId, handler);
+      connections.add(connection);
+      return connection;
+    }
+
+    Connection next() throws InterruptedException {
+      Connection connection = connections.poll(5, TimeUnit.SECONDS);
+      assertNotNull(connection);
+      return connection;
+    }
+  }
+
+  private static class Ledgers implements EventListener<LedgerResponse> {
+    final List<Long> sequences = new ArrayList<Long>();
+
+    @Override
+    public synchronized void onEvent(LedgerResponse ledger) {
+      sequences.add(ledger.getSequence());
+    }
+
+    synchronized List<Long> sequences() {
+      return new ArrayList<Long>(sequences);
+    }
+  }
+
+  // Ledgers 1 to 10
+  private static class LedgerHistory implements SSEStream.Pages<LedgerResponse> {
+    final List<String> cursors = new ArrayList<String>();
+
+    @Override
+    public synchronized List<LedgerResponse> fetch(String cursor) {
+      cursors.add(cursor);
+      List<LedgerResponse> ledgers = new ArrayList<LedgerResponse>();
+      for (long sequence = PagingTokens.ledgerOf(cursor) + 1; sequence <= 10 && ledgers.size() < 3; sequence++) {
+        ledgers.add(GsonSingleton.getInstance().fromJson(ledger(sequence), LedgerResponse.class));
+      }
+      return ledgers;
+    }
+
+    @Override
+    public LedgerResponse latest() {
+      return GsonSingleton.getInstance().fromJson(ledger(10), LedgerResponse.class);
+    }
+
+    @Override
+    public int pageSize() {
+      return 3;
+    }
+
+    @Override
+    public String pagingToken(LedgerResponse ledger) {
+      return ledger.getPagingToken();
+    }
+
+    @Override
+    public boolean hasEveryLedger() {
+      return true;
+    }
+  }
+
+  private static String ledger(long sequence) {
+    return "{\"sequence\":" + sequence + ",\"paging_token\":\"" + token(sequence) + "\"}";
+  }
+
+  private static String token(long sequence) {
+    return Long.toString(sequence << 32);
+  }
+
+  private static class States implements SSEStream.StateListener {
+    final List<SSEStream.State> states = new ArrayList<SSEStream.State>();
+
+    @Override
+    public synchronized void onStateChanged(SSEStream.State state, Throwable error) {
+      states.add(state);
+    }
+  }
+
+  @Test
+  public void testBackoff() {
+    TestStream stream = new TestStream(LEDGERS, new Ledgers(), new SSEStream.Options());
+    for (int i = 0; i < 100; i++) {
+      long first = stream.backoff(0);
+      assertTrue(first >= 5 && first <= 10);
+      long capped = stream.backoff(30);
+      assertTrue(capped >= 20 && capped <= 40);
+    }
+  }
+
+  @Test
+  public void testReconnectResumesFromLastEvent() throws Exception {
+    Ledgers ledgers = new Ledgers();
+    States states = new States();
+    TestStream stream = new TestStream(LEDGERS, ledgers, states);
+    stream.start();
+
+    Connection first = stream.next();
+    assertEquals(LEDGERS, first.uri);
+    assertNull(first.lastEventId);
+    first.handler.onOpen();
+    first.message("\"hello\"", null);
+    first.message("{\"sequence\":5}", "21474836480");
+    assertEquals("21474836480", stream.getLastPagingToken());
+
+    first.handler.onClosed(new IOException("connection reset"));
+    assertTrue(first.closed);
+    assertEquals(SSEStream.State.RECONNECTING, stream.getState());
+
+    Connection second = stream.next();
+    assertEquals("21474836480", second.lastEventId);
+    assertEquals("21474836480", HttpUrl.get(second.uri).queryParameter("cursor"));
+    // Events of the failed connection are ignored
+    first.message("{\"sequence\":6}", "25769803776");
+    second.handler.onOpen();
+    second.message("{\"sequence\":6}", "25769803776");
+
+    assertEquals(2, ledgers.sequences.size());
+    assertEquals(Long.valueOf(6), ledgers.sequences.get(1));
+    assertEquals(SSEStream.State.OPEN, stream.getState());
+
+    stream.close();
+    assertTrue(second.awaitClosed());
+    second.message("{\"sequence\":7}", "30064771072");
+    assertEquals(2, ledgers.sequences.size());
+
+    List<SSEStream.State> expected = new ArrayList<SSEStream.State>();
+    expected.add(SSEStream.State.OPEN);
+    expected.add(SSEStream.State.RECONNECTING);
+    expected.add(SSEStream.State.OPEN);
+    expected.add(SSEStream.State.CLOSED);
+    assertEquals(expected, states.states);
+  }
+
+  @Test
+  public void testStartsFromRequestCursor() throws Exception {
+    TestStream stream = new TestStream(URI.create("https://horizon.example.com/ledgers?cursor=now"), new Ledgers(), new SSEStream.Options());
+    assertEquals("now", stream.getLastPagingToken());
+    stream.start();
+    assertEquals("now", stream.next().lastEventId);
+    stream.close();
+  }
+
+  @Test
+  public void testClosedStreamDoesNotReconnect() throws Exception {
+    TestStream stream = new TestStream(LEDGERS, new Ledgers(), new SSEStream.Options());
+    stream.start();
+    Connection connection = stream.next();
+    stream.close();
+    connection.handler.onClosed(null);
+    assertNull(stream.connections.poll(100, TimeUnit.MILLISECONDS));
+    assertEquals(SSEStream.State.CLOSED, stream.getState());
+  }
+
+  @Test
+  public void testQueueOverflowReconnectsFromLastDeliveredEvent() throws Exception {
+    final List<Runnable> tasks = new ArrayList<Runnable>();
+    Executor executor = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        tasks.add(command);
+      }
+    };
+    Ledgers ledgers = new Ledgers();
+    TestStream stream = new TestStream(LEDGERS, ledgers, new SSEStream.Options()
+            .decodeExecutor(executor)
+            .queueCapacity(2)
+            .overflow(SSEStream.Overflow.RECONNECT));
+    stream.start();
+    Connection first = stream.next();
+    first.handler.onOpen();
+    first.message("{\"sequence\":5}", "5");
+    tasks.get(0).run();
+    assertEquals("5", stream.getLastPagingToken());
+
+    first.message("{\"sequence\":6}", "6");
+    first.message("{\"sequence\":7}", "7");
+    assertEquals(2, stream.getQueueDepth());
+    first.message("{\"sequence\":8}", "8");
+    assertEquals(SSEStream.State.RECONNECTING, stream.getState());
+    assertEquals(0, stream.getQueueDepth());
+
+    Connection second = stream.next();
+    assertEquals("5", second.lastEventId);
+    // Decoded events of the dropped queue are not delivered
+    tasks.get(1).run();
+    assertEquals(1, ledgers.sequences.size());
+    stream.close();
+  }
+
+  @Test
+  public void testBackfillBeforeLive() throws Exception {
+    Ledgers ledgers = new Ledgers();
+    LedgerHistory history = new LedgerHistory();
+    TestStream stream = new TestStream(URI.create("https://horizon.example.com/ledgers?cursor=" + token(4)), ledgers,
+            new SSEStream.Options().backfillGaps(true), history);
+    stream.start();
+
+    Connection connection = stream.next();
+    assertEquals(token(10), connection.lastEventId);
+    assertEquals(6, ledgers.sequences().size());
+    assertEquals(6, stream.getBackfilledEvents());
+    // Already delivered
+    connection.message(ledger(10), token(10));
+    connection.message(ledger(11), token(11));
+    assertEquals(7, ledgers.sequences().size());
+    assertEquals(Long.valueOf(11), ledgers.sequences().get(6));
+    assertEquals(1, stream.getDuplicateEvents());
+    stream.close();
+  }
+
+  @Test
+  public void testMissingLedgersAreBackfilled() throws Exception {
+    Ledgers ledgers = new Ledgers();
+    LedgerHistory history = new LedgerHistory();
+    TestStream stream = new TestStream(LEDGERS, ledgers, new SSEStream.Options().backfillGaps(true), history);
+    stream.start();
+
+    Connection first = stream.next();
+    first.message(ledger(2), token(2));
+    first.message(ledger(5), token(5));
+    assertEquals(SSEStream.State.RECONNECTING, stream.getState());
+    assertTrue(first.closed);
+
+    Connection second = stream.next();
+    assertEquals(token(2), history.cursors.get(0));
+    assertEquals(token(10), second.lastEventId);
+    List<Long> sequences = ledgers.sequences();
+    assertEquals(9, sequences.size());
+    for (int i = 0; i < sequences.size(); i++) {
+      assertEquals(Long.valueOf(i + 2), sequences.get(i));
+    }
+    stream.close();
+  }
+
+  @Test
+  public void testListenerFailingDuringBackfillOpensOneConnection() throws Exception {
+    final AtomicBoolean failed = new AtomicBoolean();
+    Ledgers ledgers = new Ledgers() {
+      @Override
+      public synchronized void onEvent(LedgerResponse ledger) {
+        if (ledger.getSequence() == 6 && failed.compareAndSet(false, true)) {
+          throw new IllegalStateException("listener failed");
+        }
+        super.onEvent(ledger);
+      }
+    };
+    TestStream stream = new TestStream(URI.create("https://horizon.example.com/ledgers?cursor=" + token(4)), ledgers,
+            new SSEStream.Options().backfillGaps(true), new LedgerHistory());
+    stream.start();
+
+    Connection connection = stream.next();
+    assertEquals(token(10), connection.lastEventId);
+    assertTrue(failed.get());
+    // The failed backfill does not connect, only the reconnect it scheduled does
+    assertNull(stream.connections.poll(100, TimeUnit.MILLISECONDS));
+    assertFalse(connection.closed);
+    assertEquals(6, ledgers.sequences().size());
+    stream.close();
+    assertTrue(connection.awaitClosed());
+  }
+
+  private static void awaitSize(Ledgers ledgers, int size) throws InterruptedException {
+    for (int i = 0; i < 500 && ledgers.sequences().size() < size; i++) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testPolling() throws Exception {
+    Ledgers ledgers = new Ledgers();
+    LedgerHistory history = new LedgerHistory();
+    States states = new States();
+    TestStream stream = new TestStream(URI.create("https://horizon.example.com/ledgers?cursor=" + token(4)), ledgers,
+            new SSEStream.Options().stateListener(states).transport(SSEStream.Transport.POLLING), history);
+    stream.start();
+
+    awaitSize(ledgers, 6);
+    List<Long> sequences = ledgers.sequences();
+    assertEquals(6, sequences.size());
+    for (int i = 0; i < sequences.size(); i++) {
+      assertEquals(Long.valueOf(i + 5), sequences.get(i));
+    }
+    assertEquals(token(10), stream.getLastPagingToken());
+    assertEquals(SSEStream.Transport.POLLING, stream.getTransport());
+    assertEquals(SSEStream.State.OPEN, stream.getState());
+    assertEquals(0, stream.getBackfilledEvents());
+    assertNull(stream.connections.poll());
+    stream.close();
+
+    List<SSEStream.State> expected = new ArrayList<SSEStream.State>();
+    expected.add(SSEStream.State.OPEN);
+    expected.add(SSEStream.State.CLOSED);
+    assertEquals(expected, states.states);
+  }
+
+  @Test
+  public void testPollingFromNowStartsAtLatestEvent() throws Exception {
+    Ledgers ledgers = new Ledgers();
+    LedgerHistory history = new LedgerHistory();
+    TestStream stream = new TestStream(URI.create("https://horizon.example.com/ledgers?cursor=now"), ledgers,
+            new SSEStream.Options().transport(SSEStream.Transport.POLLING), history);
+    stream.start();
+    for (int i = 0; i < 500 && stream.getState() != SSEStream.State.OPEN; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(token(10), stream.getLastPagingToken());
+    assertEquals(token(10), history.cursors.get(0));
+    assertEquals(0, ledgers.sequences().size());
+    stream.close();
+  }
+
+  @Test
+  public void testFallbackToPolling() throws Exception {
+    Ledgers ledgers = new Ledgers();
+    LedgerHistory history = new LedgerHistory();
+    TestStream stream = new TestStream(URI.create("https://horizon.example.com/ledgers?cursor=" + token(4)), ledgers,
+            new SSEStream.Options(), history);
+    stream.start();
+
+    // Connection receiving messages is not counted
+    Connection connection = stream.next();
+    connection.handler.onOpen();
+    connection.message("\"hello\"", null);
+    connection.handler.onClosed(null);
+    // Neither are connections which failed to open
+    for (int i = 0; i < 5; i++) {
+      connection = stream.next();
+      connection.handler.onClosed(new IOException("connection refused"));
+    }
+    for (int i = 0; i < 3; i++) {
+      assertEquals(SSEStream.Transport.SSE, stream.getTransport());
+      connection = stream.next();
+      connection.handler.onOpen();
+      connection.handler.onClosed(new IOException("connection reset"));
+    }
+    assertEquals(SSEStream.Transport.POLLING, stream.getTransport());
+
+    awaitSize(ledgers, 6);
+    assertEquals(6, ledgers.sequences().size());
+    assertEquals(token(10), stream.getLastPagingToken());
+    assertNull(stream.connections.poll());
+    stream.close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPollingNotSupported() {
+    new TestStream(LEDGERS, new Ledgers(), new SSEStream.Options().transport(SSEStream.Transport.POLLING));
+  }
+
+  @Test
+  public void testStalledConnectionIsRecycled() throws Exception {
+    TestStream stream = new TestStream(LEDGERS, new Ledgers(), new SSEStream.Options()
+            .idleTimeout(200, TimeUnit.MILLISECONDS));
+    stream.start();
+    Connection first = stream.next();
+    first.handler.onOpen();
+    first.message("{\"sequence\":5}", "21474836480");
+    // Keep-alive comments keep the connection
+    for (int i = 0; i < 25; i++) {
+      Thread.sleep(20);
+      first.handler.onComment();
+    }
+    assertEquals(0, stream.getStalls());
+    assertFalse(first.closed);
+    assertTrue(stream.getMillisSinceLastEvent() >= 400);
+
+    Connection second = stream.next();
+    assertTrue(first.closed);
+    assertEquals(1, stream.getStalls());
+    assertEquals("21474836480", second.lastEventId);
+    stream.close();
+  }
+
+  @Test
+  public void testStallDetectionDisabled() throws Exception {
+    TestStream stream = new TestStream(LEDGERS, new Ledgers(), new SSEStream.Options()
+            .idleTimeout(0, TimeUnit.MILLISECONDS));
+    stream.start();
+    stream.next().handler.onOpen();
+    assertNull(stream.connections.poll(200, TimeUnit.MILLISECONDS));
+    assertEquals(0, stream.getStalls());
+    stream.close();
+  }
+}
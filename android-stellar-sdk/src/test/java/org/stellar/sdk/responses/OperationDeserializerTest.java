@@ -1,5 +1,7 @@
 package org.stellar.sdk.responses;
 
+import com.google.gson.JsonParseException;
+
 import junit.framework.TestCase;
 
 import org.stellar.sdk.Asset;
@@ -557,4 +559,25 @@ public class OperationDeserializerTest extends TestCase {
 
     assertEquals(operation.getValue(), null);
   }
+
+  @Test
+  public void testDeserializeUnknownOperationType() {
+    try {
+      GsonSingleton.getInstance().fromJson("{\"id\": \"1\", \"type_i\": 99}", OperationResponse.class);
+      fail();
+    } catch (JsonParseException e) {
+      assertEquals("Invalid operation type", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testDeserializeOperationsArray() {
+    OperationResponse[] operations = GsonSingleton.getInstance().fromJson(
+            "[{\"id\": \"1\", \"type_i\": 9}, null, {\"id\": \"2\", \"type_i\": 9}]", OperationResponse[].class);
+
+    assertEquals(3, operations.length);
+    assertTrue(operations[0] instanceof InflationOperationResponse);
+    assertNull(operations[1]);
+    assertEquals(Long.valueOf(2), operations[2].getId());
+  }
 }